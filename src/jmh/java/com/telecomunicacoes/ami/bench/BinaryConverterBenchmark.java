@@ -0,0 +1,50 @@
+package com.telecomunicacoes.ami.bench;
+
+import com.telecomunicacoes.ami.codec.BinaryConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da conversão texto ↔ binário
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryConverterBenchmark {
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    private String text;
+    private String binary;
+
+    @Setup
+    public void setup() {
+        text = Payloads.text(size);
+        binary = BinaryConverter.textToBinary(text);
+    }
+
+    @Benchmark
+    public String textToBinary() {
+        return BinaryConverter.textToBinary(text);
+    }
+
+    @Benchmark
+    public String binaryToText() {
+        return BinaryConverter.binaryToText(binary);
+    }
+}
@@ -0,0 +1,59 @@
+package com.telecomunicacoes.ami.bench;
+
+import com.telecomunicacoes.ami.codec.AMIPseudoternary;
+import com.telecomunicacoes.ami.codec.BinaryConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do codificador AMI Pseudoternário (encode, decode, validateSignal)
+ * O parâmetro size é o tamanho da carga em bytes (8 símbolos por byte)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    private AMIPseudoternary ami;
+    private String binary;
+    private int[] signal;
+
+    @Setup
+    public void setup() {
+        ami = new AMIPseudoternary();
+        binary = BinaryConverter.textToBinary(Payloads.text(size));
+        signal = ami.encode(binary);
+    }
+
+    @Benchmark
+    public int[] encode() {
+        return ami.encode(binary);
+    }
+
+    @Benchmark
+    public String decode() {
+        return ami.decode(signal);
+    }
+
+    @Benchmark
+    public boolean validateSignal() {
+        return ami.validateSignal(signal);
+    }
+}
@@ -0,0 +1,61 @@
+package com.telecomunicacoes.ami.bench;
+
+import com.telecomunicacoes.ami.codec.Encryption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da criptografia (encrypt, decrypt) com XOR e AES-GCM,
+ * com e sem processamento paralelo dos segmentos
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EncryptionBenchmark {
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    @Param({"xor", "aes-gcm"})
+    public String algorithm;
+
+    @Param({"true", "false"})
+    public boolean parallel;
+
+    private Encryption encryption;
+    private String text;
+    private String encrypted;
+
+    @Setup
+    public void setup() {
+        encryption = new Encryption();
+        encryption.setAlgorithm(Encryption.Algorithm.get(algorithm));
+        encryption.setParallel(parallel);
+        text = Payloads.text(size);
+        encrypted = encryption.encrypt(text);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryption.encrypt(text);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryption.decrypt(encrypted);
+    }
+}
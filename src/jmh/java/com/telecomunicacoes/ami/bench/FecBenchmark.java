@@ -0,0 +1,75 @@
+package com.telecomunicacoes.ami.bench;
+
+import com.telecomunicacoes.ami.codec.BinaryConverter;
+import com.telecomunicacoes.ami.codec.HammingCode;
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da correção de erros Hamming(8,4) sobre bits empacotados
+ * O parâmetro size é o tamanho dos dados em bytes; decodeWithErrors
+ * corrompe um bit a cada 64 palavras (com dica de apagamento na metade delas)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FecBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    private byte[] bits;
+    private byte[] coded;
+    private byte[] corrupted;
+    private byte[] suspect;
+    private byte[] decoded;
+
+    @Setup
+    public void setup() {
+        bits = LineCodes.packBits(BinaryConverter.textToBinary(Payloads.text(size)));
+        coded = new byte[size * 2];
+        HammingCode.encode(bits, size * 8, coded);
+        corrupted = coded.clone();
+        suspect = new byte[coded.length];
+        for (int w = 0; w < corrupted.length; w += 64) {
+            corrupted[w] ^= 0x11;
+            if ((w & 64) == 0) {
+                suspect[w] = 0x10;
+            }
+        }
+        decoded = new byte[size];
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        HammingCode.encode(bits, size * 8, coded);
+        return coded;
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        HammingCode.decode(coded, coded.length * 8, null, decoded, null);
+        return decoded;
+    }
+
+    @Benchmark
+    public byte[] decodeWithErrors() {
+        HammingCode.decode(corrupted, corrupted.length * 8, suspect, decoded, null);
+        return decoded;
+    }
+}
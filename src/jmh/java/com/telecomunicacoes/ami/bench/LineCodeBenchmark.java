@@ -0,0 +1,73 @@
+package com.telecomunicacoes.ami.bench;
+
+import com.telecomunicacoes.ami.codec.BinaryConverter;
+import com.telecomunicacoes.ami.codec.line.LineCode;
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark dos códigos de linha sobre buffers empacotados
+ * Mesma carga para todos os códigos; o parâmetro size é o tamanho em bytes
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LineCodeBenchmark {
+
+    @Param({"pseudoternary", "ami", "b8zs", "hdb3", "manchester", "nrzi", "2b1q"})
+    public String code;
+
+    @Param({"1024", "65536"})
+    public int size;
+
+    private LineCode lineCode;
+    private byte[] bits;
+    private int bitCount;
+    private byte[] symbols;
+    private int symbolCount;
+    private byte[] decoded;
+
+    @Setup
+    public void setup() {
+        lineCode = LineCodes.get(code);
+        bits = LineCodes.packBits(BinaryConverter.textToBinary(Payloads.text(size)));
+        bitCount = size * 8;
+        symbols = new byte[lineCode.getSymbolCount(bitCount)];
+        symbolCount = lineCode.encode(bits, bitCount, symbols);
+        decoded = new byte[bits.length];
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        lineCode.encode(bits, bitCount, symbols);
+        return symbols;
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        Arrays.fill(decoded, (byte) 0);
+        lineCode.decode(symbols, symbolCount, decoded);
+        return decoded;
+    }
+
+    @Benchmark
+    public int countViolations() {
+        return lineCode.countViolations(symbols, symbolCount);
+    }
+}
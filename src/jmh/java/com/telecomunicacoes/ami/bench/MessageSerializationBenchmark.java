@@ -0,0 +1,61 @@
+package com.telecomunicacoes.ami.bench;
+
+import com.google.gson.Gson;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.FrameChecksum;
+import com.telecomunicacoes.ami.pipeline.MessagePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do formato de transmissão (Message ↔ JSON via Gson e
+ * CRC32C do quadro), com a mensagem montada pelo pipeline completo
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageSerializationBenchmark {
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    private Gson gson;
+    private Message message;
+    private String json;
+
+    @Setup
+    public void setup() {
+        gson = new Gson();
+        message = new MessagePipeline().transmit(Payloads.text(size));
+        json = gson.toJson(message);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return gson.toJson(message);
+    }
+
+    @Benchmark
+    public Message deserialize() {
+        return gson.fromJson(json, Message.class);
+    }
+
+    @Benchmark
+    public long checksum() {
+        return FrameChecksum.compute(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.telecomunicacoes.ami.bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * Geração de cargas determinísticas para os benchmarks
+ */
+final class Payloads {
+
+    private static final String ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 .,;";
+
+    private Payloads() {
+    }
+
+    /**
+     * Texto ASCII com exatamente size bytes em UTF-8
+     * @param size Tamanho em bytes
+     * @return Texto pseudoaleatório (semente fixa)
+     */
+    static String text(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,58 @@
+package com.telecomunicacoes.ami.bench;
+
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.pipeline.MessagePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do pipeline completo (transmit, receive), no modo de texto
+ * (Base64 e strings binárias) e no modo de bytes crus
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PipelineBenchmark {
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean raw;
+
+    private MessagePipeline pipeline;
+    private String text;
+    private Message message;
+
+    @Setup
+    public void setup() {
+        pipeline = new MessagePipeline();
+        pipeline.setRawPayload(raw);
+        text = Payloads.text(size);
+        message = pipeline.transmit(text);
+    }
+
+    @Benchmark
+    public Message transmit() {
+        return pipeline.transmit(text);
+    }
+
+    @Benchmark
+    public MessagePipeline.Reception receive() {
+        return pipeline.receive(message);
+    }
+}
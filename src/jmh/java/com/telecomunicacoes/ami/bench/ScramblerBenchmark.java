@@ -0,0 +1,58 @@
+package com.telecomunicacoes.ami.bench;
+
+import com.telecomunicacoes.ami.codec.BinaryConverter;
+import com.telecomunicacoes.ami.codec.Scrambler;
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do embaralhador sobre bits empacotados (no lugar)
+ * O parâmetro size é o tamanho da carga em bytes
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScramblerBenchmark {
+
+    @Param({"x43", "x7"})
+    public String scrambler;
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    private Scrambler instance;
+    private byte[] bits;
+
+    @Setup
+    public void setup() {
+        instance = Scrambler.get(scrambler);
+        bits = LineCodes.packBits(BinaryConverter.textToBinary(Payloads.text(size)));
+    }
+
+    @Benchmark
+    public byte[] scramble() {
+        instance.scramble(bits, size * 8);
+        return bits;
+    }
+
+    @Benchmark
+    public byte[] descramble() {
+        instance.descramble(bits, size * 8);
+        return bits;
+    }
+}
@@ -0,0 +1,70 @@
+package com.telecomunicacoes.ami.bench;
+
+import com.telecomunicacoes.ami.codec.AMIPseudoternary;
+import com.telecomunicacoes.ami.codec.BinaryConverter;
+import com.telecomunicacoes.ami.dsp.PulseShape;
+import com.telecomunicacoes.ami.dsp.WaveformReceiver;
+import com.telecomunicacoes.ami.dsp.WaveformSynthesizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da síntese e recepção da forma de onda amostrada
+ * Um bloco de 4096 símbolos por operação; o parâmetro sps é o número
+ * de amostras por símbolo
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class WaveformBenchmark {
+
+    private static final int BLOCK_SYMBOLS = 4096;
+
+    @Param({"4", "8", "16"})
+    public int sps;
+
+    @Param({"rect", "rc"})
+    public String pulse;
+
+    private WaveformSynthesizer synthesizer;
+    private WaveformReceiver receiver;
+    private int[] symbols;
+    private float[] samples;
+    private int[] decided;
+
+    @Setup
+    public void setup() {
+        PulseShape shape = pulse.equals("rect") ? PulseShape.rectangular() : PulseShape.raisedCosine(0.5, 6);
+        synthesizer = new WaveformSynthesizer(sps, shape);
+        receiver = new WaveformReceiver(sps, synthesizer.getDelaySamples());
+        symbols = new AMIPseudoternary().encode(BinaryConverter.textToBinary(Payloads.text(BLOCK_SYMBOLS / 8)));
+        samples = new float[BLOCK_SYMBOLS * sps];
+        decided = new int[BLOCK_SYMBOLS * 2];
+        synthesizer.render(symbols, 0, symbols.length, samples, 0);
+    }
+
+    @Benchmark
+    public float[] synthesize() {
+        synthesizer.render(symbols, 0, symbols.length, samples, 0);
+        return samples;
+    }
+
+    @Benchmark
+    public int receive() {
+        return receiver.process(samples, 0, samples.length, decided, 0);
+    }
+}
@@ -1,5 +1,6 @@
 package com.telecomunicacoes.ami;
 
+import com.telecomunicacoes.ami.cli.HeadlessRunner;
 import com.telecomunicacoes.ami.gui.MainWindow;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -7,6 +8,9 @@ import javafx.stage.Stage;
 /**
  * Classe principal da aplicação AMI Pseudoternário
  * Sistema de Comunicação de Dados com Codificação de Linha
+ *
+ * Sem argumentos inicia a interface gráfica; com um comando
+ * (encode, decode, send, server) executa o modo sem interface.
  */
 public class Main extends Application {
 
@@ -22,6 +26,9 @@ public class Main extends Application {
     }
 
     public static void main(String[] args) {
+        if (args.length > 0 && HeadlessRunner.isCommand(args[0])) {
+            System.exit(HeadlessRunner.run(args));
+        }
         launch(args);
     }
 }
\ No newline at end of file
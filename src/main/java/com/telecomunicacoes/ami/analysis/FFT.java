@@ -0,0 +1,79 @@
+package com.telecomunicacoes.ami.analysis;
+
+/**
+ * Transformada rápida de Fourier (radix-2, in-place)
+ *
+ * FUNCIONAMENTO:
+ * - Tabelas de seno/cosseno e de inversão de bits são calculadas uma
+ *   vez no construtor, para um tamanho fixo (potência de 2)
+ * - transform() reordena as amostras e aplica log2(N) estágios de
+ *   borboletas, sem alocar memória
+ */
+public class FFT {
+
+    private final int size;
+    private final int[] bitReverse;
+    private final double[] cos;
+    private final double[] sin;
+
+    /**
+     * @param size Número de pontos (potência de 2)
+     */
+    public FFT(int size) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Tamanho da FFT deve ser potência de 2");
+        }
+        this.size = size;
+
+        int bits = Integer.numberOfTrailingZeros(size);
+        bitReverse = new int[size];
+        for (int i = 0; i < size; i++) {
+            bitReverse[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+
+        cos = new double[size / 2];
+        sin = new double[size / 2];
+        for (int i = 0; i < size / 2; i++) {
+            double angle = -2 * Math.PI * i / size;
+            cos[i] = Math.cos(angle);
+            sin[i] = Math.sin(angle);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Calcula a FFT direta no lugar
+     * @param re Parte real (entrada e saída)
+     * @param im Parte imaginária (entrada e saída)
+     */
+    public void transform(double[] re, double[] im) {
+        for (int i = 0; i < size; i++) {
+            int j = bitReverse[i];
+            if (j > i) {
+                double t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+
+        for (int half = 1; half < size; half <<= 1) {
+            int tableStep = size / (2 * half);
+            for (int start = 0; start < size; start += 2 * half) {
+                for (int k = 0; k < half; k++) {
+                    double wr = cos[k * tableStep];
+                    double wi = sin[k * tableStep];
+                    int a = start + k;
+                    int b = a + half;
+                    double tr = re[b] * wr - im[b] * wi;
+                    double ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+}
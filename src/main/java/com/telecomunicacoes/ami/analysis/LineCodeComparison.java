@@ -0,0 +1,195 @@
+package com.telecomunicacoes.ami.analysis;
+
+import com.telecomunicacoes.ami.codec.line.LineCode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Comparação de códigos de linha sobre o mesmo tráfego
+ *
+ * FUNCIONAMENTO:
+ * 1. Gera bits aleatórios em blocos, com a mesma semente para todos os
+ *    códigos (todos recebem exatamente a mesma sequência)
+ * 2. Codifica e decodifica cada bloco nos buffers empacotados do
+ *    LineCode, medindo a vazão de cada sentido
+ * 3. Confere que os bits decodificados são iguais aos enviados
+ * 4. Alimenta um SignalAnalyzer por código (DC, sequências, espectro)
+ *
+ * Como em MessagePipeline, cada bloco é codificado em uma chamada
+ * independente (a polaridade recomeça a cada bloco). As frequências do
+ * espectro são normalizadas pela taxa de símbolos de cada código
+ * (Manchester usa 2 símbolos por bit; 2B1Q, meio).
+ */
+public class LineCodeComparison {
+
+    private final List<LineCode> codes;
+    private final long totalBits;
+    private final int blockBits;
+    private final long seed;
+    private final int segmentSize;
+
+    /**
+     * @param codes Códigos a comparar
+     * @param totalBits Número total de bits de tráfego
+     * @param blockBits Bits por bloco (múltiplo de 8)
+     * @param seed Semente do tráfego
+     * @param segmentSize Tamanho do segmento do espectro (potência de 2)
+     */
+    public LineCodeComparison(List<LineCode> codes, long totalBits, int blockBits, long seed, int segmentSize) {
+        if (codes.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum código para comparar");
+        }
+        if (totalBits <= 0 || blockBits <= 0 || blockBits % 8 != 0) {
+            throw new IllegalArgumentException("Número de bits deve ser positivo e o bloco, múltiplo de 8");
+        }
+        this.codes = new ArrayList<>(codes);
+        this.totalBits = totalBits;
+        this.blockBits = blockBits;
+        this.seed = seed;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Resultado de um código
+     */
+    public static class Result {
+        private final LineCode code;
+        private final SignalAnalyzer analyzer;
+        private long symbols;
+        private long encodeNanos;
+        private long decodeNanos;
+        private long bitErrors;
+
+        private Result(LineCode code, SignalAnalyzer analyzer) {
+            this.code = code;
+            this.analyzer = analyzer;
+        }
+
+        public LineCode getCode() {
+            return code;
+        }
+
+        public SignalAnalyzer getAnalyzer() {
+            return analyzer;
+        }
+
+        /**
+         * Vazão de codificação
+         * @return Milhões de símbolos por segundo
+         */
+        public double getEncodeRate() {
+            return symbols / (encodeNanos / 1e9) / 1e6;
+        }
+
+        /**
+         * Vazão de decodificação
+         * @return Milhões de símbolos por segundo
+         */
+        public double getDecodeRate() {
+            return symbols / (decodeNanos / 1e9) / 1e6;
+        }
+
+        /**
+         * Bits decodificados diferentes dos enviados (deve ser 0)
+         * @return Total de bits errados
+         */
+        public long getBitErrors() {
+            return bitErrors;
+        }
+    }
+
+    /**
+     * Executa a comparação
+     * @return Um resultado por código, na ordem recebida
+     */
+    public List<Result> run() {
+        List<Result> results = new ArrayList<>();
+        for (LineCode code : codes) {
+            results.add(measure(code));
+        }
+        return results;
+    }
+
+    private Result measure(LineCode code) {
+        Result result = new Result(code, new SignalAnalyzer(segmentSize));
+        SplittableRandom random = new SplittableRandom(seed);
+
+        byte[] bits = new byte[blockBits / 8];
+        byte[] symbols = new byte[code.getSymbolCount(blockBits)];
+        byte[] decoded = new byte[bits.length + 1];
+        int[] signal = new int[symbols.length];
+
+        for (long sent = 0; sent < totalBits; sent += blockBits) {
+            int size = (int) Math.min(blockBits, totalBits - sent);
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = (byte) random.nextInt(256);
+            }
+
+            long start = System.nanoTime();
+            int symbolCount = code.encode(bits, size, symbols);
+            long middle = System.nanoTime();
+            Arrays.fill(decoded, (byte) 0);
+            long decodeStart = System.nanoTime();
+            int bitCount = code.decode(symbols, symbolCount, decoded);
+            long end = System.nanoTime();
+
+            result.encodeNanos += middle - start;
+            result.decodeNanos += end - decodeStart;
+            result.symbols += symbolCount;
+            result.bitErrors += countBitErrors(bits, decoded, size) + Math.abs(bitCount - size);
+
+            for (int i = 0; i < symbolCount; i++) {
+                signal[i] = symbols[i];
+            }
+            result.analyzer.update(signal, 0, symbolCount);
+        }
+        return result;
+    }
+
+    private static long countBitErrors(byte[] sent, byte[] received, int bitCount) {
+        long errors = 0;
+        int fullBytes = bitCount / 8;
+        for (int i = 0; i < fullBytes; i++) {
+            errors += Integer.bitCount((sent[i] ^ received[i]) & 0xFF);
+        }
+        int rest = bitCount % 8;
+        if (rest != 0) {
+            int mask = (0xFF00 >> rest) & 0xFF;
+            errors += Integer.bitCount((sent[fullBytes] ^ received[fullBytes]) & mask);
+        }
+        return errors;
+    }
+
+    /**
+     * Tabela comparativa dos resultados
+     * @param results Resultados de run()
+     * @return Relatório em texto
+     */
+    public String report(List<Result> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Tráfego: %d bits aleatórios (semente %d, blocos de %d bits)%n",
+                totalBits, seed, blockBits));
+        sb.append(String.format(Locale.ROOT, "%-14s %9s %10s %10s %8s %8s %8s %9s %9s %6s%n",
+                "Código", "Símb/bit", "Cod Ms/s", "Dec Ms/s", "DSV", "Zeros", "Plano",
+                "DC dB", "<0,05Rs", "Erros"));
+        for (Result result : results) {
+            SignalAnalyzer analyzer = result.analyzer;
+            double[] psd = analyzer.getPsd();
+            sb.append(String.format(Locale.ROOT, "%-14s %9.2f %10.1f %10.1f %8d %8d %8d %9.1f %8.2f%% %6d%n",
+                    result.code.getId(),
+                    (double) result.symbols / totalBits,
+                    result.getEncodeRate(), result.getDecodeRate(),
+                    analyzer.getDigitalSumVariation(),
+                    analyzer.getLongestZeroRun(),
+                    analyzer.getLongestFlatRun(),
+                    psd.length == 0 ? Double.NaN : SignalAnalyzer.toDb(psd[0]),
+                    analyzer.getPowerFractionBelow(0.05) * 100,
+                    result.bitErrors));
+        }
+        return sb.toString().stripTrailing();
+    }
+}
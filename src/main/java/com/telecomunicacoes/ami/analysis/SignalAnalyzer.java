@@ -0,0 +1,301 @@
+package com.telecomunicacoes.ami.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Análise de adequação do código de linha sobre sinais longos
+ *
+ * MEDIDAS (calculadas em streaming, com memória fixa):
+ * - Contagem de +V, 0V e -V
+ * - Disparidade acumulada (soma corrente dos níveis): o equilíbrio DC;
+ *   a variação máxima (DSV = máximo - mínimo) indica quanto o sinal se
+ *   afasta do nível médio
+ * - Maior sequência de zeros: no AMI Pseudoternário, bits 1 viram 0V e
+ *   uma longa sequência sem transições ameaça o sincronismo do receptor
+ * - Maior sequência sem transição (qualquer nível repetido): a mesma
+ *   medida para códigos sem nível zero, como Manchester, NRZ-I e 2B1Q
+ * - Densidade espectral de potência (método de Welch)
+ * - Traço da disparidade com no máximo TRACE_POINTS pontos: quando o
+ *   traço enche, os pontos são dizimados pela metade e o passo dobra
+ */
+public class SignalAnalyzer {
+
+    /** Número máximo de pontos guardados no traço da disparidade */
+    public static final int TRACE_POINTS = 1024;
+
+    private final WelchEstimator welch;
+
+    private long symbolCount;
+    private long positiveCount;
+    private long zeroCount;
+    private long negativeCount;
+
+    private long disparity;
+    private long minDisparity;
+    private long maxDisparity;
+
+    private long currentZeroRun;
+    private long longestZeroRun;
+    private long longestZeroRunStart;
+
+    private int lastLevel = Integer.MIN_VALUE;
+    private long currentFlatRun;
+    private long longestFlatRun;
+
+    private final long[] trace = new long[TRACE_POINTS];
+    private int traceCount;
+    private long traceStride = 1;
+
+    /**
+     * @param segmentSize Tamanho do segmento do espectro (potência de 2)
+     */
+    public SignalAnalyzer(int segmentSize) {
+        this.welch = new WelchEstimator(segmentSize);
+    }
+
+    public SignalAnalyzer() {
+        this(256);
+    }
+
+    /**
+     * Processa um bloco de símbolos (pode ser chamado repetidamente)
+     * @param symbols Níveis (-1, 0, +1)
+     */
+    public void update(int[] symbols) {
+        update(symbols, 0, symbols.length);
+    }
+
+    /**
+     * Processa parte de um bloco de símbolos
+     * @param symbols Níveis (-1, 0, +1)
+     * @param offset Posição inicial
+     * @param length Quantidade
+     */
+    public void update(int[] symbols, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            int level = symbols[i];
+
+            if (level == lastLevel) {
+                currentFlatRun++;
+            } else {
+                currentFlatRun = 1;
+                lastLevel = level;
+            }
+            if (currentFlatRun > longestFlatRun) {
+                longestFlatRun = currentFlatRun;
+            }
+
+            if (level == 0) {
+                zeroCount++;
+                currentZeroRun++;
+                if (currentZeroRun > longestZeroRun) {
+                    longestZeroRun = currentZeroRun;
+                    longestZeroRunStart = symbolCount - currentZeroRun + 1;
+                }
+            } else {
+                if (level > 0) {
+                    positiveCount++;
+                } else {
+                    negativeCount++;
+                }
+                currentZeroRun = 0;
+                disparity += level;
+                if (disparity > maxDisparity) {
+                    maxDisparity = disparity;
+                } else if (disparity < minDisparity) {
+                    minDisparity = disparity;
+                }
+            }
+
+            if (symbolCount % traceStride == 0) {
+                appendTrace(disparity);
+            }
+            symbolCount++;
+        }
+        welch.add(symbols, offset, length);
+    }
+
+    private void appendTrace(long value) {
+        if (traceCount == TRACE_POINTS) {
+            // Dizima: mantém um ponto a cada dois e dobra o passo
+            for (int i = 0; i < TRACE_POINTS / 2; i++) {
+                trace[i] = trace[2 * i];
+            }
+            traceCount = TRACE_POINTS / 2;
+            traceStride *= 2;
+            if ((symbolCount % traceStride) != 0) {
+                return;
+            }
+        }
+        trace[traceCount++] = value;
+    }
+
+    public long getSymbolCount() {
+        return symbolCount;
+    }
+
+    public long getPositiveCount() {
+        return positiveCount;
+    }
+
+    public long getZeroCount() {
+        return zeroCount;
+    }
+
+    public long getNegativeCount() {
+        return negativeCount;
+    }
+
+    /**
+     * Disparidade acumulada atual (soma de todos os níveis)
+     * @return Disparidade
+     */
+    public long getDisparity() {
+        return disparity;
+    }
+
+    public long getMinDisparity() {
+        return minDisparity;
+    }
+
+    public long getMaxDisparity() {
+        return maxDisparity;
+    }
+
+    /**
+     * Variação da soma digital (DSV): amplitude da disparidade acumulada
+     * @return Máximo - mínimo
+     */
+    public long getDigitalSumVariation() {
+        return maxDisparity - minDisparity;
+    }
+
+    public long getLongestZeroRun() {
+        return longestZeroRun;
+    }
+
+    /**
+     * Posição do primeiro símbolo da maior sequência de zeros
+     * @return Índice do símbolo (0 se não houve zeros)
+     */
+    public long getLongestZeroRunStart() {
+        return longestZeroRunStart;
+    }
+
+    /**
+     * Maior número de símbolos consecutivos no mesmo nível
+     * @return Maior sequência sem transição
+     */
+    public long getLongestFlatRun() {
+        return longestFlatRun;
+    }
+
+    /**
+     * Componente DC média (disparidade / número de símbolos)
+     * @return Nível médio
+     */
+    public double getMeanLevel() {
+        return symbolCount == 0 ? 0 : (double) disparity / symbolCount;
+    }
+
+    /**
+     * Densidade espectral de potência (frequência normalizada pela taxa de símbolos)
+     * @return N/2 + 1 raias de f = 0 a f = 0,5
+     */
+    public double[] getPsd() {
+        return welch.getPsd();
+    }
+
+    public long getSpectrumSegments() {
+        return welch.getSegmentCount();
+    }
+
+    /**
+     * Traço dizimado da disparidade acumulada
+     * @return Pontos (no máximo TRACE_POINTS), um a cada getTraceStride() símbolos
+     */
+    public long[] getDisparityTrace() {
+        return Arrays.copyOf(trace, traceCount);
+    }
+
+    public long getTraceStride() {
+        return traceStride;
+    }
+
+    /**
+     * Fração da potência abaixo de uma frequência (normalizada pela taxa de símbolos)
+     * @param cutoff Frequência de corte (0 a 0,5)
+     * @return Fração da potência (0 a 1), ou NaN sem espectro
+     */
+    public double getPowerFractionBelow(double cutoff) {
+        double[] psd = getPsd();
+        if (psd.length == 0) {
+            return Double.NaN;
+        }
+        int bins = psd.length - 1;
+        int limit = (int) Math.round(cutoff * 2 * bins);
+        double below = 0;
+        double total = 0;
+        for (int k = 0; k < psd.length; k++) {
+            // Raias 0 e N/2 aparecem uma vez no espectro bilateral; as demais, duas
+            double weight = (k == 0 || k == bins) ? 1 : 2;
+            total += psd[k] * weight;
+            if (k <= limit) {
+                below += psd[k] * weight;
+            }
+        }
+        return total == 0 ? 0 : below / total;
+    }
+
+    /**
+     * Relatório em texto de todas as medidas
+     * @return Relatório
+     */
+    public String report() {
+        if (symbolCount == 0) {
+            return "Sinal vazio";
+        }
+        double[] psd = getPsd();
+        String spectrum;
+        if (psd.length == 0) {
+            spectrum = "Espectro: sinal menor que um segmento (" + welch.getSegmentSize() + " símbolos)";
+        } else {
+            spectrum = String.format(
+                    "Espectro: %d segmentos de %d | DC: %.1f dB | pico em f=%.3f·Rs | potência abaixo de 0,05·Rs: %.2f%%",
+                    welch.getSegmentCount(), welch.getSegmentSize(),
+                    toDb(psd[0]), peakFrequency(psd), getPowerFractionBelow(0.05) * 100);
+        }
+        return String.format(
+                "Símbolos: %d | +V: %.1f%% | 0V: %.1f%% | -V: %.1f%%%n" +
+                "Disparidade final: %d | mín: %d | máx: %d | DSV: %d | nível médio: %.4f%n" +
+                "Maior sequência de zeros: %d (a partir do símbolo %d) | sem transição: %d%n" +
+                "%s",
+                symbolCount,
+                positiveCount * 100.0 / symbolCount,
+                zeroCount * 100.0 / symbolCount,
+                negativeCount * 100.0 / symbolCount,
+                disparity, minDisparity, maxDisparity, getDigitalSumVariation(), getMeanLevel(),
+                longestZeroRun, longestZeroRunStart, longestFlatRun,
+                spectrum
+        );
+    }
+
+    private static double peakFrequency(double[] psd) {
+        int peak = 0;
+        for (int k = 1; k < psd.length; k++) {
+            if (psd[k] > psd[peak]) {
+                peak = k;
+            }
+        }
+        return 0.5 * peak / (psd.length - 1);
+    }
+
+    /**
+     * Converte densidade em decibéis (com piso em -120 dB)
+     * @param value Densidade linear
+     * @return Valor em dB
+     */
+    public static double toDb(double value) {
+        return 10 * Math.log10(Math.max(value, 1e-12));
+    }
+}
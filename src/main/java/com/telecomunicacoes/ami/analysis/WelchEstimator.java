@@ -0,0 +1,142 @@
+package com.telecomunicacoes.ami.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Estimativa da densidade espectral de potência pelo método de Welch
+ *
+ * FUNCIONAMENTO:
+ * 1. As amostras chegam em blocos de qualquer tamanho (streaming)
+ * 2. A cada segmento completo de N amostras, aplica a janela de Hann,
+ *    calcula a FFT e acumula |X[k]|²
+ * 3. Os segmentos se sobrepõem em 50% (metade final vira o início do
+ *    próximo segmento)
+ * 4. getPsd() retorna a média dos periodogramas
+ *
+ * A memória é fixa (alguns vetores de N posições), independente do
+ * comprimento do sinal. Não é thread-safe.
+ */
+public class WelchEstimator {
+
+    private final int segmentSize;
+    private final FFT fft;
+    private final double[] window;
+    private final double windowPower;
+
+    private final double[] segment;
+    private int filled;
+
+    private final double[] re;
+    private final double[] im;
+    private final double[] accumulated;
+    private long segments;
+
+    /**
+     * @param segmentSize Tamanho do segmento (potência de 2; define a resolução em frequência)
+     */
+    public WelchEstimator(int segmentSize) {
+        this.fft = new FFT(segmentSize);
+        this.segmentSize = segmentSize;
+
+        window = new double[segmentSize];
+        double power = 0;
+        for (int i = 0; i < segmentSize; i++) {
+            window[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / segmentSize);
+            power += window[i] * window[i];
+        }
+        windowPower = power;
+
+        segment = new double[segmentSize];
+        re = new double[segmentSize];
+        im = new double[segmentSize];
+        accumulated = new double[segmentSize / 2 + 1];
+    }
+
+    /**
+     * Adiciona símbolos (níveis -1, 0, +1) ao fluxo
+     * @param symbols Símbolos
+     * @param offset Posição inicial
+     * @param length Quantidade
+     */
+    public void add(int[] symbols, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            segment[filled++] = symbols[i];
+            if (filled == segmentSize) {
+                processSegment();
+            }
+        }
+    }
+
+    /**
+     * Adiciona amostras analógicas ao fluxo
+     * @param samples Amostras
+     * @param offset Posição inicial
+     * @param length Quantidade
+     */
+    public void add(float[] samples, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            segment[filled++] = samples[i];
+            if (filled == segmentSize) {
+                processSegment();
+            }
+        }
+    }
+
+    private void processSegment() {
+        for (int i = 0; i < segmentSize; i++) {
+            re[i] = segment[i] * window[i];
+            im[i] = 0;
+        }
+        fft.transform(re, im);
+        for (int k = 0; k < accumulated.length; k++) {
+            accumulated[k] += re[k] * re[k] + im[k] * im[k];
+        }
+        segments++;
+
+        // Sobreposição de 50%: a segunda metade inicia o próximo segmento
+        int half = segmentSize / 2;
+        System.arraycopy(segment, half, segment, 0, half);
+        filled = half;
+    }
+
+    /**
+     * Densidade espectral média (bilateral, por amostra), de f = 0 a f = fs/2
+     *
+     * A escala é tal que a média de todas as N raias bilaterais é a
+     * potência média do sinal (E[x²]).
+     *
+     * @return N/2 + 1 valores; vazio se nenhum segmento foi completado
+     */
+    public double[] getPsd() {
+        if (segments == 0) {
+            return new double[0];
+        }
+        double[] psd = new double[accumulated.length];
+        double scale = 1.0 / (windowPower * segments);
+        for (int k = 0; k < psd.length; k++) {
+            psd[k] = accumulated[k] * scale;
+        }
+        return psd;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Número de segmentos já promediados
+     * @return Total de segmentos
+     */
+    public long getSegmentCount() {
+        return segments;
+    }
+
+    /**
+     * Descarta o estado acumulado
+     */
+    public void reset() {
+        Arrays.fill(accumulated, 0);
+        filled = 0;
+        segments = 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.telecomunicacoes.ami.channel;
+
+/**
+ * Estágio de canal entre transmissor e receptor
+ *
+ * Recebe o sinal transmitido e devolve o sinal como chegaria ao
+ * receptor, possivelmente com erros, símbolos perdidos e atraso.
+ */
+public interface ChannelStage {
+
+    /**
+     * Aplica o canal ao sinal
+     * @param signal Níveis transmitidos (não é alterado)
+     * @return Níveis recebidos (pode ter tamanho diferente, se houver perdas)
+     */
+    int[] transmit(int[] signal);
+
+    /**
+     * Atraso de propagação a aplicar na próxima mensagem
+     * @return Atraso em nanossegundos (0 = sem atraso)
+     */
+    default long nextDelayNanos() {
+        return 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.telecomunicacoes.ami.channel;
+
+import com.telecomunicacoes.ami.codec.AMIPseudoternary;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Experimento de detecção de erros do AMI Pseudoternário em larga escala
+ *
+ * FUNCIONAMENTO:
+ * 1. Gera quadros de bits aleatórios e os codifica em AMI
+ * 2. Passa cada quadro pelo canal simulado
+ * 3. Compara com o quadro transmitido (erro real) e verifica se houve
+ *    violação de alternância (erro detectado pelo receptor)
+ *
+ * A taxa de detecção mostra que fração dos quadros corrompidos seria
+ * percebida apenas pelas regras de alternância do código.
+ */
+public class DetectionExperiment {
+
+    private final ChannelStage channel;
+    private final long totalSymbols;
+    private final int frameSize;
+    private final long seed;
+
+    /**
+     * @param channel Canal a ser avaliado
+     * @param totalSymbols Número total de símbolos a transmitir
+     * @param frameSize Símbolos por quadro
+     * @param seed Semente dos dados transmitidos
+     */
+    public DetectionExperiment(ChannelStage channel, long totalSymbols, int frameSize, long seed) {
+        if (totalSymbols <= 0 || frameSize <= 0) {
+            throw new IllegalArgumentException("Número de símbolos e tamanho do quadro devem ser positivos");
+        }
+        this.channel = channel;
+        this.totalSymbols = totalSymbols;
+        this.frameSize = frameSize;
+        this.seed = seed;
+    }
+
+    /**
+     * Executa o experimento
+     * @return Relatório em texto
+     */
+    public String run() {
+        AMIPseudoternary ami = new AMIPseudoternary();
+        SplittableRandom random = new SplittableRandom(seed);
+        char[] bits = new char[frameSize];
+
+        long frames = 0;
+        long corrupted = 0;
+        long detected = 0;
+        long falseAlarms = 0;
+        long lengthChanged = 0;
+        long channelNanos = 0;
+
+        for (long sent = 0; sent < totalSymbols; sent += frameSize) {
+            int size = (int) Math.min(frameSize, totalSymbols - sent);
+            for (int i = 0; i < size; i++) {
+                bits[i] = random.nextBoolean() ? '1' : '0';
+            }
+            int[] frame = ami.encode(new String(bits, 0, size));
+
+            long start = System.nanoTime();
+            int[] received = channel.transmit(frame);
+            channelNanos += System.nanoTime() - start;
+
+            boolean isCorrupted = !Arrays.equals(frame, received);
+            boolean isDetected = AMIPseudoternary.countViolations(received) > 0;
+
+            frames++;
+            if (isCorrupted) {
+                corrupted++;
+                if (isDetected) {
+                    detected++;
+                }
+            } else if (isDetected) {
+                falseAlarms++;
+            }
+            if (received.length != frame.length) {
+                lengthChanged++;
+            }
+        }
+
+        double seconds = channelNanos / 1e9;
+        return String.format(
+                "Quadros: %d (%d símbolos cada) | Corrompidos: %d | Detectados por violação: %d (%.2f%%)%n" +
+                "Alarmes falsos: %d | Quadros com perda de símbolos: %d%n" +
+                "Vazão do canal: %.1f Msímbolos/s",
+                frames, frameSize, corrupted, detected,
+                corrupted == 0 ? 0.0 : detected * 100.0 / corrupted,
+                falseAlarms, lengthChanged,
+                seconds == 0 ? 0.0 : totalSymbols / seconds / 1e6
+        );
+    }
+}
@@ -0,0 +1,256 @@
+package com.telecomunicacoes.ami.channel;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Simulador de canal com ruído, perdas e atraso
+ *
+ * IMPERFEIÇÕES (aplicadas nesta ordem a cada símbolo):
+ * 1. Ruído de amplitude: o nível vira uma amostra analógica
+ *    (nível + ruído gaussiano de desvio noiseSigma) e é refatiado
+ *    com limiares em ±0,5
+ * 2. Erro de polaridade: pulso +V vira -V e vice-versa
+ * 3. Troca de símbolo: o nível é substituído por outro nível válido
+ * 4. Perda de símbolo: o símbolo é removido do fluxo
+ *
+ * Eventos raros são sorteados por salto geométrico (distância até o
+ * próximo evento), então o custo é proporcional ao número de eventos
+ * e não ao de símbolos. Com a mesma semente, o resultado é reproduzível.
+ */
+public class NoisyChannel implements ChannelStage {
+
+    // Distância usada quando o evento está desabilitado (sem risco de overflow)
+    private static final long NEVER = Long.MAX_VALUE / 4;
+
+    private final long seed;
+    private SplittableRandom random;
+
+    private double flipProbability;
+    private double dropProbability;
+    private double polarityErrorProbability;
+    private double noiseSigma;
+    private long latencyNanos;
+    private long jitterNanos;
+
+    // Distância até o próximo evento de cada tipo (persistem entre chamadas)
+    private long nextFlip;
+    private long nextDrop;
+    private long nextPolarityError;
+
+    // Estatísticas
+    private long symbolCount;
+    private long flipCount;
+    private long dropCount;
+    private long polarityErrorCount;
+    private long noiseErrorCount;
+
+    public NoisyChannel(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    /**
+     * Reinicia o gerador com a semente original e zera as estatísticas
+     */
+    public synchronized void reset() {
+        random = new SplittableRandom(seed);
+        nextFlip = skip(flipProbability);
+        nextDrop = skip(dropProbability);
+        nextPolarityError = skip(polarityErrorProbability);
+        symbolCount = 0;
+        flipCount = 0;
+        dropCount = 0;
+        polarityErrorCount = 0;
+        noiseErrorCount = 0;
+    }
+
+    @Override
+    public synchronized int[] transmit(int[] signal) {
+        if (signal == null || signal.length == 0) {
+            return signal;
+        }
+
+        int[] out = signal.clone();
+
+        if (noiseSigma > 0) {
+            applyNoise(out);
+        }
+        if (polarityErrorProbability > 0) {
+            applyPolarityErrors(out);
+        }
+        if (flipProbability > 0) {
+            applyFlips(out);
+        }
+        if (dropProbability > 0) {
+            out = applyDrops(out);
+        }
+
+        symbolCount += signal.length;
+        return out;
+    }
+
+    @Override
+    public synchronized long nextDelayNanos() {
+        if (jitterNanos == 0) {
+            return latencyNanos;
+        }
+        long delay = latencyNanos + random.nextLong(-jitterNanos, jitterNanos + 1);
+        return Math.max(0, delay);
+    }
+
+    private void applyNoise(int[] levels) {
+        for (int i = 0; i < levels.length; i++) {
+            double sample = levels[i] + random.nextGaussian() * noiseSigma;
+            int sliced = sample > 0.5 ? 1 : (sample < -0.5 ? -1 : 0);
+            if (sliced != levels[i]) {
+                levels[i] = sliced;
+                noiseErrorCount++;
+            }
+        }
+    }
+
+    private void applyPolarityErrors(int[] levels) {
+        long pos = nextPolarityError;
+        while (pos < levels.length) {
+            int i = (int) pos;
+            if (levels[i] != 0) {
+                levels[i] = -levels[i];
+                polarityErrorCount++;
+            }
+            pos += 1 + skip(polarityErrorProbability);
+        }
+        nextPolarityError = pos - levels.length;
+    }
+
+    private void applyFlips(int[] levels) {
+        long pos = nextFlip;
+        while (pos < levels.length) {
+            int i = (int) pos;
+            // Um dos outros dois níveis: -1 → {0, +1}, 0 → {-1, +1}, +1 → {-1, 0}
+            int other = random.nextBoolean() ? 1 : 2;
+            levels[i] = ((levels[i] + 1 + other) % 3) - 1;
+            flipCount++;
+            pos += 1 + skip(flipProbability);
+        }
+        nextFlip = pos - levels.length;
+    }
+
+    private int[] applyDrops(int[] levels) {
+        long pos = nextDrop;
+        if (pos >= levels.length) {
+            nextDrop = pos - levels.length;
+            return levels;
+        }
+
+        int[] out = new int[levels.length];
+        int written = 0;
+        int from = 0;
+        while (pos < levels.length) {
+            int i = (int) pos;
+            System.arraycopy(levels, from, out, written, i - from);
+            written += i - from;
+            from = i + 1;
+            dropCount++;
+            pos += 1 + skip(dropProbability);
+        }
+        System.arraycopy(levels, from, out, written, levels.length - from);
+        written += levels.length - from;
+        nextDrop = pos - levels.length;
+
+        return Arrays.copyOf(out, written);
+    }
+
+    /**
+     * Sorteia quantos símbolos passam sem evento (distribuição geométrica)
+     * @param probability Probabilidade do evento por símbolo
+     * @return Número de símbolos até o próximo evento
+     */
+    private long skip(double probability) {
+        if (probability <= 0) {
+            return NEVER;
+        }
+        if (probability >= 1) {
+            return 0;
+        }
+        double u = 1.0 - random.nextDouble(); // (0, 1]
+        return (long) Math.min(NEVER, Math.floor(Math.log(u) / Math.log1p(-probability)));
+    }
+
+    /**
+     * Define a probabilidade de troca de símbolo
+     * @param probability Probabilidade por símbolo (0 a 1)
+     */
+    public synchronized void setFlipProbability(double probability) {
+        this.flipProbability = checkProbability(probability);
+        this.nextFlip = skip(probability);
+    }
+
+    /**
+     * Define a probabilidade de perda de símbolo
+     * @param probability Probabilidade por símbolo (0 a 1)
+     */
+    public synchronized void setDropProbability(double probability) {
+        this.dropProbability = checkProbability(probability);
+        this.nextDrop = skip(probability);
+    }
+
+    /**
+     * Define a probabilidade de inversão de polaridade de um pulso
+     * @param probability Probabilidade por símbolo (0 a 1)
+     */
+    public synchronized void setPolarityErrorProbability(double probability) {
+        this.polarityErrorProbability = checkProbability(probability);
+        this.nextPolarityError = skip(probability);
+    }
+
+    /**
+     * Define o desvio padrão do ruído de amplitude (em unidades de V)
+     * @param sigma Desvio padrão (0 = sem ruído)
+     */
+    public synchronized void setNoiseSigma(double sigma) {
+        if (sigma < 0) {
+            throw new IllegalArgumentException("Desvio padrão não pode ser negativo");
+        }
+        this.noiseSigma = sigma;
+    }
+
+    /**
+     * Define o atraso de propagação e a variação (jitter) uniforme
+     * @param latencyMillis Atraso médio em milissegundos
+     * @param jitterMillis Variação máxima para mais ou para menos
+     */
+    public synchronized void setLatency(double latencyMillis, double jitterMillis) {
+        if (latencyMillis < 0 || jitterMillis < 0) {
+            throw new IllegalArgumentException("Atraso e jitter não podem ser negativos");
+        }
+        this.latencyNanos = (long) (latencyMillis * 1_000_000);
+        this.jitterNanos = (long) (jitterMillis * 1_000_000);
+    }
+
+    private static double checkProbability(double probability) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("Probabilidade deve estar entre 0 e 1");
+        }
+        return probability;
+    }
+
+    /**
+     * Retorna estatísticas das imperfeições aplicadas
+     * @return String com contagens por tipo
+     */
+    public synchronized String getStatistics() {
+        return String.format(
+                "Símbolos: %d | Trocas: %d | Perdas: %d | Polaridade: %d | Ruído: %d",
+                symbolCount, flipCount, dropCount, polarityErrorCount, noiseErrorCount
+        );
+    }
+
+    public synchronized long getSymbolCount() {
+        return symbolCount;
+    }
+
+    public synchronized long getErrorCount() {
+        return flipCount + dropCount + polarityErrorCount + noiseErrorCount;
+    }
+}
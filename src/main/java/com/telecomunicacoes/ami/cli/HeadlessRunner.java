@@ -0,0 +1,999 @@
+package com.telecomunicacoes.ami.cli;
+
+import com.telecomunicacoes.ami.analysis.LineCodeComparison;
+import com.telecomunicacoes.ami.analysis.SignalAnalyzer;
+import com.telecomunicacoes.ami.channel.DetectionExperiment;
+import com.telecomunicacoes.ami.channel.NoisyChannel;
+import com.telecomunicacoes.ami.codec.AMIPseudoternary;
+import com.telecomunicacoes.ami.codec.Encryption;
+import com.telecomunicacoes.ami.codec.Scrambler;
+import com.telecomunicacoes.ami.codec.line.LineCode;
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+import com.telecomunicacoes.ami.dsp.PulseShape;
+import com.telecomunicacoes.ami.dsp.WaveformExperiment;
+import com.telecomunicacoes.ami.metrics.MetricsHttpServer;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.BatchingSender;
+import com.telecomunicacoes.ami.network.Client;
+import com.telecomunicacoes.ami.network.DatagramSender;
+import com.telecomunicacoes.ami.network.DatagramServer;
+import com.telecomunicacoes.ami.network.FanOutSender;
+import com.telecomunicacoes.ami.network.FileReceiver;
+import com.telecomunicacoes.ami.network.FileSender;
+import com.telecomunicacoes.ami.network.LoopbackTransport;
+import com.telecomunicacoes.ami.network.Server;
+import com.telecomunicacoes.ami.network.ShardedServer;
+import com.telecomunicacoes.ami.network.SignalCompression;
+import com.telecomunicacoes.ami.network.StatusDispatcher;
+import com.telecomunicacoes.ami.pipeline.MessagePipeline;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Modo sem interface gráfica (linha de comando / lote)
+ *
+ * COMANDOS:
+ *   encode  Texto → criptografia → binário → AMI (uma mensagem por linha)
+ *   decode  AMI → binário → texto → descriptografia (um sinal por linha)
+ *   send    Codifica cada linha e envia ao servidor
+ *   sendfile Envia um arquivo em trechos, com progresso e retomada
+ *   server  Executa o servidor como daemon, gravando as mensagens decodificadas
+ *   loadgen Mede vazão e latência envio→ACK com N clientes concorrentes
+ *   channel Mede a detecção de erros por violação AMI em um canal simulado
+ *   waveform Sintetiza e recebe a forma de onda amostrada (pulso e relógio)
+ *   analyze Equilíbrio DC, sequências de zeros e espectro de sinais longos
+ *   compare Compara vazão e espectro dos códigos de linha no mesmo tráfego
+ *
+ * O sinal é representado por um caractere por símbolo: + (+V), 0 (0V), - (-V),
+ * e P (+3V), M (-3V) no 2B1Q.
+ * Sem --in/--out, usa stdin/stdout.
+ */
+public class HeadlessRunner {
+
+    private static final Set<String> COMMANDS = Set.of("encode", "decode", "send", "sendfile", "server", "loadgen", "channel", "waveform", "analyze", "compare", "help");
+
+    // Mensagens em andamento no envio a vários servidores (metade do limite de pendentes do FanOutSender)
+    private static final int FANOUT_WINDOW = 32;
+
+    private final Map<String, String> options;
+
+    private HeadlessRunner(Map<String, String> options) {
+        this.options = options;
+    }
+
+    /**
+     * Ponto de entrada direto do modo sem interface (não carrega o JavaFX)
+     * @param args Comando e opções
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            printUsage();
+            System.exit(2);
+        }
+        System.exit(run(args));
+    }
+
+    /**
+     * Verifica se o argumento é um comando do modo sem interface
+     * @param arg Primeiro argumento da linha de comando
+     * @return true se for um comando conhecido
+     */
+    public static boolean isCommand(String arg) {
+        return arg != null && COMMANDS.contains(arg);
+    }
+
+    /**
+     * Executa um comando
+     * @param args Argumentos (o primeiro é o comando)
+     * @return Código de saída do processo
+     */
+    public static int run(String[] args) {
+        String command = args[0];
+        Map<String, String> options;
+        try {
+            options = parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erro: " + e.getMessage());
+            printUsage();
+            return 2;
+        }
+
+        HeadlessRunner runner = new HeadlessRunner(options);
+        MetricsHttpServer metrics = null;
+        try {
+            StatusDispatcher.shared().setMinLevel(runner.levelOption());
+            if (options.containsKey("metrics-port")) {
+                metrics = new MetricsHttpServer(runner.intOption("metrics-port", 9464));
+                metrics.start();
+            }
+            switch (command) {
+                case "encode": return runner.encode();
+                case "decode": return runner.decode();
+                case "send":   return runner.send();
+                case "sendfile": return runner.sendFile();
+                case "server": return runner.server();
+                case "loadgen": return runner.loadgen();
+                case "channel": return runner.channel();
+                case "waveform": return runner.waveform();
+                case "analyze": return runner.analyze();
+                case "compare": return runner.compare();
+                default:
+                    printUsage();
+                    return 0;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erro: " + e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Erro de E/S: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        } finally {
+            if (metrics != null) {
+                metrics.stop();
+            }
+            StatusDispatcher.shared().awaitDrained(1000);
+        }
+    }
+
+    /**
+     * Codifica cada linha de entrada em um sinal AMI
+     */
+    private int encode() throws IOException {
+        MessagePipeline pipeline = createPipeline();
+        int errors = 0;
+
+        try (BufferedReader in = openInput(); BufferedWriter out = openOutput()) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    out.newLine();
+                    continue;
+                }
+                try {
+                    Message message = pipeline.transmit(line);
+                    out.write(AMIPseudoternary.toSymbolString(message.getEncodedSignal()));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Erro ao codificar: " + e.getMessage());
+                    errors++;
+                }
+                out.newLine();
+            }
+        }
+        return errors == 0 ? 0 : 1;
+    }
+
+    /**
+     * Decodifica cada linha de sinal AMI de volta para texto
+     */
+    private int decode() throws IOException {
+        MessagePipeline pipeline = createPipeline();
+        int errors = 0;
+
+        try (BufferedReader in = openInput(); BufferedWriter out = openOutput()) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    out.newLine();
+                    continue;
+                }
+                MessagePipeline.Reception reception;
+                try {
+                    reception = pipeline.receive(AMIPseudoternary.fromSymbolString(line));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Erro ao decodificar: " + e.getMessage());
+                    errors++;
+                    out.newLine();
+                    continue;
+                }
+                if (reception.isSuccess()) {
+                    out.write(reception.getOriginalText());
+                } else {
+                    System.err.println("Erro ao decodificar: " + reception.getError());
+                    errors++;
+                }
+                out.newLine();
+            }
+        }
+        return errors == 0 ? 0 : 1;
+    }
+
+    /**
+     * Codifica e envia cada linha de entrada ao servidor
+     */
+    private int send() throws IOException {
+        if (options.containsKey("to")) {
+            return sendFanOut();
+        }
+        if (options.containsKey("udp")) {
+            return sendDatagrams();
+        }
+        if (options.containsKey("loopback")) {
+            return sendLoopback();
+        }
+        if (options.containsKey("batch")) {
+            return sendBatched();
+        }
+        MessagePipeline pipeline = createPipeline();
+        Client client = new Client(option("host", "localhost"), intOption("port", 5555));
+        SignalCompression compression = createCompression();
+        client.setCompression(compression);
+        int errors = 0;
+
+        try (BufferedReader in = openInput()) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    client.sendMessageSync(pipeline.transmit(line));
+                } catch (IOException e) {
+                    System.err.println(e.getMessage());
+                    errors++;
+                }
+            }
+        }
+        if (compression != null) {
+            System.err.println(compression.getStatistics());
+        }
+        return errors == 0 ? 0 : 1;
+    }
+
+    /**
+     * Codifica cada linha e envia em lotes por uma conexão persistente,
+     * sem esperar o ACK de cada mensagem antes da seguinte
+     */
+    private int sendBatched() throws IOException {
+        MessagePipeline pipeline = createPipeline();
+        SignalCompression compression = createCompression();
+        BatchingSender sender = createBatchingSender();
+        sender.setCompression(compression);
+        AtomicInteger errors = new AtomicInteger();
+
+        try (BufferedReader in = openInput()) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    sender.send(pipeline.transmit(line)).whenComplete((ack, error) -> {
+                        if (error != null || !ack) {
+                            errors.incrementAndGet();
+                        }
+                    });
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Erro ao codificar: " + e.getMessage());
+                    errors.incrementAndGet();
+                }
+            }
+        } finally {
+            sender.close();
+        }
+        System.err.println(sender.getStatistics());
+        if (compression != null) {
+            System.err.println(compression.getStatistics());
+        }
+        return errors.get() == 0 ? 0 : 1;
+    }
+
+    /**
+     * Codifica e envia cada linha em um datagrama UDP (sem ACK)
+     */
+    private int sendDatagrams() throws IOException {
+        MessagePipeline pipeline = createPipeline();
+        int errors = 0;
+
+        try (BufferedReader in = openInput();
+             DatagramSender sender = new DatagramSender(option("host", "localhost"), intOption("port", 5555))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    sender.send(pipeline.transmit(line));
+                } catch (IllegalArgumentException | IOException e) {
+                    System.err.println("Erro ao enviar: " + e.getMessage());
+                    errors++;
+                }
+            }
+            System.err.println(sender.getSentCount() + " datagrama(s) enviado(s)");
+        }
+        return errors == 0 ? 0 : 1;
+    }
+
+    /**
+     * Codifica cada linha e a entrega a um receptor no mesmo processo,
+     * que decodifica e grava a saída: mede só o custo do pipeline
+     */
+    private int sendLoopback() throws IOException {
+        MessagePipeline pipeline = createPipeline();
+        int errors = 0;
+
+        try (BufferedReader in = openInput(); BufferedWriter out = openOutput()) {
+            LoopbackTransport transport = new LoopbackTransport();
+            transport.setMessageHandler(decodeToOutput(createPipeline(), out));
+            transport.setChannel(createChannel());
+            transport.start();
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        transport.send(pipeline.transmit(line));
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Erro ao codificar: " + e.getMessage());
+                        errors++;
+                    }
+                }
+            } finally {
+                long undelivered = transport.stop();
+                if (undelivered > 0) {
+                    System.err.println(undelivered + " mensagem(ns) não entregue(s)");
+                    errors += (int) undelivered;
+                }
+            }
+            System.err.println(transport.getStatistics());
+            System.err.println(PipelineMetrics.report());
+        }
+        return errors == 0 ? 0 : 1;
+    }
+
+    /**
+     * Codifica cada linha uma vez e envia a todos os servidores de --to
+     */
+    private int sendFanOut() throws IOException {
+        MessagePipeline pipeline = createPipeline();
+        List<InetSocketAddress> destinations = new ArrayList<>();
+        for (String destination : option("to", "").split(",")) {
+            destinations.add(parseAddress(destination.trim()));
+        }
+        int errors = 0;
+
+        try (BufferedReader in = openInput(); FanOutSender sender = new FanOutSender(destinations)) {
+            // Até FANOUT_WINDOW mensagens em andamento: os destinos rápidos
+            // seguem adiante sem descartes por excesso de pendentes
+            ArrayDeque<CompletableFuture<List<FanOutSender.Delivery>>> inFlight = new ArrayDeque<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (inFlight.size() == FANOUT_WINDOW) {
+                    errors += countFailures(inFlight.poll().join());
+                }
+                inFlight.add(sender.send(pipeline.transmit(line)));
+            }
+            while (!inFlight.isEmpty()) {
+                errors += countFailures(inFlight.poll().join());
+            }
+            System.err.println(sender.getStatistics());
+        }
+        return errors == 0 ? 0 : 1;
+    }
+
+    private static int countFailures(List<FanOutSender.Delivery> deliveries) {
+        int failures = 0;
+        for (FanOutSender.Delivery delivery : deliveries) {
+            if (!delivery.isAcknowledged()) {
+                System.err.println(delivery);
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    private static InetSocketAddress parseAddress(String value) {
+        int colon = value.lastIndexOf(':');
+        try {
+            return colon < 0
+                    ? new InetSocketAddress(value, 5555)
+                    : new InetSocketAddress(value.substring(0, colon), Integer.parseInt(value.substring(colon + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Destino inválido: " + value + " (use host:porta)");
+        }
+    }
+
+    /**
+     * Envia um arquivo ao servidor, retomando uma transferência interrompida
+     */
+    private int sendFile() throws IOException {
+        String file = options.get("file");
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Informe o arquivo com --file <caminho>");
+        }
+        FileSender sender = new FileSender(option("host", "localhost"), intOption("port", 5555), createPipeline());
+        sender.setChunkSize(intOption("chunk", FileSender.DEFAULT_CHUNK_SIZE));
+        sender.setWindow(intOption("window", FileSender.DEFAULT_WINDOW));
+        SignalCompression compression = createCompression();
+        sender.setCompression(compression);
+
+        long start = System.nanoTime();
+        long[] lastPercent = {-1};
+        long size = sender.send(Path.of(file), (received, total) -> {
+            long percent = total == 0 ? 100 : received * 100 / total;
+            if (percent != lastPercent[0]) {
+                lastPercent[0] = percent;
+                System.err.printf(Locale.ROOT, "\r%3d%% (%d/%d bytes)", percent, received, total);
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf(Locale.ROOT, "%n%d bytes em %.1f s (%.2f MB/s)%n", size, seconds, size / seconds / 1e6);
+        if (compression != null) {
+            System.err.println(compression.getStatistics());
+        }
+        return 0;
+    }
+
+    /**
+     * Executa o servidor até o processo ser encerrado
+     */
+    private int server() throws IOException, InterruptedException {
+        BufferedWriter out = openOutput();
+        if (options.containsKey("shards")) {
+            return shardedServer(out);
+        }
+        if (options.containsKey("udp")) {
+            return datagramServer(out);
+        }
+        MessagePipeline pipeline = createPipeline();
+        Consumer<Message> handler = decodeToOutput(pipeline, out);
+        Server server = new Server(intOption("port", 5555));
+        server.setChannel(createChannel());
+        if (options.containsKey("dir")) {
+            server.setFileReceiver(new FileReceiver(Path.of(option("dir", ".")), createPipeline()));
+        }
+
+        // Handler é chamado por várias threads de conexão, com um único pipeline
+        server.setMessageHandler(message -> {
+            synchronized (pipeline) {
+                handler.accept(message);
+            }
+        });
+
+        server.start();
+        awaitShutdown(server::stop, null, out);
+        return 0;
+    }
+
+    /**
+     * Executa o servidor em shards: cada shard decodifica com o próprio
+     * pipeline e só a gravação da saída é compartilhada
+     */
+    private int shardedServer(BufferedWriter out) throws IOException, InterruptedException {
+        ShardedServer server = new ShardedServer(intOption("port", 5555), intOption("shards", 0));
+        server.setReusePort(!options.containsKey("port-group"));
+        if (options.containsKey("max-frame")) {
+            server.setMaxFrameLength(intOption("max-frame", 0));
+        }
+        server.setMessageHandlerFactory(shard -> decodeToOutput(createPipeline(), out));
+        server.setChannelFactory(shard -> createChannel());
+        if (options.containsKey("dir")) {
+            server.setFileReceiver(new FileReceiver(Path.of(option("dir", ".")), createPipeline()));
+        }
+
+        server.start();
+        awaitShutdown(server::stop, server::getStatistics, out);
+        return 0;
+    }
+
+    /**
+     * Executa o servidor UDP: uma thread recebe e decodifica, e as
+     * lacunas de sequência são avisadas no status
+     */
+    private int datagramServer(BufferedWriter out) throws IOException, InterruptedException {
+        DatagramServer server = new DatagramServer(intOption("port", 5555));
+        server.setMessageHandler(decodeToOutput(createPipeline(), out));
+        server.setChannel(createChannel());
+
+        server.start();
+        awaitShutdown(server::stop, server::getStatistics, out);
+        return 0;
+    }
+
+    /**
+     * Decodifica cada mensagem e grava o texto na saída (gravação sincronizada em out)
+     */
+    private static Consumer<Message> decodeToOutput(MessagePipeline pipeline, BufferedWriter out) {
+        return message -> {
+            MessagePipeline.Reception reception = pipeline.receive(message);
+            if (!reception.isSuccess()) {
+                System.err.println("Erro na recepção: " + reception.getError());
+                return;
+            }
+            String text = reception.getOriginalText();
+            synchronized (out) {
+                try {
+                    out.write(text);
+                    out.newLine();
+                    out.flush();
+                } catch (IOException e) {
+                    System.err.println("Erro ao gravar saída: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * Aguarda o encerramento do processo, imprimindo as métricas ao final
+     * @param stop Para o servidor
+     * @param statistics Contadores adicionais do servidor (pode ser null)
+     * @param out Saída a descarregar
+     */
+    private static void awaitShutdown(Runnable stop, Supplier<String> statistics, BufferedWriter out)
+            throws InterruptedException {
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stop.run();
+            if (statistics != null) {
+                System.err.println(statistics.get());
+            }
+            System.err.println(PipelineMetrics.report());
+            synchronized (out) {
+                try {
+                    out.flush();
+                } catch (IOException ignored) {
+                    // Encerrando
+                }
+            }
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
+    /**
+     * Executa o gerador de carga e imprime o relatório
+     */
+    private int loadgen() throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator(
+                option("host", "localhost"),
+                intOption("port", 5555),
+                intOption("clients", 4),
+                intOption("size", 1024),
+                doubleOption("rate", 0),
+                intOption("duration", 10),
+                !options.containsKey("no-server")
+        );
+        generator.setCompression(createCompression());
+        if (options.containsKey("batch")) {
+            String batch = options.get("batch");
+            generator.setBatching(batch.isEmpty() ? 64 : intOption("batch", 64), longOption("linger", 5));
+        }
+        System.out.println(generator.run());
+        System.out.println(PipelineMetrics.report());
+        return 0;
+    }
+
+    /**
+     * Executa o experimento de detecção de erros no canal simulado
+     */
+    private int channel() {
+        NoisyChannel channel = createChannel();
+        if (channel == null) {
+            channel = new NoisyChannel(longOption("seed", 1));
+        }
+        DetectionExperiment experiment = new DetectionExperiment(
+                channel,
+                longOption("symbols", 10_000_000),
+                intOption("frame", 1024),
+                longOption("seed", 1)
+        );
+        System.out.println(experiment.run());
+        System.out.println(channel.getStatistics());
+        return 0;
+    }
+
+    /**
+     * Executa o experimento de forma de onda em nível de amostra
+     */
+    private int waveform() throws IOException {
+        WaveformExperiment experiment = new WaveformExperiment(
+                intOption("sps", 8),
+                pulseOption(),
+                longOption("symbols", 10_000_000),
+                intOption("block", 4096),
+                longOption("seed", 1)
+        );
+        experiment.setNoiseSigma(doubleOption("noise", 0));
+        if (options.containsKey("out")) {
+            experiment.setOutputFile(Path.of(options.get("out")));
+        }
+        System.out.println(experiment.run());
+        return 0;
+    }
+
+    /**
+     * Analisa um sinal longo lido em streaming (ou tráfego aleatório)
+     */
+    private int analyze() throws IOException {
+        SignalAnalyzer analyzer = new SignalAnalyzer(intOption("segment", 1024));
+        int[] block = new int[65536];
+
+        if (options.containsKey("random")) {
+            long symbols = longOption("random", 10_000_000);
+            LineCode code = LineCodes.get(options.get("code"));
+            Scrambler scrambler = Scrambler.get(options.get("scrambler"));
+            SplittableRandom random = new SplittableRandom(longOption("seed", 1));
+            char[] bits = new char[block.length];
+            for (long done = 0; done < symbols; done += bits.length) {
+                int size = (int) Math.min(bits.length, symbols - done);
+                for (int i = 0; i < size; i++) {
+                    bits[i] = random.nextBoolean() ? '1' : '0';
+                }
+                String binary = new String(bits, 0, size);
+                analyzer.update(code.encode(scrambler != null ? scrambler.scramble(binary) : binary));
+            }
+        } else {
+            // Lê caractere a caractere em blocos: linhas muito longas não são carregadas inteiras
+            try (BufferedReader in = openInput()) {
+                char[] chars = new char[65536];
+                int count = 0;
+                int read;
+                while ((read = in.read(chars)) != -1) {
+                    for (int i = 0; i < read; i++) {
+                        char c = chars[i];
+                        if (c == '+') {
+                            block[count++] = 1;
+                        } else if (c == '-') {
+                            block[count++] = -1;
+                        } else if (c == '0') {
+                            block[count++] = 0;
+                        } else if (c == 'P') {
+                            block[count++] = 3;
+                        } else if (c == 'M') {
+                            block[count++] = -3;
+                        } else if (!Character.isWhitespace(c)) {
+                            throw new IllegalArgumentException("Caractere inválido no sinal: '" + c + "'");
+                        }
+                        if (count == block.length) {
+                            analyzer.update(block, 0, count);
+                            count = 0;
+                        }
+                    }
+                }
+                analyzer.update(block, 0, count);
+            }
+        }
+
+        System.out.println(analyzer.report());
+
+        String psdOut = options.get("psd-out");
+        if (psdOut != null) {
+            double[] psd = analyzer.getPsd();
+            try (BufferedWriter out = Files.newBufferedWriter(Path.of(psdOut), StandardCharsets.UTF_8)) {
+                out.write("frequencia,psd_db");
+                out.newLine();
+                for (int k = 0; k < psd.length; k++) {
+                    out.write(String.format(Locale.ROOT, "%.6f,%.3f",
+                            0.5 * k / (psd.length - 1), SignalAnalyzer.toDb(psd[k])));
+                    out.newLine();
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Compara os códigos de linha sobre o mesmo tráfego aleatório
+     */
+    private int compare() {
+        List<LineCode> codes = new ArrayList<>();
+        String list = options.get("codes");
+        if (list == null || list.isEmpty()) {
+            codes.addAll(LineCodes.all());
+        } else {
+            for (String id : list.split(",")) {
+                codes.add(LineCodes.get(id.trim()));
+            }
+        }
+        LineCodeComparison comparison = new LineCodeComparison(
+                codes,
+                longOption("bits", 10_000_000),
+                intOption("block", 65536),
+                longOption("seed", 1),
+                intOption("segment", 1024)
+        );
+        System.out.println(comparison.report(comparison.run()));
+        return 0;
+    }
+
+    private PulseShape pulseOption() {
+        String pulse = option("pulse", "rc");
+        switch (pulse) {
+            case "rect":
+                return PulseShape.rectangular();
+            case "rc":
+                return PulseShape.raisedCosine(doubleOption("rolloff", 0.5), intOption("span", 6));
+            default:
+                throw new IllegalArgumentException("Pulso inválido: " + pulse + " (use rect ou rc)");
+        }
+    }
+
+    /**
+     * Cria o canal simulado a partir das opções (null se nenhuma foi informada)
+     */
+    private NoisyChannel createChannel() {
+        if (!options.containsKey("flip") && !options.containsKey("drop")
+                && !options.containsKey("polarity") && !options.containsKey("noise")
+                && !options.containsKey("latency")) {
+            return null;
+        }
+        NoisyChannel channel = new NoisyChannel(longOption("seed", 1));
+        channel.setFlipProbability(doubleOption("flip", 0));
+        channel.setDropProbability(doubleOption("drop", 0));
+        channel.setPolarityErrorProbability(doubleOption("polarity", 0));
+        channel.setNoiseSigma(doubleOption("noise", 0));
+        channel.setLatency(doubleOption("latency", 0), doubleOption("jitter", 0));
+        channel.reset();
+        return channel;
+    }
+
+    private StatusDispatcher.Level levelOption() {
+        String value = option("log-level", "INFO");
+        try {
+            return StatusDispatcher.Level.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nível de log inválido: " + value);
+        }
+    }
+
+    private MessagePipeline createPipeline() {
+        String key = options.get("key");
+        MessagePipeline pipeline = new MessagePipeline(key != null ? new Encryption(key) : new Encryption());
+        pipeline.setEncryptionEnabled(!options.containsKey("no-encrypt"));
+        pipeline.setEncryptionAlgorithm(Encryption.Algorithm.get(options.get("cipher")));
+        pipeline.setLineCode(LineCodes.get(options.get("code")));
+        pipeline.setScrambler(Scrambler.get(options.get("scrambler")));
+        pipeline.setFecEnabled(options.containsKey("fec"));
+        pipeline.setRawPayload(options.containsKey("raw"));
+        return pipeline;
+    }
+
+    /**
+     * Compressão do sinal das opções --compress, --compress-level e --bandwidth
+     * @return Compressão configurada, ou null sem --compress
+     */
+    private SignalCompression createCompression() {
+        if (!options.containsKey("compress")) {
+            return null;
+        }
+        List<SignalCompression.Method> methods = new ArrayList<>();
+        String value = options.get("compress");
+        if (!value.isEmpty()) {
+            for (String id : value.split(",")) {
+                SignalCompression.Method method = SignalCompression.Method.find(id.trim());
+                if (method == null) {
+                    throw new IllegalArgumentException("Compressão desconhecida: " + id);
+                }
+                methods.add(method);
+            }
+        }
+        SignalCompression compression = new SignalCompression(methods.toArray(new SignalCompression.Method[0]));
+        if (options.containsKey("compress-level")) {
+            compression.setDeflateLevel(intOption("compress-level", 6));
+        }
+        if (options.containsKey("bandwidth")) {
+            // Mbit/s → bytes/s
+            compression.setBandwidth((long) (doubleOption("bandwidth", 100) * 125_000));
+        }
+        return compression;
+    }
+
+    /**
+     * Envio em lotes das opções --host, --port, --batch e --linger
+     */
+    private BatchingSender createBatchingSender() {
+        BatchingSender sender = new BatchingSender(option("host", "localhost"), intOption("port", 5555));
+        if (!option("batch", "").isEmpty()) {
+            sender.setMaxBatchSize(intOption("batch", 64));
+        }
+        sender.setLinger(longOption("linger", 5));
+        return sender;
+    }
+
+    private BufferedReader openInput() throws IOException {
+        String in = options.get("in");
+        if (in == null || in.equals("-")) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Path.of(in), StandardCharsets.UTF_8);
+    }
+
+    private BufferedWriter openOutput() throws IOException {
+        String out = options.get("out");
+        if (out == null || out.equals("-")) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedWriter(Path.of(out), StandardCharsets.UTF_8);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para --" + name + ": " + value);
+        }
+    }
+
+    private long longOption(String name, long defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para --" + name + ": " + value);
+        }
+    }
+
+    private double doubleOption(String name, double defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para --" + name + ": " + value);
+        }
+    }
+
+    /**
+     * Lê opções no formato --nome valor (ou --flag, sem valor)
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Argumento inesperado: " + arg);
+            }
+            String name = arg.substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "");
+            }
+        }
+        return options;
+    }
+
+    private static void printUsage() {
+        System.out.println("""
+            Uso: java -jar ami-pseudoternario.jar <comando> [opções]
+
+            Comandos:
+              encode   Texto → criptografia → binário → AMI (uma mensagem por linha)
+              decode   AMI → binário → texto → descriptografia (um sinal por linha)
+              send     Codifica cada linha de entrada e envia ao servidor
+              sendfile Envia um arquivo em trechos (--file), com retomada
+              server   Executa o servidor e grava as mensagens decodificadas
+              loadgen  Mede vazão e latência envio→ACK (inicia um servidor local)
+              channel  Mede a detecção de erros por violação AMI em canal simulado
+              waveform Sintetiza e recebe a forma de onda amostrada
+              analyze  Equilíbrio DC, sequências de zeros e espectro de um sinal
+              compare  Compara vazão e espectro dos códigos de linha
+
+            Opções:
+              --in <arquivo>     Entrada (padrão: stdin)
+              --out <arquivo>    Saída (padrão: stdout)
+              --key <chave>      Chave de criptografia
+              --no-encrypt       Desabilita a criptografia
+              --cipher <id>      Criptografia: xor (padrão) ou aes-gcm
+              --raw              Envia os bytes criptografados sem Base64 (33% menos símbolos)
+              --code <id>        Código de linha (padrão: pseudoternary; ver compare)
+              --scrambler <id>   Embaralhador antes do código: x43, x7 ou none (padrão)
+              --fec              Correção de erros Hamming(8,4) antes do código de linha
+              --host <endereço>  Servidor de destino (send, padrão: localhost)
+              --to <h:p,h:p,...> Envia cada mensagem, codificada uma vez, a vários servidores (send)
+              --loopback         Entrega a um receptor no mesmo processo, sem rede nem JSON (send;
+                                 grava o texto decodificado em --out e aceita o canal simulado)
+              --port <porta>     Porta do servidor (padrão: 5555)
+              --log-level <nível> Status de rede: DEBUG, INFO, WARN, ERROR (padrão: INFO)
+              --metrics-port <p> Expõe métricas Prometheus em http://127.0.0.1:<p>/metrics
+
+            Arquivos (sendfile e server):
+              --file <caminho>   Arquivo a enviar (sendfile)
+              --chunk <bytes>    Bytes por trecho (padrão: 65536)
+              --window <n>       Trechos enviados sem esperar confirmação (sendfile, padrão: 4)
+              --dir <diretório>  Habilita a recepção de arquivos no servidor
+
+            Servidor em shards (server):
+              --shards <n>       N threads NIO com conexões e decodificação próprias (0 = um por núcleo)
+              --port-group       Shards nas portas porta..porta+N-1 em vez de SO_REUSEPORT
+              --max-frame <bytes> Maior quadro aceito; acima dele a conexão é encerrada (padrão: 32 MiB)
+
+            Transporte UDP (send e server):
+              --udp              Um datagrama por mensagem, sem ACK; o servidor conta perdas,
+                                 inversões de ordem e duplicatas pelos números de sequência
+
+            Compressão do sinal (send, sendfile e loadgen, negociada com o servidor):
+              --compress [ids]   Formatos permitidos: packed, rle, deflate (padrão: todos),
+                                 escolhidos por quadro pelo custo de CPU e de banda
+              --compress-level <n> Nível do deflate, 1 a 9 (padrão: 6)
+              --bandwidth <Mbit/s> Banda do enlace usada na escolha (padrão: 100)
+
+            Envio em lotes (send e loadgen):
+              --batch [n]        Até n mensagens por escrita em uma conexão persistente (padrão: 64)
+              --linger <ms>      Espera máxima para completar o lote (padrão: 5)
+
+            Opções do loadgen:
+              --clients <n>      Clientes concorrentes (padrão: 4)
+              --size <bytes>     Tamanho de cada mensagem (padrão: 1024)
+              --rate <msg/s>     Taxa total alvo (padrão: sem limite)
+              --duration <s>     Duração do teste (padrão: 10)
+              --no-server        Usa um servidor já em execução em --host/--port
+
+            Canal simulado (server e channel):
+              --flip <p>         Probabilidade de troca de símbolo
+              --drop <p>         Probabilidade de perda de símbolo
+              --polarity <p>     Probabilidade de inversão de polaridade
+              --noise <sigma>    Desvio padrão do ruído de amplitude
+              --latency <ms>     Atraso de propagação (--jitter <ms> para variação)
+              --seed <n>         Semente (reprodutível)
+              --symbols <n>      Símbolos transmitidos (channel, padrão: 10000000)
+              --frame <n>        Símbolos por quadro (channel, padrão: 1024)
+
+            Forma de onda (waveform, aceita também --noise, --seed, --symbols):
+              --sps <n>          Amostras por símbolo (padrão: 8)
+              --pulse <rect|rc>  Formato do pulso (padrão: rc)
+              --rolloff <r>      Rolloff do cosseno levantado (padrão: 0.5)
+              --span <n>         Duração do filtro em símbolos (padrão: 6)
+              --block <n>        Símbolos por bloco (padrão: 4096)
+              --out <arquivo>    Grava as amostras em float32 little-endian
+
+            Análise (analyze; lê sinais de --in ou stdin, como a saída de encode):
+              --random <n>       Analisa n bits de tráfego aleatório (no código de --code)
+              --segment <n>      Tamanho do segmento do espectro (padrão: 1024)
+              --psd-out <arquivo> Grava o espectro em CSV (frequência, dB)
+
+            Comparação (compare, aceita também --seed, --segment, --block):
+              --codes <a,b,...>  Códigos comparados (padrão: todos)
+              --bits <n>         Bits de tráfego aleatório (padrão: 10000000)
+
+            Em servidores sem display, use a classe
+            com.telecomunicacoes.ami.cli.HeadlessRunner como ponto de entrada.
+
+            Sinal: um caractere por símbolo (+ = +V, 0 = 0V, - = -V, P = +3V, M = -3V)
+            Códigos de linha: pseudoternary, ami, b8zs, hdb3, manchester, nrzi, 2b1q
+            Sem argumentos, inicia a interface gráfica.
+            """);
+    }
+}
@@ -0,0 +1,253 @@
+package com.telecomunicacoes.ami.cli;
+
+import com.telecomunicacoes.ami.metrics.LatencyHistogram;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.BatchingSender;
+import com.telecomunicacoes.ami.network.Client;
+import com.telecomunicacoes.ami.network.Server;
+import com.telecomunicacoes.ami.network.SignalCompression;
+import com.telecomunicacoes.ami.pipeline.MessagePipeline;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga ponta a ponta (Client → Server)
+ *
+ * FUNCIONAMENTO:
+ * - N threads de cliente enviam a mesma mensagem pré-codificada
+ *   (o custo medido é o da rede: conexão, JSON, envio e ACK)
+ * - Com taxa configurada, cada envio tem um horário agendado e a
+ *   latência é medida a partir desse horário, evitando a omissão
+ *   coordenada quando o servidor atrasa
+ * - Latências envio→ACK vão para um histograma log-linear
+ * - Com setCompression, os clientes comprimem o sinal (SignalCompression)
+ * - Com setBatching, cada cliente envia sem esperar o ACK, em lotes por
+ *   uma conexão persistente (BatchingSender), com até dois lotes sem
+ *   confirmação; a latência vai do horário agendado até o ACK
+ */
+public class LoadGenerator {
+
+    private final String host;
+    private final int port;
+    private final int clients;
+    private final int messageSize;
+    private final double ratePerSecond;
+    private final int durationSeconds;
+    private final boolean startLocalServer;
+    private SignalCompression compression;
+    private int batchSize;
+    private long lingerMillis;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder unacked = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * @param host Endereço do servidor
+     * @param port Porta do servidor
+     * @param clients Número de clientes concorrentes
+     * @param messageSize Tamanho do texto de cada mensagem em bytes
+     * @param ratePerSecond Taxa total de mensagens/s (0 = sem limite)
+     * @param durationSeconds Duração do teste em segundos
+     * @param startLocalServer true para iniciar um Server local na porta indicada
+     */
+    public LoadGenerator(String host, int port, int clients, int messageSize,
+                         double ratePerSecond, int durationSeconds, boolean startLocalServer) {
+        if (clients <= 0 || messageSize <= 0 || durationSeconds <= 0 || ratePerSecond < 0) {
+            throw new IllegalArgumentException("Parâmetros de carga inválidos");
+        }
+        this.host = host;
+        this.port = port;
+        this.clients = clients;
+        this.messageSize = messageSize;
+        this.ratePerSecond = ratePerSecond;
+        this.durationSeconds = durationSeconds;
+        this.startLocalServer = startLocalServer;
+    }
+
+    /**
+     * Habilita a compressão do sinal em todos os clientes
+     * @param compression Compressão adaptativa compartilhada (null = sem compressão)
+     */
+    public void setCompression(SignalCompression compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Envia em lotes (BatchingSender) em vez de uma conexão por mensagem
+     * @param maxBatchSize Mensagens por escrita
+     * @param lingerMillis Espera máxima para completar o lote
+     */
+    public void setBatching(int maxBatchSize, long lingerMillis) {
+        if (maxBatchSize <= 0 || lingerMillis < 0) {
+            throw new IllegalArgumentException("Parâmetros de lote inválidos");
+        }
+        this.batchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+    }
+
+    /**
+     * Executa o teste e retorna o relatório
+     * @return Relatório em texto
+     * @throws InterruptedException Se interrompido durante a execução
+     */
+    public String run() throws InterruptedException {
+        Server server = null;
+        if (startLocalServer) {
+            server = new Server(port);
+            server.setConsoleLogging(false);
+            server.start();
+            waitForServer(server);
+        }
+
+        Message message = new MessagePipeline().transmit("A".repeat(messageSize));
+        PipelineMetrics.reset();
+
+        // Intervalo entre envios de cada cliente (0 = envio contínuo)
+        long intervalNanos = ratePerSecond > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) * clients / ratePerSecond)
+                : 0;
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            // Defasa o início dos clientes para espalhar a carga no intervalo
+            long firstSend = start + (intervalNanos * i) / clients;
+            Thread t = new Thread(() -> runClient(message, firstSend, intervalNanos, deadline),
+                    "loadgen-client-" + i);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (server != null) {
+            server.stop();
+        }
+
+        return report(elapsed);
+    }
+
+    /**
+     * Laço de envio de um cliente
+     */
+    private void runClient(Message message, long firstSend, long intervalNanos, long deadline) {
+        Client client = new Client(host, port);
+        client.setConsoleLogging(false);
+        client.setCompression(compression);
+        BatchingSender batching = null;
+        Semaphore window = null;
+        if (batchSize > 0) {
+            window = new Semaphore(2 * batchSize);
+            batching = new BatchingSender(host, port);
+            batching.setConsoleLogging(false);
+            batching.setMaxBatchSize(batchSize);
+            batching.setLinger(lingerMillis);
+            batching.setCompression(compression);
+        }
+
+        long intended = firstSend;
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                if (intended >= deadline) {
+                    break;
+                }
+                if (intended > now) {
+                    LockSupport.parkNanos(intended - now);
+                }
+            } else {
+                if (now >= deadline) {
+                    break;
+                }
+                intended = now;
+            }
+
+            if (batching != null) {
+                sendBatched(batching, window, message, intended);
+                intended += intervalNanos;
+                continue;
+            }
+            try {
+                if (client.sendMessageSync(message)) {
+                    latency.record(System.nanoTime() - intended);
+                    acked.increment();
+                } else {
+                    unacked.increment();
+                }
+            } catch (IOException e) {
+                errors.increment();
+            }
+            intended += intervalNanos;
+        }
+        if (batching != null) {
+            batching.close();
+            batches.add(batching.getBatchCount());
+        }
+    }
+
+    /**
+     * Envio sem esperar o ACK: a latência é registrada na confirmação
+     */
+    private void sendBatched(BatchingSender sender, Semaphore window, Message message, long intended) {
+        window.acquireUninterruptibly();
+        sender.send(message).whenComplete((ack, error) -> {
+            window.release();
+            if (error != null) {
+                errors.increment();
+            } else if (ack) {
+                latency.record(System.nanoTime() - intended);
+                acked.increment();
+            } else {
+                unacked.increment();
+            }
+        });
+    }
+
+    private String report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        String report = String.format(
+                "Carga: %d clientes | %d bytes/mensagem | taxa alvo: %s | duração: %.1fs%n" +
+                "Confirmadas: %d | Sem ACK: %d | Erros: %d | Vazão: %.1f msg/s%n" +
+                "Latência envio→ACK: %s",
+                clients, messageSize,
+                ratePerSecond > 0 ? String.format("%.0f msg/s", ratePerSecond) : "sem limite",
+                seconds,
+                acked.sum(), unacked.sum(), errors.sum(), acked.sum() / seconds,
+                latency.summaryMicros()
+        );
+        if (batchSize > 0) {
+            long count = batches.sum();
+            report += String.format("%nLotes: %d | mensagens/lote=%.1f (máximo %d, espera %d ms)",
+                    count, count == 0 ? 0.0 : (double) (acked.sum() + unacked.sum() + errors.sum()) / count,
+                    batchSize, lingerMillis);
+        }
+        if (compression != null) {
+            report += String.format("%nCompressão: %s", compression.getStatistics());
+        }
+        return report;
+    }
+
+    private static void waitForServer(Server server) throws InterruptedException {
+        long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!server.isRunning()) {
+            if (System.nanoTime() > timeout) {
+                throw new IllegalStateException("Servidor local não iniciou");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.telecomunicacoes.ami.codec;
 
+import com.telecomunicacoes.ami.metrics.CodecEvent;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+
 /**
  * Implementação do algoritmo AMI Pseudoternário
  *
@@ -40,6 +44,8 @@ public class AMIPseudoternary {
             throw new IllegalArgumentException("String deve conter apenas 0s e 1s");
         }
 
+        CodecEvent event = CodecEvent.start("encode");
+        long start = System.nanoTime();
         int[] signal = new int[binaryString.length()];
         lastNonZeroLevel = -1; // Reset do estado
 
@@ -57,6 +63,8 @@ public class AMIPseudoternary {
             }
         }
 
+        PipelineMetrics.record(Stage.ENCODE, start);
+        event.finish(binaryString.length(), signal.length);
         return signal;
     }
 
@@ -70,6 +78,8 @@ public class AMIPseudoternary {
             return "";
         }
 
+        CodecEvent event = CodecEvent.start("decode");
+        long start = System.nanoTime();
         StringBuilder binary = new StringBuilder();
 
         for (int level : signal) {
@@ -88,6 +98,8 @@ public class AMIPseudoternary {
             }
         }
 
+        PipelineMetrics.record(Stage.DECODE, start);
+        event.finish(signal.length, signal.length);
         return binary.toString();
     }
 
@@ -122,6 +134,32 @@ public class AMIPseudoternary {
         return true;
     }
 
+    /**
+     * Conta as violações de alternância de polaridade no sinal
+     * (dois pulsos não-zero consecutivos com a mesma polaridade)
+     * @param signal Array de níveis de tensão
+     * @return Número de violações encontradas
+     */
+    public static int countViolations(int[] signal) {
+        if (signal == null) {
+            return 0;
+        }
+
+        int violations = 0;
+        int lastPolarity = 0;
+
+        for (int level : signal) {
+            if (level != 0) {
+                if (level == lastPolarity) {
+                    violations++;
+                }
+                lastPolarity = level;
+            }
+        }
+
+        return violations;
+    }
+
     /**
      * Converte sinal para string legível
      * @param signal Array de níveis
@@ -137,9 +175,11 @@ public class AMIPseudoternary {
             if (i > 0) sb.append(", ");
 
             switch (signal[i]) {
+                case 3:  sb.append("+3V"); break;
                 case 1:  sb.append("+V"); break;
                 case 0:  sb.append(" 0"); break;
                 case -1: sb.append("-V"); break;
+                case -3: sb.append("-3V"); break;
                 default: sb.append(" ?"); break;
             }
         }
@@ -148,6 +188,65 @@ public class AMIPseudoternary {
         return sb.toString();
     }
 
+    /**
+     * Converte sinal para forma compacta, um caractere por símbolo
+     * (+ = +V, 0 = 0V, - = -V; P = +3V e M = -3V para o 2B1Q),
+     * usada no modo de linha de comando
+     * @param signal Array de níveis
+     * @return String compacta
+     */
+    public static String toSymbolString(int[] signal) {
+        if (signal == null || signal.length == 0) {
+            return "";
+        }
+
+        char[] symbols = new char[signal.length];
+        for (int i = 0; i < signal.length; i++) {
+            switch (signal[i]) {
+                case 3:  symbols[i] = 'P'; break;
+                case 1:  symbols[i] = '+'; break;
+                case 0:  symbols[i] = '0'; break;
+                case -1: symbols[i] = '-'; break;
+                case -3: symbols[i] = 'M'; break;
+                default:
+                    throw new IllegalArgumentException(
+                            "Sinal inválido: nível " + signal[i] + " não é -3, -1, 0, +1 ou +3"
+                    );
+            }
+        }
+        return new String(symbols);
+    }
+
+    /**
+     * Converte a forma compacta (+, 0, -, P, M) de volta para níveis
+     * Espaços em branco são ignorados
+     * @param symbols String compacta
+     * @return Array de níveis
+     */
+    public static int[] fromSymbolString(String symbols) {
+        if (symbols == null || symbols.isEmpty()) {
+            return new int[0];
+        }
+
+        int[] signal = new int[symbols.length()];
+        int count = 0;
+        for (int i = 0; i < symbols.length(); i++) {
+            char c = symbols.charAt(i);
+            switch (c) {
+                case 'P': signal[count++] = 3; break;
+                case '+': signal[count++] = 1; break;
+                case '0': signal[count++] = 0; break;
+                case '-': signal[count++] = -1; break;
+                case 'M': signal[count++] = -3; break;
+                default:
+                    if (!Character.isWhitespace(c)) {
+                        throw new IllegalArgumentException("Símbolo inválido: '" + c + "'");
+                    }
+            }
+        }
+        return count == signal.length ? signal : java.util.Arrays.copyOf(signal, count);
+    }
+
     /**
      * Calcula estatísticas do sinal
      * @param signal Array de níveis
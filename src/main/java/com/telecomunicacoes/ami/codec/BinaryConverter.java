@@ -1,5 +1,9 @@
 package com.telecomunicacoes.ami.codec;
 
+import com.telecomunicacoes.ami.metrics.CodecEvent;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -18,6 +22,8 @@ public class BinaryConverter {
             return "";
         }
 
+        CodecEvent event = CodecEvent.start("text_to_binary");
+        long start = System.nanoTime();
         StringBuilder binary = new StringBuilder();
         byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
 
@@ -28,6 +34,8 @@ public class BinaryConverter {
             binary.append(byteBinary);
         }
 
+        PipelineMetrics.record(Stage.TEXT_TO_BINARY, start);
+        event.finish(bytes.length, 0);
         return binary.toString();
     }
 
@@ -41,6 +49,8 @@ public class BinaryConverter {
             throw new IllegalArgumentException("Binário inválido: deve ter múltiplo de 8 bits");
         }
 
+        CodecEvent event = CodecEvent.start("binary_to_text");
+        long start = System.nanoTime();
         int numBytes = binary.length() / 8;
         byte[] bytes = new byte[numBytes];
 
@@ -49,7 +59,10 @@ public class BinaryConverter {
             bytes[i] = (byte) Integer.parseInt(byteBinary, 2);
         }
 
-        return new String(bytes, StandardCharsets.UTF_8);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        PipelineMetrics.record(Stage.BINARY_TO_TEXT, start);
+        event.finish(numBytes, 0);
+        return text;
     }
 
     /**
@@ -1,38 +1,138 @@
 package com.telecomunicacoes.ami.codec;
 
+import com.telecomunicacoes.ami.metrics.CodecEvent;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
- * Sistema de Criptografia usando XOR com chave expandida
+ * Sistema de Criptografia usando XOR com chave expandida ou AES-GCM
  * Método simples mas eficaz para o projeto acadêmico
  *
- * EXPLICAÇÃO DO MÉTODO:
+ * EXPLICAÇÃO DO MÉTODO (XOR):
  * 1. XOR (Exclusive OR) é uma operação bit a bit
  * 2. A ⊕ B ⊕ B = A (propriedade de reversibilidade)
  * 3. Cada byte do texto é XOR com byte correspondente da chave
  * 4. A chave é expandida/repetida para cobrir todo o texto
  * 5. Base64 é usado para garantir caracteres imprimíveis
+ *
+ * AES-GCM (Algorithm.AES_GCM):
+ * - Chave AES-256 = SHA-256 da chave em texto, calculada uma vez por chave
+ * - Nonce de 96 bits aleatório por mensagem (SecureRandom): não depende
+ *   de estado da instância, então várias instâncias e execuções podem
+ *   usar a mesma chave (repetição só por volta de 2^48 mensagens)
+ * - Saída: Base64(nonce || texto cifrado || tag de 128 bits); a tag
+ *   detecta chave errada ou texto adulterado
+ * - Um javax.crypto.Cipher por thread, usado com ByteBuffers em
+ *   doFinal: o JDK usa as instruções AES-NI/PCLMULQDQ (ou ARMv8 AES)
+ *
+ * SEGMENTOS (mensagens grandes):
+ * - O texto é dividido em segmentos de SEGMENT_SIZE bytes, processados em
+ *   paralelo no ForkJoinPool comum, cada um direto na sua posição do
+ *   vetor de saída (sem cópias para remontar)
+ * - XOR: cada segmento começa na posição da chave correspondente ao seu
+ *   deslocamento; o resultado é idêntico ao sequencial
+ * - AES-GCM: cada segmento é uma cifra GCM própria, com tag própria e
+ *   nonce = nonce da mensagem + índice do segmento (o contador reserva um
+ *   valor por segmento). Os segmentos que não são o último levam um byte
+ *   de dados associados: remover segmentos do fim invalida a tag do
+ *   novo último. Mensagens de até um segmento ficam no formato simples
  */
 public class Encryption {
 
+    /**
+     * Algoritmo de criptografia
+     */
+    public enum Algorithm {
+        XOR("xor", "XOR com chave expandida"),
+        AES_GCM("aes-gcm", "AES-256-GCM");
+
+        private final String id;
+        private final String name;
+
+        Algorithm(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        /**
+         * Identificador usado em Message e na linha de comando (ex.: "aes-gcm")
+         * @return Identificador
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Busca um algoritmo pelo identificador
+         * @param id Identificador (null ou vazio = xor, o formato original)
+         * @return Algoritmo
+         * @throws IllegalArgumentException se o identificador for desconhecido
+         */
+        public static Algorithm get(String id) {
+            if (id == null || id.isEmpty()) {
+                return XOR;
+            }
+            for (Algorithm algorithm : values()) {
+                if (algorithm.id.equals(id)) {
+                    return algorithm;
+                }
+            }
+            throw new IllegalArgumentException("Criptografia desconhecida: " + id + " (use xor ou aes-gcm)");
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
     // Chave padrão (pode ser alterada)
     private static final String DEFAULT_KEY = "UTFPR-COMUNICACAO-DE-DADOS";
+
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH = 16;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Tamanho de segmento (faz parte do formato AES-GCM: não alterar)
+    static final int SEGMENT_SIZE = 256 * 1024;
+    private static final byte[] NOT_LAST_SEGMENT = {0};
+
+    private static final ThreadLocal<Cipher> AES_GCM = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM indisponível nesta JVM", e);
+        }
+    });
+
     private String key;
+    private volatile SecretKeySpec aesKey;
+    private Algorithm algorithm = Algorithm.XOR;
+    private boolean parallel = true;
 
     public Encryption() {
-        this.key = DEFAULT_KEY;
+        setKey(DEFAULT_KEY);
     }
 
     public Encryption(String key) {
-        if (key == null || key.isEmpty()) {
-            throw new IllegalArgumentException("Chave não pode ser vazia");
-        }
-        this.key = key;
+        setKey(key);
     }
 
     /**
-     * Criptografa o texto usando XOR com a chave
+     * Criptografa o texto com o algoritmo selecionado
      * @param plainText Texto original
      * @return Texto criptografado em Base64
      */
@@ -41,47 +141,219 @@ public class Encryption {
             return "";
         }
 
+        CodecEvent event = CodecEvent.start("encrypt");
+        long start = System.nanoTime();
         byte[] textBytes = plainText.getBytes(StandardCharsets.UTF_8);
-        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
-        byte[] encrypted = new byte[textBytes.length];
-
-        // XOR cada byte do texto com byte correspondente da chave (expandida)
-        for (int i = 0; i < textBytes.length; i++) {
-            encrypted[i] = (byte) (textBytes[i] ^ keyBytes[i % keyBytes.length]);
-        }
+        byte[] encrypted = encryptBytes(textBytes);
 
         // Codifica em Base64 para garantir caracteres imprimíveis
-        return Base64.getEncoder().encodeToString(encrypted);
+        String result = Base64.getEncoder().encodeToString(encrypted);
+        PipelineMetrics.record(Stage.ENCRYPT, start);
+        event.finish(textBytes.length, 0);
+        return result;
     }
 
     /**
-     * Descriptografa o texto usando XOR com a chave
+     * Descriptografa o texto com o algoritmo selecionado
      * @param encryptedText Texto criptografado em Base64
      * @return Texto original
      */
     public String decrypt(String encryptedText) {
+        return decrypt(encryptedText, algorithm);
+    }
+
+    /**
+     * Descriptografa o texto com um algoritmo específico (ex.: o indicado na Message)
+     * @param encryptedText Texto criptografado em Base64
+     * @param algorithm Algoritmo usado na criptografia
+     * @return Texto original
+     */
+    public String decrypt(String encryptedText, Algorithm algorithm) {
         if (encryptedText == null || encryptedText.isEmpty()) {
             return "";
         }
 
         try {
+            CodecEvent event = CodecEvent.start("decrypt");
+            long start = System.nanoTime();
+
             // Decodifica de Base64
             byte[] encrypted = Base64.getDecoder().decode(encryptedText);
-            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
-            byte[] decrypted = new byte[encrypted.length];
+            byte[] decrypted = decryptBytes(encrypted, algorithm);
 
-            // XOR novamente para descriptografar (propriedade de reversibilidade)
-            for (int i = 0; i < encrypted.length; i++) {
-                decrypted[i] = (byte) (encrypted[i] ^ keyBytes[i % keyBytes.length]);
-            }
-
-            return new String(decrypted, StandardCharsets.UTF_8);
+            String result = new String(decrypted, StandardCharsets.UTF_8);
+            PipelineMetrics.record(Stage.DECRYPT, start);
+            event.finish(encrypted.length, 0);
+            return result;
 
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Erro ao descriptografar: Base64 inválido", e);
         }
     }
 
+    /**
+     * Criptografa bytes com o algoritmo selecionado, sem Base64
+     * (modo de bytes crus do pipeline)
+     * @param plain Bytes originais
+     * @return Bytes criptografados (no AES-GCM, com nonce e tags)
+     */
+    public byte[] encrypt(byte[] plain) {
+        CodecEvent event = CodecEvent.start("encrypt");
+        long start = System.nanoTime();
+        byte[] encrypted = encryptBytes(plain);
+        PipelineMetrics.record(Stage.ENCRYPT, start);
+        event.finish(plain.length, 0);
+        return encrypted;
+    }
+
+    /**
+     * Descriptografa bytes, sem Base64 (modo de bytes crus do pipeline)
+     * @param encrypted Bytes criptografados
+     * @param algorithm Algoritmo usado na criptografia
+     * @return Bytes originais
+     */
+    public byte[] decrypt(byte[] encrypted, Algorithm algorithm) {
+        CodecEvent event = CodecEvent.start("decrypt");
+        long start = System.nanoTime();
+        byte[] decrypted = decryptBytes(encrypted, algorithm);
+        PipelineMetrics.record(Stage.DECRYPT, start);
+        event.finish(encrypted.length, 0);
+        return decrypted;
+    }
+
+    private byte[] encryptBytes(byte[] plain) {
+        if (plain.length == 0) {
+            return plain;
+        }
+        if (algorithm == Algorithm.AES_GCM) {
+            return encryptAesGcm(plain);
+        }
+        byte[] encrypted = new byte[plain.length];
+        xor(plain, encrypted);
+        return encrypted;
+    }
+
+    private byte[] decryptBytes(byte[] encrypted, Algorithm algorithm) {
+        if (encrypted.length == 0) {
+            return encrypted;
+        }
+        if (algorithm == Algorithm.AES_GCM) {
+            return decryptAesGcm(encrypted);
+        }
+        // XOR novamente para descriptografar (propriedade de reversibilidade)
+        byte[] decrypted = new byte[encrypted.length];
+        xor(encrypted, decrypted);
+        return decrypted;
+    }
+
+    /**
+     * XOR com a chave expandida, por segmentos (em paralelo se habilitado)
+     */
+    private void xor(byte[] in, byte[] out) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        forEachSegment(segmentCount(in.length), segment -> {
+            int from = segment * SEGMENT_SIZE;
+            int to = Math.min(in.length, from + SEGMENT_SIZE);
+            // Posição da chave correspondente ao deslocamento do segmento
+            int k = from % keyBytes.length;
+            for (int i = from; i < to; i++) {
+                out[i] = (byte) (in[i] ^ keyBytes[k]);
+                if (++k == keyBytes.length) {
+                    k = 0;
+                }
+            }
+        });
+    }
+
+    /**
+     * AES-GCM: nonce || (texto cifrado || tag) por segmento
+     */
+    private byte[] encryptAesGcm(byte[] textBytes) {
+        int segments = segmentCount(textBytes.length);
+        byte[] encrypted = new byte[NONCE_LENGTH + textBytes.length + segments * TAG_LENGTH];
+        // Nonce da mensagem: prefixo + contador aleatórios, o segmento soma ao contador
+        byte[] nonce = new byte[NONCE_LENGTH];
+        RANDOM.nextBytes(nonce);
+        System.arraycopy(nonce, 0, encrypted, 0, NONCE_LENGTH);
+        ByteBuffer header = ByteBuffer.wrap(encrypted, 0, NONCE_LENGTH);
+        int prefix = header.getInt();
+        long counter = header.getLong();
+
+        forEachSegment(segments, segment -> {
+            int from = segment * SEGMENT_SIZE;
+            int length = Math.min(SEGMENT_SIZE, textBytes.length - from);
+            int offset = NONCE_LENGTH + segment * (SEGMENT_SIZE + TAG_LENGTH);
+            try {
+                Cipher cipher = AES_GCM.get();
+                cipher.init(Cipher.ENCRYPT_MODE, aesKey, segmentNonce(prefix, counter + segment));
+                if (segment < segments - 1) {
+                    cipher.updateAAD(NOT_LAST_SEGMENT);
+                }
+                cipher.doFinal(ByteBuffer.wrap(textBytes, from, length),
+                        ByteBuffer.wrap(encrypted, offset, length + TAG_LENGTH));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Erro ao criptografar com AES-GCM", e);
+            }
+        });
+        return encrypted;
+    }
+
+    private byte[] decryptAesGcm(byte[] encrypted) {
+        int body = encrypted.length - NONCE_LENGTH;
+        int segments = Math.max(1, (body + SEGMENT_SIZE + TAG_LENGTH - 1) / (SEGMENT_SIZE + TAG_LENGTH));
+        int lastLength = body - (segments - 1) * (SEGMENT_SIZE + TAG_LENGTH);
+        if (body < TAG_LENGTH || lastLength < TAG_LENGTH) {
+            throw new RuntimeException("Erro ao descriptografar: mensagem AES-GCM truncada");
+        }
+        ByteBuffer header = ByteBuffer.wrap(encrypted, 0, NONCE_LENGTH);
+        int prefix = header.getInt();
+        long counter = header.getLong();
+        byte[] decrypted = new byte[body - segments * TAG_LENGTH];
+
+        forEachSegment(segments, segment -> {
+            int offset = NONCE_LENGTH + segment * (SEGMENT_SIZE + TAG_LENGTH);
+            int length = segment < segments - 1 ? SEGMENT_SIZE + TAG_LENGTH : lastLength;
+            try {
+                Cipher cipher = AES_GCM.get();
+                cipher.init(Cipher.DECRYPT_MODE, aesKey, segmentNonce(prefix, counter + segment));
+                if (segment < segments - 1) {
+                    cipher.updateAAD(NOT_LAST_SEGMENT);
+                }
+                cipher.doFinal(ByteBuffer.wrap(encrypted, offset, length),
+                        ByteBuffer.wrap(decrypted, segment * SEGMENT_SIZE, length - TAG_LENGTH));
+            } catch (AEADBadTagException e) {
+                throw new RuntimeException("Erro ao descriptografar: autenticação AES-GCM falhou (chave errada ou dados corrompidos)", e);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Erro ao descriptografar com AES-GCM", e);
+            }
+        });
+        return decrypted;
+    }
+
+    private static GCMParameterSpec segmentNonce(int prefix, long counter) {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        ByteBuffer.wrap(nonce).putInt(prefix).putLong(counter);
+        return new GCMParameterSpec(TAG_LENGTH * 8, nonce);
+    }
+
+    private static int segmentCount(int length) {
+        return Math.max(1, (length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+    }
+
+    /**
+     * Executa a ação para cada segmento: no ForkJoinPool comum quando há
+     * mais de um segmento e o paralelismo está habilitado
+     */
+    private void forEachSegment(int segments, IntConsumer action) {
+        if (parallel && segments > 1) {
+            IntStream.range(0, segments).parallel().forEach(action);
+        } else {
+            for (int segment = 0; segment < segments; segment++) {
+                action.accept(segment);
+            }
+        }
+    }
+
     /**
      * Altera a chave de criptografia
      * @param newKey Nova chave
@@ -91,6 +363,47 @@ public class Encryption {
             throw new IllegalArgumentException("Chave não pode ser vazia");
         }
         this.key = newKey;
+        this.aesKey = deriveAesKey(newKey);
+    }
+
+    /**
+     * Chave AES-256 derivada da chave em texto (SHA-256)
+     * Adequada para chaves compartilhadas aleatórias; senhas digitadas
+     * pediriam um KDF com sal (PBKDF2, Argon2)
+     */
+    private static SecretKeySpec deriveAesKey(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 indisponível nesta JVM", e);
+        }
+    }
+
+    /**
+     * Seleciona o algoritmo de criptografia
+     * @param algorithm Algoritmo (null = xor)
+     */
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm != null ? algorithm : Algorithm.XOR;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Habilita ou desabilita o processamento paralelo dos segmentos
+     * O resultado é o mesmo nos dois casos; só muda a vazão em mensagens
+     * maiores que um segmento
+     * @param parallel true para usar todos os núcleos (padrão)
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
     }
 
     /**
@@ -112,10 +425,16 @@ public class Encryption {
         try {
             Encryption enc = new Encryption();
             String original = "Teste de Criptografia com Acentos: áéíóú ãõ çÇ";
-            String encrypted = enc.encrypt(original);
-            String decrypted = enc.decrypt(encrypted);
-
-            boolean success = original.equals(decrypted);
+            String decrypted = null;
+            boolean success = true;
+            for (Algorithm algorithm : Algorithm.values()) {
+                enc.setAlgorithm(algorithm);
+                decrypted = enc.decrypt(enc.encrypt(original));
+                success = original.equals(decrypted);
+                if (!success) {
+                    break;
+                }
+            }
 
             if (!success) {
                 System.err.println("FALHA no teste de criptografia!");
@@ -151,7 +470,7 @@ public class Encryption {
             Base64:     = 'Cg==' (imprimível)
             
             Segurança: Adequada para fins acadêmicos.
-            Nota: Para produção, usar AES ou similar.
+            Nota: Para produção, usar o modo AES-GCM (aes-gcm).
             """;
     }
 }
\ No newline at end of file
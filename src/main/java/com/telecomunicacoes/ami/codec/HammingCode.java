@@ -0,0 +1,268 @@
+package com.telecomunicacoes.ami.codec;
+
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+
+/**
+ * Correção de erros (FEC) com Hamming(8,4) estendido (SECDED)
+ *
+ * FUNCIONAMENTO:
+ * - Cada grupo de 4 bits vira uma palavra de 8 bits: Hamming(7,4)
+ *   (posições p1 p2 d1 p3 d2 d3 d4) mais um bit de paridade geral
+ * - Distância mínima 4: corrige 1 erro por palavra e detecta 2
+ * - Codificação e decodificação por tabela (16 e 256 entradas): um
+ *   byte de dados vira dois bytes codificados, e cada byte recebido é
+ *   decodificado com uma consulta
+ *
+ * DICAS DE APAGAMENTO:
+ * As violações do código de linha indicam onde o erro provavelmente
+ * está (LineCode.markSuspectBits). Quando uma palavra tem erro não
+ * corrigível, os bits suspeitos dela são tratados como apagados: vale
+ * a única palavra-código que concorda com o recebido fora deles (com no
+ * máximo 1 divergência). Com distância 4, isso corrige até 3 apagamentos,
+ * ou 1 erro + 1 apagamento. A decisão também é uma tabela, indexada por
+ * (bits suspeitos, byte recebido).
+ */
+public final class HammingCode {
+
+    /** Identificador usado em Message e na linha de comando */
+    public static final String ID = "hamming84";
+
+    private static final int OK = 0;
+    private static final int CORRECTED = 1;
+    private static final int UNCORRECTABLE = 2;
+
+    private static final byte[] ENCODE = new byte[16];
+    private static final byte[] DECODE = new byte[256];
+    private static final byte[] STATUS = new byte[256];
+    // ERASURE[(suspeitos << 8) | recebido]: dados corrigidos, ou -1 se ambíguo
+    private static final byte[] ERASURE = new byte[256 * 256];
+
+    static {
+        for (int nibble = 0; nibble < 16; nibble++) {
+            int d1 = (nibble >> 3) & 1;
+            int d2 = (nibble >> 2) & 1;
+            int d3 = (nibble >> 1) & 1;
+            int d4 = nibble & 1;
+            int p1 = d1 ^ d2 ^ d4;
+            int p2 = d1 ^ d3 ^ d4;
+            int p3 = d2 ^ d3 ^ d4;
+            int word = (p1 << 7) | (p2 << 6) | (d1 << 5) | (p3 << 4) | (d2 << 3) | (d3 << 2) | (d4 << 1);
+            word |= Integer.bitCount(word) & 1;
+            ENCODE[nibble] = (byte) word;
+        }
+        // Decodificação pela palavra mais próxima: distância 0 ou 1 é única;
+        // distância 2 fica a meio caminho de várias palavras (não corrigível)
+        for (int received = 0; received < 256; received++) {
+            int best = 0;
+            int bestDistance = 9;
+            for (int nibble = 0; nibble < 16; nibble++) {
+                int distance = Integer.bitCount(received ^ (ENCODE[nibble] & 0xFF));
+                if (distance < bestDistance) {
+                    best = nibble;
+                    bestDistance = distance;
+                }
+            }
+            DECODE[received] = (byte) best;
+            STATUS[received] = (byte) (bestDistance == 0 ? OK : bestDistance == 1 ? CORRECTED : UNCORRECTABLE);
+        }
+        for (int mask = 0; mask < 256; mask++) {
+            for (int received = 0; received < 256; received++) {
+                ERASURE[(mask << 8) | received] = (byte) decodeWithErasures(received, mask);
+            }
+        }
+    }
+
+    /**
+     * Contadores de uma decodificação
+     */
+    public static final class Statistics {
+        private long words;
+        private long corrected;
+        private long erasureCorrected;
+        private long uncorrectable;
+
+        /**
+         * Palavras de 8 bits decodificadas
+         * @return Total de palavras
+         */
+        public long getWords() {
+            return words;
+        }
+
+        /**
+         * Palavras com 1 erro corrigido
+         * @return Total de correções simples
+         */
+        public long getCorrected() {
+            return corrected;
+        }
+
+        /**
+         * Palavras com 2 erros corrigidos graças às dicas de apagamento
+         * @return Total de correções com apagamento
+         */
+        public long getErasureCorrected() {
+            return erasureCorrected;
+        }
+
+        /**
+         * Palavras com erro detectado mas não corrigido (dados possivelmente errados)
+         * @return Total de palavras não corrigíveis
+         */
+        public long getUncorrectable() {
+            return uncorrectable;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("palavras=%d | corrigidas=%d | corrigidas com apagamento=%d | não corrigíveis=%d",
+                    words, corrected, erasureCorrected, uncorrectable);
+        }
+    }
+
+    private HammingCode() {
+    }
+
+    /**
+     * Número de bits codificados para uma quantidade de bits de dados
+     * @param bitCount Bits de dados (múltiplo de 4)
+     * @return Bits codificados (o dobro)
+     */
+    public static int getCodedBitCount(int bitCount) {
+        return bitCount * 2;
+    }
+
+    /**
+     * Codifica bits empacotados
+     * @param bits Dados (8 por byte, MSB primeiro)
+     * @param bitCount Quantidade de bits (múltiplo de 4)
+     * @param coded Destino (ao menos bitCount / 4 bytes)
+     * @return Número de bits codificados
+     */
+    public static int encode(byte[] bits, int bitCount, byte[] coded) {
+        if ((bitCount & 3) != 0) {
+            throw new IllegalArgumentException("Hamming(8,4) exige número de bits múltiplo de 4");
+        }
+        int fullBytes = bitCount >> 3;
+        for (int i = 0; i < fullBytes; i++) {
+            int value = bits[i] & 0xFF;
+            coded[2 * i] = ENCODE[value >>> 4];
+            coded[2 * i + 1] = ENCODE[value & 0x0F];
+        }
+        if ((bitCount & 7) != 0) {
+            coded[2 * fullBytes] = ENCODE[(bits[fullBytes] & 0xFF) >>> 4];
+        }
+        return bitCount * 2;
+    }
+
+    /**
+     * Decodifica bits empacotados, corrigindo erros
+     * @param coded Bits codificados (uma palavra por byte)
+     * @param codedBitCount Quantidade de bits codificados (múltiplo de 8)
+     * @param suspect Bits suspeitos no mesmo formato de coded (null = sem dicas)
+     * @param bits Destino dos dados (ao menos codedBitCount / 16 bytes arredondado para cima, zerado)
+     * @param statistics Contadores atualizados (pode ser null)
+     * @return Número de bits de dados
+     */
+    public static int decode(byte[] coded, int codedBitCount, byte[] suspect, byte[] bits, Statistics statistics) {
+        if ((codedBitCount & 7) != 0) {
+            throw new IllegalArgumentException("Sinal FEC com número de bits que não é múltiplo de 8");
+        }
+        int words = codedBitCount >> 3;
+        long corrected = 0;
+        long erasureCorrected = 0;
+        long uncorrectable = 0;
+
+        for (int w = 0; w < words; w++) {
+            int received = coded[w] & 0xFF;
+            int nibble = DECODE[received];
+            int status = STATUS[received];
+            if (status == CORRECTED) {
+                corrected++;
+            } else if (status == UNCORRECTABLE) {
+                int hint = suspect != null ? suspect[w] & 0xFF : 0;
+                int candidate = ERASURE[(hint << 8) | received];
+                if (candidate >= 0) {
+                    nibble = candidate;
+                    erasureCorrected++;
+                } else {
+                    uncorrectable++;
+                }
+            }
+            if ((w & 1) == 0) {
+                bits[w >> 1] = (byte) (nibble << 4);
+            } else {
+                bits[w >> 1] |= (byte) nibble;
+            }
+        }
+
+        if (statistics != null) {
+            statistics.words += words;
+            statistics.corrected += corrected;
+            statistics.erasureCorrected += erasureCorrected;
+            statistics.uncorrectable += uncorrectable;
+        }
+        return words * 4;
+    }
+
+    /**
+     * Decodificação com apagamentos (usada só na montagem da tabela)
+     * @param received Palavra recebida
+     * @param mask Bits suspeitos (apagados)
+     * @return Dados da única palavra-código mais próxima fora dos apagamentos
+     *         (no máximo 1 divergência), ou -1
+     */
+    private static int decodeWithErasures(int received, int mask) {
+        if (mask == 0) {
+            return -1;
+        }
+        int result = -1;
+        int bestDistance = 2;
+        boolean unique = false;
+        for (int nibble = 0; nibble < 16; nibble++) {
+            int distance = Integer.bitCount((received ^ (ENCODE[nibble] & 0xFF)) & ~mask & 0xFF);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                result = nibble;
+                unique = true;
+            } else if (distance == bestDistance) {
+                unique = false;
+            }
+        }
+        return unique ? result : -1;
+    }
+
+    /**
+     * Codifica uma string binária
+     * @param binary String de 0s e 1s (tamanho múltiplo de 4)
+     * @return String binária codificada (o dobro do tamanho)
+     */
+    public static String encode(String binary) {
+        long start = System.nanoTime();
+        byte[] bits = LineCodes.packBits(binary);
+        byte[] coded = new byte[(binary.length() + 3) / 4];
+        int count = encode(bits, binary.length(), coded);
+        String result = LineCodes.unpackBits(coded, count);
+        PipelineMetrics.record(Stage.FEC_ENCODE, start);
+        return result;
+    }
+
+    /**
+     * Decodifica uma string binária, corrigindo erros
+     * @param binary String binária codificada
+     * @param suspect Bits suspeitos empacotados (null = sem dicas)
+     * @param statistics Contadores atualizados (pode ser null)
+     * @return String binária de dados
+     */
+    public static String decode(String binary, byte[] suspect, Statistics statistics) {
+        long start = System.nanoTime();
+        byte[] coded = LineCodes.packBits(binary);
+        byte[] bits = new byte[(binary.length() / 8 + 1) / 2];
+        int count = decode(coded, binary.length(), suspect, bits, statistics);
+        String result = LineCodes.unpackBits(bits, count);
+        PipelineMetrics.record(Stage.FEC_DECODE, start);
+        return result;
+    }
+}
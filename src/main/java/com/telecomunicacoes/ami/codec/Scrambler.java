@@ -0,0 +1,257 @@
+package com.telecomunicacoes.ami.codec;
+
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Embaralhador autossincronizante (multiplicativo), aplicado aos bits
+ * antes do código de linha
+ *
+ * FUNCIONAMENTO:
+ * - Embaralhar:     s[n] = d[n] ⊕ (realimentação dos bits já embaralhados)
+ * - Desembaralhar:  d[n] = s[n] ⊕ (a mesma combinação dos bits recebidos)
+ * - O desembaralhador depende apenas dos últimos bits recebidos: um erro
+ *   de canal afeta poucos bits e não há sincronismo de estado a manter
+ * - Os dois lados começam com estado zero a cada mensagem
+ *
+ * POLINÔMIOS:
+ * - X43 (x^43 + 1, o mesmo das células ATM): processado 64 bits por vez;
+ *   os 43 primeiros bits de cada palavra dependem só da palavra anterior
+ *   e os 21 restantes, dos primeiros bits da própria palavra
+ * - X7 (x^7 + x^4 + 1): processado 8 bits por vez com uma tabela indexada
+ *   por (estado de 7 bits, byte de entrada); com entrada toda em 1s gera
+ *   uma sequência de período 127, limitando a 6 os bits 1 consecutivos
+ *
+ * No AMI Pseudoternário, bit 1 é 0V: o embaralhador quebra as longas
+ * sequências de 1s que deixam o receptor sem transições.
+ */
+public enum Scrambler {
+
+    X43("x43", "x^43 + 1") {
+        @Override
+        void scrambleBytes(byte[] bits, int byteCount) {
+            int words = byteCount >>> 3;
+            long previous = 0;
+            for (int w = 0; w < words; w++) {
+                long data = (long) LONGS.get(bits, w << 3);
+                long partial = data ^ (previous << 21);
+                long scrambled = partial ^ (partial >>> 43);
+                LONGS.set(bits, w << 3, scrambled);
+                previous = scrambled;
+            }
+            int offset = words << 3;
+            if (offset < byteCount) {
+                long data = readTail(bits, offset, byteCount);
+                long partial = data ^ (previous << 21);
+                writeTail(bits, offset, byteCount, partial ^ (partial >>> 43));
+            }
+        }
+
+        @Override
+        void descrambleBytes(byte[] bits, int byteCount) {
+            int words = byteCount >>> 3;
+            long previous = 0;
+            for (int w = 0; w < words; w++) {
+                long scrambled = (long) LONGS.get(bits, w << 3);
+                LONGS.set(bits, w << 3, scrambled ^ (previous << 21) ^ (scrambled >>> 43));
+                previous = scrambled;
+            }
+            int offset = words << 3;
+            if (offset < byteCount) {
+                long scrambled = readTail(bits, offset, byteCount);
+                writeTail(bits, offset, byteCount, scrambled ^ (previous << 21) ^ (scrambled >>> 43));
+            }
+        }
+    },
+
+    X7("x7", "x^7 + x^4 + 1") {
+        @Override
+        void scrambleBytes(byte[] bits, int byteCount) {
+            int state = 0;
+            for (int i = 0; i < byteCount; i++) {
+                int out = X7_SCRAMBLE[(state << 8) | (bits[i] & 0xFF)] & 0xFF;
+                bits[i] = (byte) out;
+                state = out & 0x7F;
+            }
+        }
+
+        @Override
+        void descrambleBytes(byte[] bits, int byteCount) {
+            int state = 0;
+            for (int i = 0; i < byteCount; i++) {
+                int in = bits[i] & 0xFF;
+                bits[i] = X7_DESCRAMBLE[(state << 8) | in];
+                state = in & 0x7F;
+            }
+        }
+    };
+
+    // Leitura e escrita de 8 bytes como long big-endian (MSB primeiro, como nos bits empacotados)
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    // Tabelas do X7: índice (estado << 8) | byte; o bit k do estado é o bit embaralhado n-1-k
+    private static final byte[] X7_SCRAMBLE = new byte[128 * 256];
+    private static final byte[] X7_DESCRAMBLE = new byte[128 * 256];
+
+    static {
+        for (int state = 0; state < 128; state++) {
+            for (int value = 0; value < 256; value++) {
+                int scrambleState = state;
+                int descrambleState = state;
+                int scrambled = 0;
+                int descrambled = 0;
+                for (int j = 7; j >= 0; j--) {
+                    int in = (value >>> j) & 1;
+
+                    int s = in ^ ((scrambleState >>> 3) & 1) ^ ((scrambleState >>> 6) & 1);
+                    scrambled = (scrambled << 1) | s;
+                    scrambleState = ((scrambleState << 1) | s) & 0x7F;
+
+                    int d = in ^ ((descrambleState >>> 3) & 1) ^ ((descrambleState >>> 6) & 1);
+                    descrambled = (descrambled << 1) | d;
+                    descrambleState = ((descrambleState << 1) | in) & 0x7F;
+                }
+                X7_SCRAMBLE[(state << 8) | value] = (byte) scrambled;
+                X7_DESCRAMBLE[(state << 8) | value] = (byte) descrambled;
+            }
+        }
+    }
+
+    private final String id;
+    private final String polynomial;
+
+    Scrambler(String id, String polynomial) {
+        this.id = id;
+        this.polynomial = polynomial;
+    }
+
+    /**
+     * Embaralha bytes inteiros no lugar
+     */
+    abstract void scrambleBytes(byte[] bits, int byteCount);
+
+    /**
+     * Desembaralha bytes inteiros no lugar
+     */
+    abstract void descrambleBytes(byte[] bits, int byteCount);
+
+    /**
+     * Identificador usado em Message e na linha de comando (ex.: "x43")
+     * @return Identificador
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Polinômio do embaralhador
+     * @return Polinômio em texto (ex.: "x^43 + 1")
+     */
+    public String getPolynomial() {
+        return polynomial;
+    }
+
+    /**
+     * Busca um embaralhador pelo identificador
+     * @param id Identificador (null, vazio ou "none" = sem embaralhador)
+     * @return Embaralhador, ou null se nenhum foi pedido
+     * @throws IllegalArgumentException se o identificador for desconhecido
+     */
+    public static Scrambler get(String id) {
+        if (id == null || id.isEmpty() || id.equals("none")) {
+            return null;
+        }
+        for (Scrambler scrambler : values()) {
+            if (scrambler.id.equals(id)) {
+                return scrambler;
+            }
+        }
+        throw new IllegalArgumentException("Embaralhador desconhecido: " + id + " (use x43, x7 ou none)");
+    }
+
+    /**
+     * Embaralha bits empacotados no lugar (8 por byte, MSB primeiro)
+     * Bits além de bitCount no último byte ficam zerados
+     * @param bits Bits empacotados
+     * @param bitCount Quantidade de bits
+     */
+    public void scramble(byte[] bits, int bitCount) {
+        int byteCount = (bitCount + 7) >>> 3;
+        scrambleBytes(bits, byteCount);
+        clearPadding(bits, bitCount);
+    }
+
+    /**
+     * Desembaralha bits empacotados no lugar (8 por byte, MSB primeiro)
+     * Bits além de bitCount no último byte ficam zerados
+     * @param bits Bits empacotados
+     * @param bitCount Quantidade de bits
+     */
+    public void descramble(byte[] bits, int bitCount) {
+        int byteCount = (bitCount + 7) >>> 3;
+        descrambleBytes(bits, byteCount);
+        clearPadding(bits, bitCount);
+    }
+
+    /**
+     * Embaralha uma string binária
+     * @param binary String contendo apenas 0s e 1s
+     * @return String binária embaralhada, do mesmo tamanho
+     */
+    public String scramble(String binary) {
+        long start = System.nanoTime();
+        byte[] bits = LineCodes.packBits(binary);
+        scramble(bits, binary.length());
+        String result = LineCodes.unpackBits(bits, binary.length());
+        PipelineMetrics.record(Stage.SCRAMBLE, start);
+        return result;
+    }
+
+    /**
+     * Desembaralha uma string binária
+     * @param binary String contendo apenas 0s e 1s
+     * @return String binária original, do mesmo tamanho
+     */
+    public String descramble(String binary) {
+        long start = System.nanoTime();
+        byte[] bits = LineCodes.packBits(binary);
+        descramble(bits, binary.length());
+        String result = LineCodes.unpackBits(bits, binary.length());
+        PipelineMetrics.record(Stage.DESCRAMBLE, start);
+        return result;
+    }
+
+    private static void clearPadding(byte[] bits, int bitCount) {
+        int rest = bitCount & 7;
+        if (rest != 0) {
+            bits[bitCount >>> 3] &= (byte) (0xFF00 >>> rest);
+        }
+    }
+
+    /**
+     * Lê os últimos (menos de 8) bytes como os bytes mais significativos de um long
+     */
+    private static long readTail(byte[] bits, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value |= (bits[i] & 0xFFL) << (56 - ((i - from) << 3));
+        }
+        return value;
+    }
+
+    private static void writeTail(byte[] bits, int from, int to, long value) {
+        for (int i = from; i < to; i++) {
+            bits[i] = (byte) (value >>> (56 - ((i - from) << 3)));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return polynomial;
+    }
+}
@@ -0,0 +1,142 @@
+package com.telecomunicacoes.ami.codec.line;
+
+/**
+ * Base dos códigos de inversão alternada de marca (AMI)
+ *
+ * Um dos valores de bit (a "marca") vira pulso de polaridade alternada
+ * e o outro vira 0V. O primeiro pulso é +V.
+ *
+ * A codificação consulta uma tabela por byte: para cada polaridade do
+ * último pulso e cada valor de byte, os 8 símbolos já prontos e a
+ * polaridade seguinte (2 × 256 entradas).
+ *
+ * Um erro de canal que cria ou apaga um pulso faz dois pulsos seguidos
+ * terem a mesma polaridade: o símbolo errado está entre eles (inclusive).
+ */
+abstract class AlternateMarkCode implements LineCode {
+
+    private static final int[] LEVELS = {-1, 0, 1};
+
+    private final int markBit;
+
+    // encodeTable[estado][byte·8 + k]: estado 0 = último pulso -V, 1 = +V
+    private final byte[][] encodeTable = new byte[2][256 * 8];
+    private final byte[][] nextState = new byte[2][256];
+
+    /**
+     * @param markBit Valor de bit codificado como pulso (0 ou 1)
+     */
+    protected AlternateMarkCode(int markBit) {
+        this.markBit = markBit;
+        for (int state = 0; state < 2; state++) {
+            for (int value = 0; value < 256; value++) {
+                int last = state == 0 ? -1 : 1;
+                for (int k = 0; k < 8; k++) {
+                    int bit = (value >> (7 - k)) & 1;
+                    if (bit == markBit) {
+                        last = -last;
+                        encodeTable[state][value * 8 + k] = (byte) last;
+                    }
+                }
+                nextState[state][value] = (byte) (last == -1 ? 0 : 1);
+            }
+        }
+    }
+
+    @Override
+    public int[] getLevels() {
+        return LEVELS;
+    }
+
+    @Override
+    public int getSymbolCount(int bitCount) {
+        return bitCount;
+    }
+
+    @Override
+    public int getBitCount(int symbolCount) {
+        return symbolCount;
+    }
+
+    @Override
+    public int encode(byte[] bits, int bitCount, byte[] symbols) {
+        int state = 0;
+        int fullBytes = bitCount >> 3;
+        for (int i = 0; i < fullBytes; i++) {
+            int value = bits[i] & 0xFF;
+            System.arraycopy(encodeTable[state], value * 8, symbols, i * 8, 8);
+            state = nextState[state][value];
+        }
+
+        int last = state == 0 ? -1 : 1;
+        for (int i = fullBytes * 8; i < bitCount; i++) {
+            if (LineCodes.bit(bits, i) == markBit) {
+                last = -last;
+                symbols[i] = (byte) last;
+            } else {
+                symbols[i] = 0;
+            }
+        }
+        return bitCount;
+    }
+
+    @Override
+    public int decode(byte[] symbols, int symbolCount, byte[] bits) {
+        // Pulso → markBit; 0V → o outro valor
+        int pulseBit = markBit;
+        int fullBytes = symbolCount >> 3;
+        for (int i = 0; i < fullBytes; i++) {
+            int value = 0;
+            int base = i * 8;
+            for (int k = 0; k < 8; k++) {
+                int bit = symbols[base + k] != 0 ? pulseBit : 1 - pulseBit;
+                value = (value << 1) | bit;
+            }
+            bits[i] = (byte) value;
+        }
+        for (int i = fullBytes * 8; i < symbolCount; i++) {
+            int bit = symbols[i] != 0 ? pulseBit : 1 - pulseBit;
+            if (bit == 1) {
+                LineCodes.setBit(bits, i);
+            }
+        }
+        return symbolCount;
+    }
+
+    @Override
+    public int countViolations(byte[] symbols, int symbolCount) {
+        int violations = 0;
+        int last = 0;
+        for (int i = 0; i < symbolCount; i++) {
+            int level = symbols[i];
+            if (level != 0) {
+                if (level == last) {
+                    violations++;
+                }
+                last = level;
+            }
+        }
+        return violations;
+    }
+
+    @Override
+    public int markSuspectBits(byte[] symbols, int symbolCount, byte[] suspect) {
+        int violations = 0;
+        int last = 0;
+        int lastPosition = 0;
+        for (int i = 0; i < symbolCount; i++) {
+            int level = symbols[i];
+            if (level != 0) {
+                if (level == last) {
+                    violations++;
+                    for (int k = lastPosition; k <= i; k++) {
+                        LineCodes.setBit(suspect, k);
+                    }
+                }
+                last = level;
+                lastPosition = i;
+            }
+        }
+        return violations;
+    }
+}
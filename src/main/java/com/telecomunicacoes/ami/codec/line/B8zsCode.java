@@ -0,0 +1,123 @@
+package com.telecomunicacoes.ami.codec.line;
+
+/**
+ * B8ZS (Bipolar with 8-Zero Substitution)
+ *
+ * REGRAS:
+ * - Base AMI bipolar: bit 0 = 0V, bit 1 = pulso alternado
+ * - Oito zeros seguidos viram 000VB0VB, onde V repete a polaridade do
+ *   pulso anterior (violação intencional) e B alterna normalmente.
+ *   Com último pulso +V: 000+-0-+; com último pulso -V: 000-+0+-
+ * - Após a substituição a polaridade do último pulso não muda
+ *
+ * Garante transições em qualquer sequência de zeros, mantendo o
+ * equilíbrio DC (o padrão tem dois pulsos de cada polaridade).
+ */
+public class B8zsCode implements LineCode {
+
+    private static final int[] LEVELS = {-1, 0, 1};
+
+    @Override
+    public String getId() {
+        return "b8zs";
+    }
+
+    @Override
+    public String getName() {
+        return "B8ZS";
+    }
+
+    @Override
+    public int[] getLevels() {
+        return LEVELS;
+    }
+
+    @Override
+    public int getSymbolCount(int bitCount) {
+        return bitCount;
+    }
+
+    @Override
+    public int getBitCount(int symbolCount) {
+        return symbolCount;
+    }
+
+    @Override
+    public int encode(byte[] bits, int bitCount, byte[] symbols) {
+        int last = -1;
+        int zeros = 0;
+        for (int i = 0; i < bitCount; i++) {
+            if (LineCodes.bit(bits, i) == 1) {
+                last = -last;
+                symbols[i] = (byte) last;
+                zeros = 0;
+            } else {
+                symbols[i] = 0;
+                if (++zeros == 8) {
+                    // 000VB0VB sobre as 8 posições já escritas
+                    symbols[i - 4] = (byte) last;
+                    symbols[i - 3] = (byte) -last;
+                    symbols[i - 1] = (byte) -last;
+                    symbols[i] = (byte) last;
+                    zeros = 0;
+                }
+            }
+        }
+        return bitCount;
+    }
+
+    @Override
+    public int decode(byte[] symbols, int symbolCount, byte[] bits) {
+        int last = -1;
+        int i = 0;
+        while (i < symbolCount) {
+            if (isSubstitution(symbols, i, symbolCount, last)) {
+                // Oito bits 0 (o destino já está zerado)
+                i += 8;
+                continue;
+            }
+            if (symbols[i] != 0) {
+                LineCodes.setBit(bits, i);
+                last = symbols[i];
+            }
+            i++;
+        }
+        return symbolCount;
+    }
+
+    /**
+     * Verifica se há um padrão 000VB0VB começando em i
+     */
+    private static boolean isSubstitution(byte[] s, int i, int count, int last) {
+        return i + 8 <= count
+                && s[i] == 0 && s[i + 1] == 0 && s[i + 2] == 0
+                && s[i + 3] == last && s[i + 4] == -last
+                && s[i + 5] == 0
+                && s[i + 6] == -last && s[i + 7] == last;
+    }
+
+    @Override
+    public int countViolations(byte[] symbols, int symbolCount) {
+        int violations = 0;
+        int last = -1;
+        boolean seenPulse = false;
+        int i = 0;
+        while (i < symbolCount) {
+            if (isSubstitution(symbols, i, symbolCount, last)) {
+                seenPulse = true;
+                i += 8;
+                continue;
+            }
+            int level = symbols[i];
+            if (level != 0) {
+                if (level == last && seenPulse) {
+                    violations++;
+                }
+                last = level;
+                seenPulse = true;
+            }
+            i++;
+        }
+        return violations;
+    }
+}
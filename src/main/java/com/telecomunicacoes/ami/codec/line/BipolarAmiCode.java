@@ -0,0 +1,21 @@
+package com.telecomunicacoes.ami.codec.line;
+
+/**
+ * AMI bipolar tradicional: bit 0 = 0V, bit 1 = pulso alternado (+V, -V)
+ */
+public class BipolarAmiCode extends AlternateMarkCode {
+
+    public BipolarAmiCode() {
+        super(1);
+    }
+
+    @Override
+    public String getId() {
+        return "ami";
+    }
+
+    @Override
+    public String getName() {
+        return "AMI Bipolar";
+    }
+}
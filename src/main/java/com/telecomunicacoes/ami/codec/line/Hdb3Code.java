@@ -0,0 +1,127 @@
+package com.telecomunicacoes.ami.codec.line;
+
+/**
+ * HDB3 (High Density Bipolar of order 3)
+ *
+ * REGRAS:
+ * - Base AMI bipolar: bit 0 = 0V, bit 1 = pulso alternado
+ * - Quatro zeros seguidos viram 000V ou B00V:
+ *   - número ímpar de pulsos desde a última substituição → 000V
+ *   - número par → B00V (B alterna normalmente, V repete B)
+ * - V sempre repete a polaridade do pulso anterior (violação intencional)
+ *   e violações consecutivas alternam de polaridade, mantendo o DC nulo
+ *
+ * O decodificador reconhece V como pulso com a mesma polaridade do
+ * anterior e zera os quatro bits que terminam nele.
+ */
+public class Hdb3Code implements LineCode {
+
+    private static final int[] LEVELS = {-1, 0, 1};
+
+    @Override
+    public String getId() {
+        return "hdb3";
+    }
+
+    @Override
+    public String getName() {
+        return "HDB3";
+    }
+
+    @Override
+    public int[] getLevels() {
+        return LEVELS;
+    }
+
+    @Override
+    public int getSymbolCount(int bitCount) {
+        return bitCount;
+    }
+
+    @Override
+    public int getBitCount(int symbolCount) {
+        return symbolCount;
+    }
+
+    @Override
+    public int encode(byte[] bits, int bitCount, byte[] symbols) {
+        int last = -1;
+        int pulsesSinceViolation = 0;
+        int zeros = 0;
+        for (int i = 0; i < bitCount; i++) {
+            if (LineCodes.bit(bits, i) == 1) {
+                last = -last;
+                symbols[i] = (byte) last;
+                pulsesSinceViolation++;
+                zeros = 0;
+            } else {
+                symbols[i] = 0;
+                if (++zeros == 4) {
+                    if ((pulsesSinceViolation & 1) == 0) {
+                        // B00V: B alterna, V repete B
+                        last = -last;
+                        symbols[i - 3] = (byte) last;
+                    }
+                    symbols[i] = (byte) last;
+                    pulsesSinceViolation = 0;
+                    zeros = 0;
+                }
+            }
+        }
+        return bitCount;
+    }
+
+    @Override
+    public int decode(byte[] symbols, int symbolCount, byte[] bits) {
+        int last = -1;
+        for (int i = 0; i < symbolCount; i++) {
+            int level = symbols[i];
+            if (level == 0) {
+                continue;
+            }
+            if (level == last) {
+                // V: os quatro bits que terminam aqui são zeros (desfaz um B em i-3)
+                if (i >= 3) {
+                    LineCodes.clearBit(bits, i - 3);
+                }
+            } else {
+                LineCodes.setBit(bits, i);
+                last = level;
+            }
+        }
+        return symbolCount;
+    }
+
+    @Override
+    public int countViolations(byte[] symbols, int symbolCount) {
+        int violations = 0;
+        int last = -1;
+        int lastViolation = 0;
+        int zeros = 0;
+        for (int i = 0; i < symbolCount; i++) {
+            int level = symbols[i];
+            if (level == 0) {
+                // Quatro zeros seguidos nunca ocorrem em HDB3 válido
+                if (++zeros == 4) {
+                    violations++;
+                    zeros = 0;
+                }
+                continue;
+            }
+            zeros = 0;
+            if (level == last) {
+                boolean validPattern = i >= 3
+                        && symbols[i - 1] == 0 && symbols[i - 2] == 0
+                        && (symbols[i - 3] == 0 || symbols[i - 3] == level)
+                        && level != lastViolation;
+                if (!validPattern) {
+                    violations++;
+                }
+                lastViolation = level;
+            } else {
+                last = level;
+            }
+        }
+        return violations;
+    }
+}
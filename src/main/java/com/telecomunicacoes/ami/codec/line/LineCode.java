@@ -0,0 +1,179 @@
+package com.telecomunicacoes.ami.codec.line;
+
+import com.telecomunicacoes.ami.metrics.CodecEvent;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+
+/**
+ * Código de linha: conversão entre bits e níveis de sinal
+ *
+ * FORMATO DOS BUFFERS:
+ * - Bits empacotados, 8 por byte, o mais significativo primeiro
+ * - Símbolos com um nível por byte (-3, -1, 0, +1, +3, conforme o código)
+ *
+ * As implementações não guardam estado entre chamadas: cada encode
+ * começa do estado inicial documentado do código, então uma instância
+ * pode ser compartilhada entre threads.
+ */
+public interface LineCode {
+
+    /**
+     * Identificador usado em Message e na linha de comando (ex.: "hdb3")
+     * @return Identificador em minúsculas
+     */
+    String getId();
+
+    /**
+     * Nome para exibição
+     * @return Nome do código
+     */
+    String getName();
+
+    /**
+     * Níveis que o código pode produzir
+     * @return Níveis válidos, em ordem crescente
+     */
+    int[] getLevels();
+
+    /**
+     * Número de símbolos gerados para uma quantidade de bits
+     * @param bitCount Quantidade de bits
+     * @return Quantidade de símbolos
+     */
+    int getSymbolCount(int bitCount);
+
+    /**
+     * Número de bits recuperados de uma quantidade de símbolos
+     * @param symbolCount Quantidade de símbolos
+     * @return Quantidade de bits
+     */
+    int getBitCount(int symbolCount);
+
+    /**
+     * Codifica bits empacotados
+     * @param bits Bits (8 por byte, MSB primeiro)
+     * @param bitCount Quantidade de bits a codificar
+     * @param symbols Destino (ao menos getSymbolCount(bitCount) posições)
+     * @return Número de símbolos escritos
+     */
+    int encode(byte[] bits, int bitCount, byte[] symbols);
+
+    /**
+     * Decodifica símbolos em bits empacotados
+     * @param symbols Níveis (um por byte)
+     * @param symbolCount Quantidade de símbolos
+     * @param bits Destino (ao menos (getBitCount(symbolCount) + 7) / 8 bytes, zerado)
+     * @return Número de bits escritos
+     */
+    int decode(byte[] symbols, int symbolCount, byte[] bits);
+
+    /**
+     * Conta violações das regras do código (erros de canal detectáveis)
+     * As violações intencionais de B8ZS e HDB3 não são contadas
+     * @param symbols Níveis (um por byte)
+     * @param symbolCount Quantidade de símbolos
+     * @return Número de violações
+     */
+    int countViolations(byte[] symbols, int symbolCount);
+
+    /**
+     * Marca os bits que uma violação aponta como possivelmente errados
+     * (dica de apagamento para a correção de erros)
+     * Sem implementação específica, apenas conta as violações
+     * @param symbols Níveis (um por byte)
+     * @param symbolCount Quantidade de símbolos
+     * @param suspect Destino, no formato dos bits decodificados (zerado); bit 1 = suspeito
+     * @return Número de violações
+     */
+    default int markSuspectBits(byte[] symbols, int symbolCount, byte[] suspect) {
+        return countViolations(symbols, symbolCount);
+    }
+
+    /**
+     * Verifica se um nível pertence ao código
+     * @param level Nível
+     * @return true se válido
+     */
+    default boolean isValidLevel(int level) {
+        for (int valid : getLevels()) {
+            if (valid == level) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Codifica uma string binária (API usada pelo pipeline de mensagens)
+     * @param binary String contendo apenas 0s e 1s
+     * @return Níveis do sinal
+     */
+    default int[] encode(String binary) {
+        if (binary == null || binary.isEmpty()) {
+            return new int[0];
+        }
+        CodecEvent event = CodecEvent.start("encode");
+        long start = System.nanoTime();
+
+        byte[] bits = LineCodes.packBits(binary);
+        byte[] symbols = new byte[getSymbolCount(binary.length())];
+        int count = encode(bits, binary.length(), symbols);
+        int[] signal = LineCodes.toSignal(symbols, count);
+
+        PipelineMetrics.record(Stage.ENCODE, start);
+        event.finish(binary.length(), count);
+        return signal;
+    }
+
+    /**
+     * Decodifica níveis de sinal para uma string binária
+     * @param signal Níveis do sinal
+     * @return String binária
+     */
+    default String decode(int[] signal) {
+        if (signal == null || signal.length == 0) {
+            return "";
+        }
+        CodecEvent event = CodecEvent.start("decode");
+        long start = System.nanoTime();
+
+        byte[] symbols = LineCodes.toSymbols(signal, this);
+        byte[] bits = new byte[(getBitCount(signal.length) + 7) / 8];
+        int count = decode(symbols, symbols.length, bits);
+        String binary = LineCodes.unpackBits(bits, count);
+
+        PipelineMetrics.record(Stage.DECODE, start);
+        event.finish(signal.length, signal.length);
+        return binary;
+    }
+
+    /**
+     * Conta violações em um sinal (níveis fora do código contam como violação)
+     * @param signal Níveis do sinal
+     * @return Número de violações
+     */
+    default int countViolations(int[] signal) {
+        if (signal == null || signal.length == 0) {
+            return 0;
+        }
+        byte[] symbols = new byte[signal.length];
+        int invalid = 0;
+        for (int i = 0; i < signal.length; i++) {
+            if (isValidLevel(signal[i])) {
+                symbols[i] = (byte) signal[i];
+            } else {
+                invalid++;
+            }
+        }
+        return invalid + countViolations(symbols, symbols.length);
+    }
+
+    /**
+     * Valida um sinal segundo as regras do código
+     * @param signal Níveis do sinal
+     * @return true se não houver violações
+     */
+    default boolean validateSignal(int[] signal) {
+        return signal != null && signal.length > 0 && countViolations(signal) == 0;
+    }
+}
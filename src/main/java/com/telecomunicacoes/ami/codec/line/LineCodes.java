@@ -0,0 +1,156 @@
+package com.telecomunicacoes.ami.codec.line;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registro dos códigos de linha disponíveis e utilitários de buffer
+ *
+ * O código padrão é o AMI Pseudoternário; mensagens sem identificador
+ * de código (versões anteriores) são tratadas como pseudoternárias.
+ */
+public final class LineCodes {
+
+    public static final String DEFAULT_ID = "pseudoternary";
+
+    private static final Map<String, LineCode> CODES = new LinkedHashMap<>();
+
+    static {
+        register(new PseudoternaryCode());
+        register(new BipolarAmiCode());
+        register(new B8zsCode());
+        register(new Hdb3Code());
+        register(new ManchesterCode());
+        register(new NrziCode());
+        register(new TwoB1QCode());
+    }
+
+    private LineCodes() {
+    }
+
+    private static void register(LineCode code) {
+        CODES.put(code.getId(), code);
+    }
+
+    /**
+     * Busca um código pelo identificador
+     * @param id Identificador (null = código padrão)
+     * @return Código de linha
+     */
+    public static LineCode get(String id) {
+        if (id == null || id.isEmpty()) {
+            return CODES.get(DEFAULT_ID);
+        }
+        LineCode code = CODES.get(id.toLowerCase());
+        if (code == null) {
+            throw new IllegalArgumentException("Código de linha desconhecido: " + id + " (disponíveis: " + CODES.keySet() + ")");
+        }
+        return code;
+    }
+
+    public static LineCode getDefault() {
+        return CODES.get(DEFAULT_ID);
+    }
+
+    /**
+     * Todos os códigos, na ordem de registro
+     * @return Coleção somente leitura
+     */
+    public static Collection<LineCode> all() {
+        return Collections.unmodifiableCollection(CODES.values());
+    }
+
+    /**
+     * Empacota uma string binária, 8 bits por byte (MSB primeiro)
+     * @param binary String de 0s e 1s
+     * @return Bits empacotados
+     */
+    public static byte[] packBits(String binary) {
+        byte[] bits = new byte[(binary.length() + 7) / 8];
+        for (int i = 0; i < binary.length(); i++) {
+            char c = binary.charAt(i);
+            if (c == '1') {
+                bits[i >> 3] |= (byte) (0x80 >>> (i & 7));
+            } else if (c != '0') {
+                throw new IllegalArgumentException("String deve conter apenas 0s e 1s");
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Desempacota bits para uma string binária
+     * @param bits Bits empacotados
+     * @param bitCount Quantidade de bits
+     * @return String de 0s e 1s
+     */
+    public static String unpackBits(byte[] bits, int bitCount) {
+        char[] chars = new char[bitCount];
+        for (int i = 0; i < bitCount; i++) {
+            chars[i] = ((bits[i >> 3] >> (7 - (i & 7))) & 1) != 0 ? '1' : '0';
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Lê o bit de uma posição
+     * @param bits Bits empacotados
+     * @param index Posição
+     * @return 0 ou 1
+     */
+    static int bit(byte[] bits, int index) {
+        return (bits[index >> 3] >> (7 - (index & 7))) & 1;
+    }
+
+    /**
+     * Liga o bit de uma posição
+     * @param bits Bits empacotados
+     * @param index Posição
+     */
+    static void setBit(byte[] bits, int index) {
+        bits[index >> 3] |= (byte) (0x80 >>> (index & 7));
+    }
+
+    /**
+     * Desliga o bit de uma posição
+     * @param bits Bits empacotados
+     * @param index Posição
+     */
+    static void clearBit(byte[] bits, int index) {
+        bits[index >> 3] &= (byte) ~(0x80 >>> (index & 7));
+    }
+
+    /**
+     * Converte símbolos (um por byte) para o formato int[] de Message
+     * @param symbols Símbolos
+     * @param count Quantidade
+     * @return Níveis
+     */
+    public static int[] toSignal(byte[] symbols, int count) {
+        int[] signal = new int[count];
+        for (int i = 0; i < count; i++) {
+            signal[i] = symbols[i];
+        }
+        return signal;
+    }
+
+    /**
+     * Converte níveis para símbolos (um por byte), validando contra o código
+     * @param signal Níveis
+     * @param code Código que define os níveis válidos
+     * @return Símbolos
+     */
+    public static byte[] toSymbols(int[] signal, LineCode code) {
+        byte[] symbols = new byte[signal.length];
+        for (int i = 0; i < signal.length; i++) {
+            if (!code.isValidLevel(signal[i])) {
+                throw new IllegalArgumentException(
+                        "Sinal inválido: nível " + signal[i] + " não pertence ao código " + code.getName());
+            }
+            symbols[i] = (byte) signal[i];
+        }
+        return symbols;
+    }
+}
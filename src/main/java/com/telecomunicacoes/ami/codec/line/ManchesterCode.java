@@ -0,0 +1,86 @@
+package com.telecomunicacoes.ami.codec.line;
+
+/**
+ * Manchester (convenção IEEE 802.3)
+ *
+ * REGRAS:
+ * - Cada bit ocupa dois meios-símbolos com transição no centro
+ * - Bit 0 = alto → baixo (+V, -V); bit 1 = baixo → alto (-V, +V)
+ *
+ * Dobra a taxa de símbolos em troca de uma transição garantida por bit
+ * e DC nulo em cada bit.
+ */
+public class ManchesterCode implements LineCode {
+
+    private static final int[] LEVELS = {-1, 1};
+
+    @Override
+    public String getId() {
+        return "manchester";
+    }
+
+    @Override
+    public String getName() {
+        return "Manchester";
+    }
+
+    @Override
+    public int[] getLevels() {
+        return LEVELS;
+    }
+
+    @Override
+    public int getSymbolCount(int bitCount) {
+        return bitCount * 2;
+    }
+
+    @Override
+    public int getBitCount(int symbolCount) {
+        return symbolCount / 2;
+    }
+
+    @Override
+    public int encode(byte[] bits, int bitCount, byte[] symbols) {
+        for (int i = 0; i < bitCount; i++) {
+            int first = LineCodes.bit(bits, i) == 1 ? -1 : 1;
+            symbols[2 * i] = (byte) first;
+            symbols[2 * i + 1] = (byte) -first;
+        }
+        return bitCount * 2;
+    }
+
+    @Override
+    public int decode(byte[] symbols, int symbolCount, byte[] bits) {
+        int bitCount = symbolCount / 2;
+        for (int i = 0; i < bitCount; i++) {
+            // Sem transição no centro (violação) decide pela segunda metade
+            if (symbols[2 * i + 1] > 0 && symbols[2 * i] <= symbols[2 * i + 1]) {
+                LineCodes.setBit(bits, i);
+            }
+        }
+        return bitCount;
+    }
+
+    @Override
+    public int countViolations(byte[] symbols, int symbolCount) {
+        int violations = 0;
+        for (int i = 0; i + 1 < symbolCount; i += 2) {
+            if (symbols[i] == symbols[i + 1] || symbols[i] == 0 || symbols[i + 1] == 0) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+
+    @Override
+    public int markSuspectBits(byte[] symbols, int symbolCount, byte[] suspect) {
+        int violations = 0;
+        for (int i = 0; i + 1 < symbolCount; i += 2) {
+            if (symbols[i] == symbols[i + 1] || symbols[i] == 0 || symbols[i + 1] == 0) {
+                violations++;
+                LineCodes.setBit(suspect, i / 2);
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,77 @@
+package com.telecomunicacoes.ami.codec.line;
+
+/**
+ * NRZ-I (Non-Return-to-Zero Inverted)
+ *
+ * REGRAS:
+ * - Bit 1 = inverte o nível; bit 0 = mantém o nível
+ * - Nível de referência antes do primeiro símbolo: -V
+ *
+ * O receptor só precisa detectar transições, então uma inversão de
+ * polaridade do canal não altera os dados.
+ */
+public class NrziCode implements LineCode {
+
+    private static final int[] LEVELS = {-1, 1};
+
+    @Override
+    public String getId() {
+        return "nrzi";
+    }
+
+    @Override
+    public String getName() {
+        return "NRZ-I";
+    }
+
+    @Override
+    public int[] getLevels() {
+        return LEVELS;
+    }
+
+    @Override
+    public int getSymbolCount(int bitCount) {
+        return bitCount;
+    }
+
+    @Override
+    public int getBitCount(int symbolCount) {
+        return symbolCount;
+    }
+
+    @Override
+    public int encode(byte[] bits, int bitCount, byte[] symbols) {
+        int level = -1;
+        for (int i = 0; i < bitCount; i++) {
+            if (LineCodes.bit(bits, i) == 1) {
+                level = -level;
+            }
+            symbols[i] = (byte) level;
+        }
+        return bitCount;
+    }
+
+    @Override
+    public int decode(byte[] symbols, int symbolCount, byte[] bits) {
+        int previous = -1;
+        for (int i = 0; i < symbolCount; i++) {
+            if (symbols[i] != previous) {
+                LineCodes.setBit(bits, i);
+            }
+            previous = symbols[i];
+        }
+        return symbolCount;
+    }
+
+    @Override
+    public int countViolations(byte[] symbols, int symbolCount) {
+        // Qualquer sequência de ±V é válida; só o nível 0V é erro
+        int violations = 0;
+        for (int i = 0; i < symbolCount; i++) {
+            if (symbols[i] == 0) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,22 @@
+package com.telecomunicacoes.ami.codec.line;
+
+/**
+ * AMI Pseudoternário: bit 1 = 0V, bit 0 = pulso alternado (+V, -V)
+ * Mesmas regras de AMIPseudoternary, sobre buffers empacotados
+ */
+public class PseudoternaryCode extends AlternateMarkCode {
+
+    public PseudoternaryCode() {
+        super(0);
+    }
+
+    @Override
+    public String getId() {
+        return "pseudoternary";
+    }
+
+    @Override
+    public String getName() {
+        return "AMI Pseudoternário";
+    }
+}
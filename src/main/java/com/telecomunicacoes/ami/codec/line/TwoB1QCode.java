@@ -0,0 +1,96 @@
+package com.telecomunicacoes.ami.codec.line;
+
+/**
+ * 2B1Q (dois bits, um símbolo quaternário)
+ *
+ * REGRAS:
+ * - Cada par de bits vira um de quatro níveis:
+ *   00 → -3, 01 → -1, 10 → +3, 11 → +1
+ *   (primeiro bit = sinal, segundo bit = magnitude)
+ * - Quantidade ímpar de bits é completada com um bit 0
+ *
+ * Reduz a taxa de símbolos à metade da taxa de bits.
+ */
+public class TwoB1QCode implements LineCode {
+
+    private static final int[] LEVELS = {-3, -1, 1, 3};
+
+    // Nível por par de bits (índice = primeiro·2 + segundo)
+    private static final byte[] LEVEL_BY_PAIR = {-3, -1, 3, 1};
+
+    @Override
+    public String getId() {
+        return "2b1q";
+    }
+
+    @Override
+    public String getName() {
+        return "2B1Q";
+    }
+
+    @Override
+    public int[] getLevels() {
+        return LEVELS;
+    }
+
+    @Override
+    public boolean isValidLevel(int level) {
+        return level == -3 || level == -1 || level == 1 || level == 3;
+    }
+
+    @Override
+    public int getSymbolCount(int bitCount) {
+        return (bitCount + 1) / 2;
+    }
+
+    @Override
+    public int getBitCount(int symbolCount) {
+        return symbolCount * 2;
+    }
+
+    @Override
+    public int encode(byte[] bits, int bitCount, byte[] symbols) {
+        int symbolCount = getSymbolCount(bitCount);
+        int fullBytes = bitCount >> 3;
+        for (int i = 0; i < fullBytes; i++) {
+            int value = bits[i] & 0xFF;
+            int base = i * 4;
+            symbols[base] = LEVEL_BY_PAIR[(value >> 6) & 3];
+            symbols[base + 1] = LEVEL_BY_PAIR[(value >> 4) & 3];
+            symbols[base + 2] = LEVEL_BY_PAIR[(value >> 2) & 3];
+            symbols[base + 3] = LEVEL_BY_PAIR[value & 3];
+        }
+        for (int s = fullBytes * 4; s < symbolCount; s++) {
+            int first = LineCodes.bit(bits, 2 * s);
+            int second = 2 * s + 1 < bitCount ? LineCodes.bit(bits, 2 * s + 1) : 0;
+            symbols[s] = LEVEL_BY_PAIR[first * 2 + second];
+        }
+        return symbolCount;
+    }
+
+    @Override
+    public int decode(byte[] symbols, int symbolCount, byte[] bits) {
+        for (int s = 0; s < symbolCount; s++) {
+            int level = symbols[s];
+            // Sinal → primeiro bit; magnitude 1 → segundo bit
+            if (level > 0) {
+                LineCodes.setBit(bits, 2 * s);
+            }
+            if (level == 1 || level == -1) {
+                LineCodes.setBit(bits, 2 * s + 1);
+            }
+        }
+        return symbolCount * 2;
+    }
+
+    @Override
+    public int countViolations(byte[] symbols, int symbolCount) {
+        int violations = 0;
+        for (int i = 0; i < symbolCount; i++) {
+            if (!isValidLevel(symbols[i])) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+}
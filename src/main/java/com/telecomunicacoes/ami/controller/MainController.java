@@ -1,15 +1,15 @@
 package com.telecomunicacoes.ami.controller;
 
 import com.telecomunicacoes.ami.codec.*;
+import com.telecomunicacoes.ami.codec.line.LineCode;
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+import com.telecomunicacoes.ami.gui.EventLog;
 import javafx.fxml.FXML;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
 import javafx.scene.paint.Color;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-
 public class MainController {
 
     @FXML private TextField inputField;
@@ -19,14 +19,18 @@ public class MainController {
     @FXML private CheckBox encryptCheckBox;
 
     private int[] currentSignal;
+    private EventLog eventLog;
     private final Encryption encryption = new Encryption();
-    private final AMIPseudoternary amiCodec = new AMIPseudoternary();
+    private LineCode lineCode = LineCodes.getDefault();
 
     @FXML
     public void initialize() {
         // Verificar se componentes foram injetados
         if (logArea == null) {
             System.err.println("ERRO: logArea não foi injetado!");
+        } else {
+            eventLog = new EventLog(logArea);
+            eventLog.start();
         }
         if (waveformCanvas == null) {
             System.err.println("ERRO: waveformCanvas não foi injetado!");
@@ -70,9 +74,9 @@ public class MainController {
             String binary = BinaryConverter.textToBinary(toEncode);
             addLog("Convertido para binário: " + binary.length() + " bits");
 
-            // Codificar em AMI
-            currentSignal = amiCodec.encode(binary);
-            addLog("Sinal AMI gerado: " + currentSignal.length + " símbolos");
+            // Codificar com o código de linha
+            currentSignal = lineCode.encode(binary);
+            addLog("Sinal " + lineCode.getName() + " gerado: " + currentSignal.length + " símbolos");
 
             // Exibir resultado
             signalField.setText(formatSignal(currentSignal));
@@ -96,8 +100,8 @@ public class MainController {
 
             addLog("Iniciando decodificação...");
 
-            // Decodificar AMI
-            String binary = amiCodec.decode(currentSignal);
+            // Decodificar o código de linha
+            String binary = lineCode.decode(currentSignal);
             addLog("Binário recuperado: " + binary.length() + " bits");
 
             // Converter para texto
@@ -118,9 +122,17 @@ public class MainController {
         }
     }
 
+    /**
+     * Define o código de linha usado em handleEncode/handleDecode
+     * @param lineCode Código de linha
+     */
+    public void setLineCode(LineCode lineCode) {
+        this.lineCode = lineCode;
+    }
+
     @FXML
     private void handleClearLogs() {
-        logArea.clear();
+        eventLog.clear();
         addLog("Logs limpos");
     }
 
@@ -199,11 +211,8 @@ public class MainController {
     }
 
     private void addLog(String message) {
-        if (logArea != null) {
-            String timestamp = LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-            String logEntry = String.format("[%s] %s\n", timestamp, message);
-            logArea.appendText(logEntry);
-            logArea.setScrollTop(Double.MAX_VALUE);
+        if (eventLog != null) {
+            eventLog.append(message);
         }
     }
 
@@ -0,0 +1,96 @@
+package com.telecomunicacoes.ami.dsp;
+
+/**
+ * Formato de pulso usado na síntese da forma de onda
+ *
+ * - Retangular: nível constante durante todo o símbolo (NRZ)
+ * - Cosseno levantado: pulso suave, sem interferência entre símbolos
+ *   no instante central, com banda limitada a (1 + rolloff) / 2T
+ */
+public class PulseShape {
+
+    private final String name;
+    private final double rolloff;
+    private final int spanSymbols;
+
+    private PulseShape(String name, double rolloff, int spanSymbols) {
+        this.name = name;
+        this.rolloff = rolloff;
+        this.spanSymbols = spanSymbols;
+    }
+
+    /**
+     * Pulso retangular (um símbolo de duração)
+     * @return Formato retangular
+     */
+    public static PulseShape rectangular() {
+        return new PulseShape("retangular", 0, 1);
+    }
+
+    /**
+     * Pulso cosseno levantado
+     * @param rolloff Fator de excesso de banda (0 a 1)
+     * @param spanSymbols Duração do filtro em símbolos (par)
+     * @return Formato cosseno levantado
+     */
+    public static PulseShape raisedCosine(double rolloff, int spanSymbols) {
+        if (rolloff < 0 || rolloff > 1) {
+            throw new IllegalArgumentException("Rolloff deve estar entre 0 e 1");
+        }
+        if (spanSymbols < 2 || spanSymbols % 2 != 0) {
+            throw new IllegalArgumentException("Duração do filtro deve ser par e maior ou igual a 2");
+        }
+        return new PulseShape("cosseno levantado", rolloff, spanSymbols);
+    }
+
+    public boolean isRectangular() {
+        return rolloff == 0 && spanSymbols == 1;
+    }
+
+    /**
+     * Duração do filtro em símbolos
+     * @return Número de símbolos cobertos pela resposta ao impulso
+     */
+    public int getSpanSymbols() {
+        return spanSymbols;
+    }
+
+    /**
+     * Calcula os coeficientes do filtro (resposta ao impulso)
+     * @param samplesPerSymbol Amostras por símbolo
+     * @return Coeficientes, com pico 1 no centro
+     */
+    public float[] taps(int samplesPerSymbol) {
+        if (isRectangular()) {
+            float[] taps = new float[samplesPerSymbol];
+            java.util.Arrays.fill(taps, 1f);
+            return taps;
+        }
+
+        int length = spanSymbols * samplesPerSymbol + 1;
+        int center = length / 2;
+        float[] taps = new float[length];
+
+        for (int i = 0; i < length; i++) {
+            double t = (double) (i - center) / samplesPerSymbol; // em períodos de símbolo
+            taps[i] = (float) raisedCosine(t);
+        }
+        return taps;
+    }
+
+    private double raisedCosine(double t) {
+        double sinc = t == 0 ? 1.0 : Math.sin(Math.PI * t) / (Math.PI * t);
+        double denominator = 1 - 4 * rolloff * rolloff * t * t;
+
+        // Singularidade em t = ±1/(2·rolloff): limite analítico
+        if (Math.abs(denominator) < 1e-9) {
+            return (Math.PI / 4) * sinc;
+        }
+        return sinc * Math.cos(Math.PI * rolloff * t) / denominator;
+    }
+
+    @Override
+    public String toString() {
+        return isRectangular() ? name : String.format("%s (rolloff=%.2f, %d símbolos)", name, rolloff, spanSymbols);
+    }
+}
@@ -0,0 +1,141 @@
+package com.telecomunicacoes.ami.dsp;
+
+import java.util.Arrays;
+
+/**
+ * Receptor da forma de onda AMI: recuperação de relógio e decisão por limiar
+ *
+ * FUNCIONAMENTO:
+ * 1. As amostras chegam em blocos de qualquer tamanho (streaming)
+ * 2. A cada período de símbolo, a amostra no instante de decisão é
+ *    comparada com os limiares ±threshold: acima → +1, abaixo → -1,
+ *    entre eles → 0
+ * 3. Recuperação de relógio early-late: em símbolos com pulso, compara
+ *    |x| meia janela antes e depois do instante de decisão; se a
+ *    amostra tardia for maior, o pico está mais adiante e o instante é
+ *    atrasado em uma amostra (e vice-versa). Um acumulador com
+ *    esquecimento filtra o erro: só um desvio persistente move o relógio,
+ *    e o ruído (média zero) não o faz derivar
+ *
+ * A decisão é tomada com atraso de meia janela (precisa da amostra
+ * tardia). Não é thread-safe: use uma instância por fluxo.
+ */
+public class WaveformReceiver {
+
+    // Erro acumulado (em amplitudes de pico) necessário para mover o instante de decisão
+    private static final float LOOP_THRESHOLD = 4f;
+    // Fator de esquecimento do acumulador (constante de tempo de ~16 pulsos)
+    private static final float LOOP_LEAK = 1f - 1f / 16;
+
+    private final int samplesPerSymbol;
+    private final float threshold;
+    private final int gate;
+
+    // Histórico circular com as últimas 2·gate + 1 amostras
+    private final float[] window;
+    private int windowPos;
+
+    // Amostras até o próximo instante de decisão (contando o atraso da janela)
+    private int countdown;
+    private float loopError;
+
+    private long symbolCount;
+    private long adjustments;
+
+    /**
+     * @param samplesPerSymbol Amostras por símbolo
+     * @param firstPeakSample Posição do pico do primeiro símbolo (WaveformSynthesizer.getDelaySamples())
+     * @param threshold Limiar de decisão (normalmente metade da amplitude)
+     */
+    public WaveformReceiver(int samplesPerSymbol, int firstPeakSample, float threshold) {
+        if (samplesPerSymbol < 2) {
+            throw new IllegalArgumentException("Recuperação de relógio precisa de pelo menos 2 amostras por símbolo");
+        }
+        this.samplesPerSymbol = samplesPerSymbol;
+        this.threshold = threshold;
+        this.gate = Math.max(1, samplesPerSymbol / 4);
+        this.window = new float[2 * gate + 1];
+        this.countdown = firstPeakSample + gate + 1;
+    }
+
+    public WaveformReceiver(int samplesPerSymbol, int firstPeakSample) {
+        this(samplesPerSymbol, firstPeakSample, 0.5f);
+    }
+
+    /**
+     * Processa um bloco de amostras
+     * @param samples Amostras recebidas
+     * @param offset Posição inicial
+     * @param length Quantidade de amostras
+     * @param symbols Destino dos símbolos decididos
+     * @param symbolOffset Posição inicial em symbols
+     * @return Número de símbolos decididos neste bloco
+     */
+    public int process(float[] samples, int offset, int length, int[] symbols, int symbolOffset) {
+        int out = symbolOffset;
+        int windowLength = window.length;
+
+        for (int i = offset; i < offset + length; i++) {
+            window[windowPos] = samples[i];
+            windowPos = windowPos + 1 == windowLength ? 0 : windowPos + 1;
+
+            if (--countdown > 0) {
+                continue;
+            }
+
+            // windowPos aponta para a amostra mais antiga (early)
+            float early = window[windowPos];
+            int centerPos = windowPos + gate;
+            float center = window[centerPos >= windowLength ? centerPos - windowLength : centerPos];
+            float late = samples[i];
+
+            int symbol = center > threshold ? 1 : (center < -threshold ? -1 : 0);
+            symbols[out++] = symbol;
+            symbolCount++;
+
+            countdown = samplesPerSymbol;
+            if (symbol != 0) {
+                // Normalizado pela amplitude estimada (2 × limiar)
+                loopError = loopError * LOOP_LEAK + (Math.abs(late) - Math.abs(early)) / (2 * threshold);
+                if (loopError >= LOOP_THRESHOLD) {
+                    countdown++;
+                    loopError = 0;
+                    adjustments++;
+                } else if (loopError <= -LOOP_THRESHOLD) {
+                    countdown--;
+                    loopError = 0;
+                    adjustments++;
+                }
+            }
+        }
+        return out - symbolOffset;
+    }
+
+    /**
+     * Processa uma forma de onda completa
+     * @param samples Amostras recebidas
+     * @return Símbolos decididos (pode incluir zeros da cauda do filtro)
+     */
+    public int[] process(float[] samples) {
+        // O relógio pode adiantar no máximo uma amostra por símbolo
+        int[] symbols = new int[samples.length / (samplesPerSymbol - 1) + 1];
+        int count = process(samples, 0, samples.length, symbols, 0);
+        return Arrays.copyOf(symbols, count);
+    }
+
+    /**
+     * Número de símbolos decididos desde a criação
+     * @return Total de símbolos
+     */
+    public long getSymbolCount() {
+        return symbolCount;
+    }
+
+    /**
+     * Número de correções do instante de decisão feitas pela recuperação de relógio
+     * @return Total de ajustes
+     */
+    public long getClockAdjustments() {
+        return adjustments;
+    }
+}
@@ -0,0 +1,196 @@
+package com.telecomunicacoes.ami.dsp;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Síntese da forma de onda analógica do sinal AMI
+ *
+ * FUNCIONAMENTO:
+ * 1. Cada símbolo (-1, 0, +1) vira samplesPerSymbol amostras
+ * 2. O formato do pulso é aplicado por um filtro FIR em streaming,
+ *    na forma polifásica: a amostra de fase p de um símbolo é a soma
+ *    de (span + 1) símbolos recentes ponderados pelos coeficientes
+ *    h[p + j·sps], sem multiplicar pelos zeros da sobreamostragem
+ * 3. O histórico de símbolos é mantido entre chamadas, então um sinal
+ *    longo pode ser gerado em blocos; flush() emite a cauda do filtro
+ *
+ * Com pulso retangular o filtro é dispensado (cada símbolo é apenas
+ * repetido). Não é thread-safe: use uma instância por fluxo.
+ */
+public class WaveformSynthesizer {
+
+    private final int samplesPerSymbol;
+    private final PulseShape shape;
+    private final float amplitude;
+
+    // coefficients[p][k] = h[p + (L-1-k)·sps]: fase p, do símbolo mais antigo
+    // (k = 0) ao mais recente (k = L-1), na ordem em que estão no histórico
+    private final float[][] coefficients;
+    private final int historyLength;
+
+    // Histórico circular dos últimos L símbolos (já multiplicados pela
+    // amplitude), gravado duas vezes para que a janela seja sempre contígua
+    private final float[] history;
+    private int historyPos;
+
+    /**
+     * @param samplesPerSymbol Amostras por símbolo
+     * @param shape Formato do pulso
+     * @param amplitude Amplitude de pico (V)
+     */
+    public WaveformSynthesizer(int samplesPerSymbol, PulseShape shape, float amplitude) {
+        if (samplesPerSymbol <= 0) {
+            throw new IllegalArgumentException("Amostras por símbolo deve ser positivo");
+        }
+        this.samplesPerSymbol = samplesPerSymbol;
+        this.shape = shape;
+        this.amplitude = amplitude;
+
+        float[] taps = shape.taps(samplesPerSymbol);
+        this.historyLength = (taps.length + samplesPerSymbol - 1) / samplesPerSymbol;
+        this.coefficients = new float[samplesPerSymbol][historyLength];
+        for (int p = 0; p < samplesPerSymbol; p++) {
+            for (int j = 0; j < historyLength; j++) {
+                int tap = p + (historyLength - 1 - j) * samplesPerSymbol;
+                coefficients[p][j] = tap < taps.length ? taps[tap] : 0f;
+            }
+        }
+        this.history = new float[2 * historyLength];
+    }
+
+    public WaveformSynthesizer(int samplesPerSymbol, PulseShape shape) {
+        this(samplesPerSymbol, shape, 1f);
+    }
+
+    /**
+     * Atraso entre o símbolo de entrada e o pico do pulso na saída
+     * @return Atraso em amostras (usado pelo receptor para o primeiro instante de amostragem)
+     */
+    public int getDelaySamples() {
+        if (shape.isRectangular()) {
+            return samplesPerSymbol / 2;
+        }
+        return shape.getSpanSymbols() * samplesPerSymbol / 2;
+    }
+
+    /**
+     * Número de amostras extras emitidas por flush()
+     * @return Amostras da cauda do filtro
+     */
+    public int getTailSamples() {
+        return (historyLength - 1) * samplesPerSymbol;
+    }
+
+    public int getSamplesPerSymbol() {
+        return samplesPerSymbol;
+    }
+
+    /**
+     * Gera as amostras de um bloco de símbolos
+     * @param symbols Símbolos (-1, 0, +1)
+     * @param offset Posição inicial em symbols
+     * @param length Quantidade de símbolos
+     * @param out Destino (precisa de length × samplesPerSymbol posições)
+     * @param outOffset Posição inicial em out
+     * @return Número de amostras escritas
+     */
+    public int render(int[] symbols, int offset, int length, float[] out, int outOffset) {
+        int pos = outOffset;
+        if (historyLength == 1) {
+            // Pulso retangular: repetição simples
+            for (int i = offset; i < offset + length; i++) {
+                Arrays.fill(out, pos, pos + samplesPerSymbol, symbols[i] * amplitude);
+                pos += samplesPerSymbol;
+            }
+            return pos - outOffset;
+        }
+
+        for (int i = offset; i < offset + length; i++) {
+            pos = push(symbols[i] * amplitude, out, pos);
+        }
+        return pos - outOffset;
+    }
+
+    /**
+     * Gera as amostras de um bloco de símbolos em um FloatBuffer
+     * @param symbols Símbolos (-1, 0, +1)
+     * @param out Destino (precisa de symbols.length × samplesPerSymbol posições livres)
+     * @return Número de amostras escritas
+     */
+    public int render(int[] symbols, FloatBuffer out) {
+        if (out.hasArray()) {
+            int written = render(symbols, 0, symbols.length, out.array(), out.arrayOffset() + out.position());
+            out.position(out.position() + written);
+            return written;
+        }
+        float[] block = new float[Math.min(symbols.length, 4096) * samplesPerSymbol];
+        int written = 0;
+        for (int i = 0; i < symbols.length; i += 4096) {
+            int n = Math.min(4096, symbols.length - i);
+            int samples = render(symbols, i, n, block, 0);
+            out.put(block, 0, samples);
+            written += samples;
+        }
+        return written;
+    }
+
+    /**
+     * Esvazia o filtro, emitindo a cauda do último pulso
+     * @param out Destino (precisa de getTailSamples() posições)
+     * @param outOffset Posição inicial em out
+     * @return Número de amostras escritas
+     */
+    public int flush(float[] out, int outOffset) {
+        int pos = outOffset;
+        for (int i = 1; i < historyLength; i++) {
+            pos = push(0f, out, pos);
+        }
+        return pos - outOffset;
+    }
+
+    /**
+     * Gera a forma de onda completa de um sinal (com a cauda do filtro)
+     * @param symbols Símbolos (-1, 0, +1)
+     * @return Amostras; o pico do símbolo i está em i × sps + getDelaySamples()
+     */
+    public float[] render(int[] symbols) {
+        float[] out = new float[symbols.length * samplesPerSymbol + getTailSamples()];
+        int written = render(symbols, 0, symbols.length, out, 0);
+        flush(out, written);
+        return out;
+    }
+
+    /**
+     * Insere um símbolo no histórico e calcula suas sps amostras de saída
+     */
+    private int push(float symbol, float[] out, int pos) {
+        history[historyPos] = symbol;
+        history[historyPos + historyLength] = symbol;
+        // Janela [base, base + L): do símbolo mais antigo ao recém-inserido
+        int base = historyPos + 1;
+        for (int p = 0; p < samplesPerSymbol; p++) {
+            float[] c = coefficients[p];
+            float acc = 0f;
+            for (int k = 0; k < historyLength; k++) {
+                acc += c[k] * history[base + k];
+            }
+            out[pos++] = acc;
+        }
+        historyPos = historyPos + 1 == historyLength ? 0 : historyPos + 1;
+        return pos;
+    }
+
+    /**
+     * Reinicia o histórico (novo fluxo de símbolos)
+     */
+    public void reset() {
+        Arrays.fill(history, 0f);
+        historyPos = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d amostras/símbolo, pulso %s", samplesPerSymbol, shape);
+    }
+}
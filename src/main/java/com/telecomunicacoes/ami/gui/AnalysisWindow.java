@@ -0,0 +1,129 @@
+package com.telecomunicacoes.ami.gui;
+
+import com.telecomunicacoes.ami.analysis.SignalAnalyzer;
+import com.telecomunicacoes.ami.codec.line.LineCode;
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.util.SplittableRandom;
+
+/**
+ * Janela de análise do código de linha
+ *
+ * FUNCIONAMENTO:
+ * - Mostra espectro (Welch), disparidade acumulada e estatísticas do
+ *   sinal atual
+ * - "Analisar tráfego aleatório" codifica N bits aleatórios em blocos
+ *   em uma thread de fundo; a memória usada não depende de N
+ */
+public class AnalysisWindow {
+
+    private static final int BLOCK_BITS = 65536;
+
+    private final Stage stage = new Stage();
+    private final SpectrumChart spectrumChart = new SpectrumChart(760, 260);
+    private final DisparityChart disparityChart = new DisparityChart(760, 200);
+    private final TextArea txtReport = new TextArea();
+    private final TextField txtSymbols = new TextField("1000000");
+    private final Button btnRandom = new Button("🎲 Analisar tráfego aleatório");
+    private LineCode lineCode = LineCodes.getDefault();
+
+    /**
+     * @param owner Janela principal
+     * @param title Título da janela
+     */
+    public AnalysisWindow(Window owner, String title) {
+        stage.initOwner(owner);
+        stage.setTitle(title);
+
+        txtReport.setEditable(false);
+        txtReport.setPrefRowCount(5);
+        txtReport.setStyle("-fx-font-family: monospace; -fx-font-size: 11;");
+
+        txtSymbols.setPrefWidth(120);
+        btnRandom.setOnAction(e -> analyzeRandomTraffic());
+
+        HBox randomBox = new HBox(10, new Label("Símbolos:"), txtSymbols, btnRandom);
+        randomBox.setAlignment(Pos.CENTER_LEFT);
+
+        VBox root = new VBox(10, spectrumChart, disparityChart, txtReport, randomBox);
+        root.setPadding(new Insets(10));
+        stage.setScene(new Scene(root));
+    }
+
+    /**
+     * Analisa um sinal e exibe a janela
+     * @param signal Níveis do sinal
+     * @param lineCode Código que gerou o sinal (usado também no tráfego aleatório)
+     */
+    public void show(int[] signal, LineCode lineCode) {
+        this.lineCode = lineCode;
+        btnRandom.setText("🎲 Analisar tráfego aleatório (" + lineCode.getName() + ")");
+        // Segmento limitado ao tamanho do sinal para que sinais curtos tenham espectro
+        int segment = Math.max(16, Math.min(256, Integer.highestOneBit(Math.max(1, signal.length))));
+        SignalAnalyzer analyzer = new SignalAnalyzer(segment);
+        analyzer.update(signal);
+        showResult(analyzer);
+        stage.show();
+        stage.toFront();
+    }
+
+    /**
+     * Codifica e analisa tráfego aleatório em segundo plano
+     */
+    private void analyzeRandomTraffic() {
+        long symbols;
+        try {
+            symbols = Long.parseLong(txtSymbols.getText().trim());
+            if (symbols <= 0) {
+                throw new NumberFormatException();
+            }
+        } catch (NumberFormatException e) {
+            txtReport.setText("Número de símbolos inválido");
+            return;
+        }
+
+        btnRandom.setDisable(true);
+        txtReport.setText("Analisando " + symbols + " símbolos...");
+
+        LineCode code = lineCode;
+        Thread worker = new Thread(() -> {
+            SignalAnalyzer analyzer = new SignalAnalyzer(1024);
+            SplittableRandom random = new SplittableRandom();
+            char[] bits = new char[BLOCK_BITS];
+
+            for (long done = 0; done < symbols; done += BLOCK_BITS) {
+                int size = (int) Math.min(BLOCK_BITS, symbols - done);
+                for (int i = 0; i < size; i++) {
+                    bits[i] = random.nextBoolean() ? '1' : '0';
+                }
+                analyzer.update(code.encode(new String(bits, 0, size)));
+            }
+
+            Platform.runLater(() -> {
+                showResult(analyzer);
+                btnRandom.setDisable(false);
+            });
+        }, "analysis-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void showResult(SignalAnalyzer analyzer) {
+        spectrumChart.setSpectrum(analyzer.getPsd());
+        disparityChart.setTrace(analyzer.getDisparityTrace(), analyzer.getTraceStride());
+        txtReport.setText(analyzer.report());
+    }
+}
@@ -0,0 +1,101 @@
+package com.telecomunicacoes.ami.gui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Componente para desenhar a disparidade acumulada (equilíbrio DC) ao longo do sinal
+ * Recebe o traço dizimado do SignalAnalyzer (um ponto a cada "stride" símbolos)
+ */
+public class DisparityChart extends Canvas {
+
+    private static final double PADDING = 40;
+
+    private long[] trace;
+    private long stride = 1;
+
+    public DisparityChart(double width, double height) {
+        super(width, height);
+        draw();
+    }
+
+    /**
+     * Atualiza o traço exibido
+     * @param trace Disparidade acumulada por ponto
+     * @param stride Símbolos entre pontos consecutivos
+     */
+    public void setTrace(long[] trace, long stride) {
+        this.trace = trace;
+        this.stride = stride;
+        draw();
+    }
+
+    /**
+     * Desenha o traço (ou o gráfico vazio)
+     */
+    private void draw() {
+        GraphicsContext gc = getGraphicsContext2D();
+        double width = getWidth();
+        double height = getHeight();
+        double chartWidth = width - 2 * PADDING;
+        double chartHeight = height - 2 * PADDING;
+
+        gc.clearRect(0, 0, width, height);
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, width, height);
+        gc.setStroke(Color.LIGHTGRAY);
+        gc.strokeRect(0, 0, width, height);
+
+        if (trace == null || trace.length == 0) {
+            gc.setFill(Color.GRAY);
+            gc.fillText("Aguardando sinal...", width / 2 - 60, height / 2);
+            return;
+        }
+
+        long min = 0;
+        long max = 0;
+        for (long value : trace) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        // Escala simétrica em torno de zero
+        double limit = Math.max(1, Math.max(Math.abs(min), Math.abs(max)));
+        double centerY = PADDING + chartHeight / 2;
+
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        gc.strokeLine(PADDING, centerY, PADDING + chartWidth, centerY);
+        gc.setFill(Color.BLACK);
+        gc.fillText(String.format("+%.0f", limit), 5, PADDING + 4);
+        gc.fillText("0", 25, centerY + 4);
+        gc.fillText(String.format("-%.0f", limit), 5, PADDING + chartHeight + 4);
+
+        gc.setStroke(Color.DARKGREEN);
+        gc.setLineWidth(1.5);
+        double stepX = trace.length > 1 ? chartWidth / (trace.length - 1) : 0;
+        double prevX = PADDING;
+        double prevY = centerY - trace[0] / limit * chartHeight / 2;
+        for (int i = 1; i < trace.length; i++) {
+            double x = PADDING + i * stepX;
+            double y = centerY - trace[i] / limit * chartHeight / 2;
+            gc.strokeLine(prevX, prevY, x, y);
+            prevX = x;
+            prevY = y;
+        }
+
+        gc.setFill(Color.BLACK);
+        gc.fillText("Disparidade Acumulada (equilíbrio DC)", 10, 15);
+        gc.setFill(Color.DARKGRAY);
+        gc.fillText(String.format("Pontos: %d | 1 ponto a cada %d símbolos", trace.length, stride),
+                10, height - 5);
+    }
+
+    /**
+     * Limpa o gráfico
+     */
+    public void clear() {
+        this.trace = null;
+        draw();
+    }
+}
@@ -0,0 +1,312 @@
+package com.telecomunicacoes.ami.gui;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.TextArea;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log de eventos com atualização em lote da interface
+ *
+ * FUNCIONAMENTO:
+ * - Qualquer thread pode chamar append() sem tocar na interface
+ * - As linhas ficam pendentes e são aplicadas no TextArea no máximo
+ *   uma vez por frame (AnimationTimer), em um único appendText
+ * - Apenas as últimas maxLines linhas são mantidas (buffer circular);
+ *   as pendentes também: se a interface atrasar (ou antes de start()),
+ *   as mais antigas são descartadas e contadas
+ * - Opcionalmente, cada linha também vai, já em append(), para um arquivo
+ *   rotativo gravado por uma thread própria, fora da thread do JavaFX: o
+ *   arquivo recebe inclusive as linhas que a interface descarta. A fila do
+ *   arquivo também é limitada (MAX_QUEUED_LINES); o excesso é descartado e
+ *   avisado no próprio arquivo
+ */
+public class EventLog {
+
+    public static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static final int DEFAULT_MAX_LINES = 1000;
+
+    private final TextArea target;
+    private final int maxLines;
+
+    // Linhas visíveis (buffer circular) e linhas ainda não aplicadas na interface
+    private final ArrayDeque<String> recent;
+    private final ArrayDeque<String> pending;
+    private int displayedLines;
+    private long droppedLines;
+    private long reportedDrops;
+
+    private final AnimationTimer timer;
+    private RollingFile spill;
+
+    public EventLog(TextArea target) {
+        this(target, DEFAULT_MAX_LINES);
+    }
+
+    public EventLog(TextArea target, int maxLines) {
+        if (maxLines <= 0) {
+            throw new IllegalArgumentException("maxLines deve ser positivo");
+        }
+        this.target = target;
+        this.maxLines = maxLines;
+        this.recent = new ArrayDeque<>(maxLines);
+        this.pending = new ArrayDeque<>();
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Inicia as atualizações por frame (deve ser chamado na thread do JavaFX)
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Para as atualizações e fecha o arquivo de log, se houver
+     */
+    public void stop() {
+        timer.stop();
+        flush();
+        synchronized (this) {
+            if (spill != null) {
+                spill.close();
+            }
+        }
+    }
+
+    /**
+     * Habilita a gravação das linhas em arquivo rotativo
+     * @param file Arquivo de log (as rotações recebem sufixo .1, .2, ...)
+     * @param maxBytes Tamanho máximo de cada arquivo
+     * @param maxFiles Número de arquivos rotacionados mantidos
+     */
+    public synchronized void enableFileSpill(Path file, long maxBytes, int maxFiles) {
+        if (spill != null) {
+            spill.close();
+        }
+        spill = new RollingFile(file, maxBytes, maxFiles);
+    }
+
+    /**
+     * Adiciona uma linha ao log (seguro para qualquer thread)
+     * @param message Mensagem
+     */
+    public void append(String message) {
+        String line = "[" + LocalTime.now().format(TIMESTAMP_FORMAT) + "] " + message;
+
+        synchronized (this) {
+            if (recent.size() == maxLines) {
+                recent.removeFirst();
+            }
+            recent.addLast(line);
+            if (pending.size() == maxLines) {
+                pending.removeFirst();
+                droppedLines++;
+            }
+            pending.addLast(line);
+            // Dentro do bloco: o arquivo recebe as linhas na mesma ordem da interface
+            if (spill != null) {
+                spill.write(line);
+            }
+        }
+    }
+
+    /**
+     * Linhas descartadas antes de chegar à interface
+     * @return Total de linhas pendentes descartadas
+     */
+    public synchronized long getDroppedLines() {
+        return droppedLines;
+    }
+
+    /**
+     * Limpa o log visível
+     */
+    public synchronized void clear() {
+        recent.clear();
+        pending.clear();
+        displayedLines = 0;
+        target.clear();
+    }
+
+    /**
+     * Aplica as linhas pendentes no TextArea (thread do JavaFX)
+     */
+    private void flush() {
+        List<String> batch;
+        String snapshot = null;
+
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.size() + 1);
+            if (droppedLines > reportedDrops) {
+                batch.add("[" + LocalTime.now().format(TIMESTAMP_FORMAT) + "] "
+                        + (droppedLines - reportedDrops) + " linha(s) de log descartada(s)");
+                reportedDrops = droppedLines;
+            }
+            batch.addAll(pending);
+            pending.clear();
+
+            // Se o limite seria ultrapassado, reconstrói a partir do buffer circular
+            if (displayedLines + batch.size() > maxLines) {
+                snapshot = String.join("\n", recent) + "\n";
+                displayedLines = recent.size();
+            } else {
+                displayedLines += batch.size();
+            }
+        }
+
+        if (snapshot != null) {
+            target.setText(snapshot);
+        } else {
+            StringBuilder sb = new StringBuilder();
+            for (String line : batch) {
+                sb.append(line).append('\n');
+            }
+            target.appendText(sb.toString());
+        }
+        target.setScrollTop(Double.MAX_VALUE);
+    }
+
+    /**
+     * Arquivo de log com rotação por tamanho, gravado em thread própria
+     * As linhas esperam em uma fila limitada; no executor há no máximo uma
+     * tarefa de gravação agendada, que esvazia a fila de uma vez
+     */
+    private static final class RollingFile {
+
+        private static final int NEWLINE_BYTES = System.lineSeparator().length();
+        private static final int MAX_QUEUED_LINES = 10_000;
+
+        private final Path file;
+        private final long maxBytes;
+        private final int maxFiles;
+        private final ExecutorService writer;
+        private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(MAX_QUEUED_LINES);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean closed;
+
+        // Acessados só pela thread de gravação
+        private final List<String> batch = new ArrayList<>();
+        private BufferedWriter out;
+        private long size;
+
+        RollingFile(Path file, long maxBytes, int maxFiles) {
+            this.file = file;
+            this.maxBytes = maxBytes;
+            this.maxFiles = Math.max(1, maxFiles);
+            this.writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "event-log-writer");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        /**
+         * Enfileira uma linha (não bloqueia: com a fila cheia, a linha é descartada)
+         */
+        void write(String line) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(line)) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                writer.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                scheduled.set(false);
+                writeQueued();
+            } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        private void writeQueued() {
+            queue.drainTo(batch);
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                batch.add("[" + LocalTime.now().format(TIMESTAMP_FORMAT) + "] "
+                        + lost + " linha(s) de log descartada(s) do arquivo");
+            }
+            try {
+                for (String line : batch) {
+                    if (out == null || size >= maxBytes) {
+                        rotate();
+                    }
+                    out.write(line);
+                    out.newLine();
+                    size += line.getBytes(StandardCharsets.UTF_8).length + NEWLINE_BYTES;
+                }
+                if (out != null) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao gravar log: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+
+        private void rotate() throws IOException {
+            if (out != null) {
+                out.close();
+                for (int i = maxFiles - 1; i >= 1; i--) {
+                    Path src = i == 1 ? file : file.resolveSibling(file.getFileName() + "." + (i - 1));
+                    Path dst = file.resolveSibling(file.getFileName() + "." + i);
+                    if (Files.exists(src)) {
+                        Files.move(src, dst, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.deleteIfExists(file);
+            }
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            size = Files.size(file);
+        }
+
+        void close() {
+            closed = true;
+            writer.execute(() -> {
+                writeQueued();
+                try {
+                    if (out != null) {
+                        out.close();
+                    }
+                } catch (IOException e) {
+                    System.err.println("Erro ao fechar log: " + e.getMessage());
+                }
+            });
+            writer.shutdown();
+        }
+    }
+}
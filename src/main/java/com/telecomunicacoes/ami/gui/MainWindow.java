@@ -3,9 +3,19 @@ package com.telecomunicacoes.ami.gui;
 import com.telecomunicacoes.ami.codec.AMIPseudoternary;
 import com.telecomunicacoes.ami.codec.BinaryConverter;
 import com.telecomunicacoes.ami.codec.Encryption;
+import com.telecomunicacoes.ami.codec.HammingCode;
+import com.telecomunicacoes.ami.codec.Scrambler;
+import com.telecomunicacoes.ami.codec.line.LineCode;
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+import com.telecomunicacoes.ami.metrics.MetricsHttpServer;
 import com.telecomunicacoes.ami.model.Message;
 import com.telecomunicacoes.ami.network.Client;
+import com.telecomunicacoes.ami.network.FileReceiver;
+import com.telecomunicacoes.ami.network.FileSender;
+import com.telecomunicacoes.ami.network.LoopbackTransport;
 import com.telecomunicacoes.ami.network.Server;
+import com.telecomunicacoes.ami.network.SignalCompression;
+import com.telecomunicacoes.ami.pipeline.MessagePipeline;
 
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -16,7 +26,12 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
+
+import java.io.File;
+import java.nio.file.Path;
 
 /**
  * Janela principal da aplicação
@@ -26,15 +41,24 @@ public class MainWindow {
 
     // Componentes principais
     private Encryption encryption;
-    private AMIPseudoternary ami;
+    private LineCode txLineCode;
+    private Scrambler txScrambler;
+    private boolean txFec;
     private Server server;
     private Client client;
+    private LoopbackTransport loopback;
+    private ReceptionProcessor receptionProcessor;
+    private MetricsHttpServer metricsServer;
 
     // Interface gráfica - Transmissão
     private TextArea txtOriginalTx;
     private TextArea txtEncryptedTx;
     private TextArea txtBinaryTx;
     private TextArea txtEncodedTx;
+    private ComboBox<LineCode> cmbLineCode;
+    private ComboBox<String> cmbScrambler;
+    private ComboBox<Encryption.Algorithm> cmbEncryption;
+    private CheckBox chkFec;
     private WaveformChart chartTx;
 
     // Interface gráfica - Recepção
@@ -47,21 +71,36 @@ public class MainWindow {
     // Controles
     private TextField txtServerIP;
     private TextField txtServerPort;
+    private ComboBox<String> cmbTransport;
     private Button btnStartServer;
     private Button btnStopServer;
     private Button btnSend;
+    private Button btnSendFile;
     private TextArea txtLog;
+    private EventLog eventLog;
+    private AnalysisWindow analysisWindow;
 
     private Stage primaryStage;
 
+    // Diretório onde o servidor grava os arquivos recebidos
+    private static final Path RECEIVED_FILES =
+            Path.of(System.getProperty("user.home"), "AMI-recebidos");
+
+    // Transportes de mensagens: rede (Client → Server) ou dentro do processo
+    private static final String TRANSPORT_TCP = "TCP";
+    private static final String TRANSPORT_LOOPBACK = "Em processo";
+
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage;
 
         // Inicializa componentes
         encryption = new Encryption();
-        ami = new AMIPseudoternary();
+        txLineCode = LineCodes.getDefault();
         server = new Server(5555);
+        server.setFileReceiver(new FileReceiver(RECEIVED_FILES, new MessagePipeline()));
         client = new Client();
+        loopback = new LoopbackTransport();
+        receptionProcessor = new ReceptionProcessor(new Encryption(), this::showReception, this::log);
 
         // Configura handlers
         setupHandlers();
@@ -79,8 +118,10 @@ public class MainWindow {
 
         // Log inicial
         log("✓ Aplicação iniciada");
-        log("Algoritmo: AMI Pseudoternário (Bit 1=0V, Bit 0=±V alternado)");
+        log("Algoritmo padrão: AMI Pseudoternário (Bit 1=0V, Bit 0=±V alternado)");
         log("Criptografia: XOR com chave");
+
+        startMetricsServer();
     }
 
     /**
@@ -150,11 +191,18 @@ public class MainWindow {
         btnSend = new Button("📤 Enviar Mensagem");
         btnSend.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-weight: bold;");
         btnSend.setOnAction(e -> sendMessage());
+        btnSendFile = new Button("📁 Enviar Arquivo");
+        btnSendFile.setOnAction(e -> sendFile());
+
+        cmbTransport = new ComboBox<>();
+        cmbTransport.getItems().addAll(TRANSPORT_TCP, TRANSPORT_LOOPBACK);
+        cmbTransport.setValue(TRANSPORT_TCP);
 
         clientConfig.getChildren().addAll(
                 new Label("Servidor Destino:"), txtServerIP,
                 new Label("Porta:"), new TextField("5555") {{ setPrefWidth(80); txtServerPort.textProperty().bindBidirectional(textProperty()); }},
-                btnSend
+                new Label("Transporte:"), cmbTransport,
+                btnSend, btnSendFile
         );
 
         panel.getChildren().addAll(
@@ -185,16 +233,62 @@ public class MainWindow {
         chartTx = new WaveformChart(660, 200);
         chartTx.setTitle("Forma de Onda - Transmissão");
 
+        cmbLineCode = new ComboBox<>();
+        cmbLineCode.getItems().addAll(LineCodes.all());
+        cmbLineCode.setValue(LineCodes.getDefault());
+        cmbLineCode.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(LineCode code) {
+                return code == null ? "" : code.getName();
+            }
+
+            @Override
+            public LineCode fromString(String name) {
+                return null;
+            }
+        });
+
+        cmbScrambler = new ComboBox<>();
+        cmbScrambler.getItems().add("none");
+        for (Scrambler scrambler : Scrambler.values()) {
+            cmbScrambler.getItems().add(scrambler.getId());
+        }
+        cmbScrambler.setValue("none");
+        cmbScrambler.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(String id) {
+                Scrambler scrambler = Scrambler.get(id);
+                return scrambler == null ? "Sem embaralhador" : scrambler.getPolynomial();
+            }
+
+            @Override
+            public String fromString(String name) {
+                return null;
+            }
+        });
+
+        chkFec = new CheckBox("FEC Hamming(8,4)");
+
+        cmbEncryption = new ComboBox<>();
+        cmbEncryption.getItems().addAll(Encryption.Algorithm.values());
+        cmbEncryption.setValue(Encryption.Algorithm.XOR);
+
         Button btnProcess = new Button("⚙ Processar Mensagem");
         btnProcess.setOnAction(e -> processTransmission());
 
+        Button btnAnalyze = new Button("📊 Analisar Sinal");
+        btnAnalyze.setOnAction(e -> showAnalysis());
+
+        HBox actions = new HBox(10, new Label("Código de linha:"), cmbLineCode, cmbScrambler, chkFec, cmbEncryption, btnProcess, btnAnalyze);
+        actions.setAlignment(Pos.CENTER_LEFT);
+
         panel.getChildren().addAll(
                 title,
                 new Label("1. Mensagem Original:"), txtOriginalTx,
                 new Label("2. Mensagem Criptografada:"), txtEncryptedTx,
                 new Label("3. Representação Binária:"), txtBinaryTx,
-                new Label("4. Sinal Codificado AMI:"), txtEncodedTx,
-                btnProcess,
+                new Label("4. Sinal Codificado:"), txtEncodedTx,
+                actions,
                 new Label("5. Forma de Onda:"), chartTx
         );
 
@@ -246,6 +340,13 @@ public class MainWindow {
         txtLog.setPrefHeight(120);
         txtLog.setStyle("-fx-font-family: monospace; -fx-font-size: 11;");
 
+        eventLog = new EventLog(txtLog);
+        String logFile = System.getProperty("ami.log.file");
+        if (logFile != null && !logFile.isBlank()) {
+            eventLog.enableFileSpill(Path.of(logFile), 10L * 1024 * 1024, 5);
+        }
+        eventLog.start();
+
         panel.getChildren().addAll(title, txtLog);
         return panel;
     }
@@ -273,14 +374,12 @@ public class MainWindow {
             if (!binaryInput.isEmpty() && binaryInput.matches("[01]+")) {
                 log("▶ Processando a partir de binário...");
 
-                // Codificação AMI direto do binário
-                int[] signal = ami.encode(binaryInput);
-                txtEncodedTx.setText(AMIPseudoternary.signalToString(signal) + "\n\n" +
-                        AMIPseudoternary.getSignalStatistics(signal));
-                log("  1. Codificado em AMI Pseudoternário");
+                // Codificação de linha direto do binário
+                int[] signal = encodeLine(binaryInput);
+                log("  1. Codificado em " + txLineCode.getName());
 
                 // Visualização
-                chartTx.setSignal(signal);
+                showTransmittedSignal(signal, binaryInput);
                 log("  2. Forma de onda gerada");
 
                 log("✓ Processamento concluído! Pronto para enviar.");
@@ -296,23 +395,22 @@ public class MainWindow {
             log("▶ Processando transmissão...");
 
             // 1. Criptografia
+            encryption.setAlgorithm(cmbEncryption.getValue());
             String encrypted = encryption.encrypt(original);
             txtEncryptedTx.setText(encrypted);
-            log("  1. Criptografia aplicada");
+            log("  1. Criptografia aplicada (" + encryption.getAlgorithm() + ")");
 
             // 2. Conversão para binário
             String binary = BinaryConverter.textToBinary(encrypted);
             txtBinaryTx.setText(BinaryConverter.formatBinary(binary));
             log("  2. Convertido para binário (" + binary.length() + " bits)");
 
-            // 3. Codificação AMI
-            int[] signal = ami.encode(binary);
-            txtEncodedTx.setText(AMIPseudoternary.signalToString(signal) + "\n\n" +
-                    AMIPseudoternary.getSignalStatistics(signal));
-            log("  3. Codificado em AMI Pseudoternário");
+            // 3. Codificação de linha
+            int[] signal = encodeLine(binary);
+            log("  3. Codificado em " + txLineCode.getName());
 
             // 4. Visualização
-            chartTx.setSignal(signal);
+            showTransmittedSignal(signal, binary);
             log("  4. Forma de onda gerada");
 
             log("✓ Processamento concluído! Pronto para enviar.");
@@ -324,6 +422,103 @@ public class MainWindow {
         }
     }
 
+    /**
+     * Embaralha e aplica FEC (se selecionados), codifica com o código de
+     * linha selecionado e mostra o sinal em texto
+     */
+    private int[] encodeLine(String binary) {
+        txLineCode = cmbLineCode.getValue();
+        txScrambler = Scrambler.get(cmbScrambler.getValue());
+        txFec = chkFec.isSelected();
+        int[] signal = txLineCode.encode(lineBits(binary));
+        txtEncodedTx.setText(AMIPseudoternary.signalToString(signal) + "\n\n" +
+                AMIPseudoternary.getSignalStatistics(signal));
+        return signal;
+    }
+
+    /**
+     * Desenha o sinal transmitido, com os bits sob os símbolos quando há um símbolo por bit
+     */
+    private void showTransmittedSignal(int[] signal, String binary) {
+        String line = lineBits(binary);
+        chartTx.setTitle("Forma de Onda - Transmissão (" + txLineCode.getName()
+                + (txScrambler != null ? ", " + txScrambler.getPolynomial() : "")
+                + (txFec ? ", FEC" : "") + ")");
+        chartTx.setSignal(signal, signal.length == line.length() ? line : null);
+    }
+
+    /**
+     * Bits efetivamente enviados ao código de linha (após o embaralhador e a FEC)
+     */
+    private String lineBits(String binary) {
+        String line = txScrambler != null ? txScrambler.scramble(binary) : binary;
+        return txFec ? HammingCode.encode(line) : line;
+    }
+
+    /**
+     * Abre a janela de análise (espectro e equilíbrio DC) do sinal transmitido
+     */
+    private void showAnalysis() {
+        int[] signal = chartTx.getSignal();
+        if (signal == null || signal.length == 0) {
+            showAlert("Erro", "Processe uma mensagem primeiro!");
+            return;
+        }
+        if (analysisWindow == null) {
+            analysisWindow = new AnalysisWindow(primaryStage, "Análise do Sinal AMI");
+        }
+        analysisWindow.show(signal, txLineCode);
+        log("📊 Análise do sinal: " + signal.length + " símbolos");
+    }
+
+    /**
+     * Envia um arquivo pela rede, em trechos, com o código de linha, o
+     * embaralhador, a FEC e a criptografia selecionados
+     */
+    private void sendFile() {
+        if (!server.isRunning()) {
+            showAlert("Servidor Não Iniciado", "Inicie o servidor antes de enviar um arquivo!");
+            return;
+        }
+        File file = new FileChooser().showOpenDialog(primaryStage);
+        if (file == null) {
+            return;
+        }
+
+        MessagePipeline pipeline = new MessagePipeline();
+        pipeline.setLineCode(cmbLineCode.getValue());
+        pipeline.setScrambler(Scrambler.get(cmbScrambler.getValue()));
+        pipeline.setFecEnabled(chkFec.isSelected());
+        pipeline.setEncryptionAlgorithm(cmbEncryption.getValue());
+
+        FileSender sender = new FileSender(txtServerIP.getText(), Integer.parseInt(txtServerPort.getText()), pipeline);
+        sender.setStatusHandler(this::log);
+        // Negociada com o servidor: sem suporte, os trechos seguem sem compressão
+        sender.setCompression(new SignalCompression());
+        btnSendFile.setDisable(true);
+        log("📁 Enviando arquivo " + file.getName() + " (" + file.length() + " bytes)...");
+
+        Thread thread = new Thread(() -> {
+            long[] lastDecile = {-1};
+            try {
+                sender.send(file.toPath(), (received, total) -> {
+                    long decile = total == 0 ? 10 : received * 10 / total;
+                    if (decile != lastDecile[0]) {
+                        lastDecile[0] = decile;
+                        log("  " + decile * 10 + "% (" + received + "/" + total + " bytes)");
+                    }
+                });
+                log("✓ Arquivo gravado pelo servidor em " + RECEIVED_FILES);
+            } catch (Exception e) {
+                log("✗ Erro ao enviar arquivo: " + e.getMessage() + " (enviar de novo retoma de onde parou)");
+            } finally {
+                Platform.runLater(() -> btnSendFile.setDisable(false));
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
     /**
      * Envia mensagem pela rede
      */
@@ -335,8 +530,9 @@ public class MainWindow {
                 return;
             }
 
-            // Verifica se o servidor está rodando
-            if (!server.isRunning()) {
+            // Verifica se o servidor está rodando (o transporte em processo dispensa)
+            boolean inProcess = TRANSPORT_LOOPBACK.equals(cmbTransport.getValue());
+            if (!inProcess && !server.isRunning()) {
                 showAlert("Servidor Não Iniciado",
                     "O servidor precisa estar rodando para receber mensagens.\n\n" +
                     "Clique em '▶ Iniciar Servidor' primeiro!");
@@ -348,8 +544,21 @@ public class MainWindow {
             Message message = new Message();
             message.setOriginalText(txtOriginalTx.getText());
             message.setEncryptedText(txtEncryptedTx.getText());
+            message.setEncryption(encryption.getAlgorithm() != Encryption.Algorithm.XOR
+                    ? encryption.getAlgorithm().getId() : null);
             message.setBinaryString(txtBinaryTx.getText().replaceAll("\\s", ""));
             message.setEncodedSignal(signal);
+            message.setLineCode(txLineCode.getId());
+            message.setScrambler(txScrambler != null ? txScrambler.getId() : null);
+            message.setFec(txFec ? HammingCode.ID : null);
+
+            if (inProcess) {
+                // Entrega direta ao receptor, sem socket nem JSON
+                loopback.start();
+                loopback.send(message);
+                log("📤 Mensagem entregue pelo transporte em processo");
+                return;
+            }
 
             // Configura cliente
             client.setServerAddress(txtServerIP.getText());
@@ -359,8 +568,8 @@ public class MainWindow {
             log("📤 Enviando mensagem...");
             client.sendMessage(
                     message,
-                    () -> Platform.runLater(() -> log("✓ Mensagem enviada com sucesso!")),
-                    error -> Platform.runLater(() -> log("✗ " + error))
+                    () -> log("✓ Mensagem enviada com sucesso!"),
+                    error -> log("✗ " + error)
             );
 
         } catch (Exception e) {
@@ -370,42 +579,31 @@ public class MainWindow {
     }
 
     /**
-     * Processa recepção de mensagem
+     * Processa recepção de mensagem (decodificação em segundo plano)
      */
     private void processReception(Message message) {
-        Platform.runLater(() -> {
-            try {
-                log("▶ Processando recepção...");
-
-                // 1. Sinal recebido
-                int[] signal = message.getEncodedSignal();
-                txtEncodedRx.setText(AMIPseudoternary.signalToString(signal) + "\n\n" +
-                        AMIPseudoternary.getSignalStatistics(signal));
-                chartRx.setSignal(signal);
-                log("  1. Sinal AMI recebido");
-
-                // 2. Decodificação AMI
-                String binary = ami.decode(signal);
-                txtBinaryRx.setText(BinaryConverter.formatBinary(binary));
-                log("  2. Decodificado de AMI para binário");
-
-                // 3. Conversão binário para texto
-                String encrypted = BinaryConverter.binaryToText(binary);
-                txtEncryptedRx.setText(encrypted);
-                log("  3. Convertido de binário para texto");
-
-                // 4. Descriptografia
-                String original = encryption.decrypt(encrypted);
-                txtOriginalRx.setText(original);
-                log("  4. Descriptografia aplicada");
-
-                log("✓ Mensagem recebida: \"" + original + "\"");
+        receptionProcessor.submit(message);
+    }
 
-            } catch (Exception e) {
-                log("✗ Erro na recepção: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+    /**
+     * Exibe o resultado da recepção (thread do JavaFX)
+     */
+    private void showReception(ReceptionProcessor.Result result) {
+        if (result.getSignalText() != null) {
+            txtEncodedRx.setText(result.getSignalText());
+            String binary = result.getBinary();
+            int[] signal = result.getSignal();
+            chartRx.setSignal(signal, binary != null && binary.length() == signal.length ? binary : null);
+        }
+        if (result.getBinaryText() != null) {
+            txtBinaryRx.setText(result.getBinaryText());
+        }
+        if (result.getEncryptedText() != null) {
+            txtEncryptedRx.setText(result.getEncryptedText());
+        }
+        if (result.getOriginalText() != null) {
+            txtOriginalRx.setText(result.getOriginalText());
+        }
     }
 
     /**
@@ -443,18 +641,15 @@ public class MainWindow {
         server.setMessageHandler(this::processReception);
         server.setStatusHandler(this::log);
         client.setStatusHandler(this::log);
+        loopback.setMessageHandler(this::processReception);
+        loopback.setStatusHandler(this::log);
     }
 
     /**
      * Adiciona mensagem ao log
      */
     private void log(String message) {
-        Platform.runLater(() -> {
-            String timestamp = java.time.LocalTime.now().format(
-                    java.time.format.DateTimeFormatter.ofPattern("HH:mm:ss")
-            );
-            txtLog.appendText("[" + timestamp + "] " + message + "\n");
-        });
+        eventLog.append(message);
     }
 
     /**
@@ -470,6 +665,23 @@ public class MainWindow {
         });
     }
 
+    /**
+     * Inicia o endpoint de métricas, se -Dami.metrics.port estiver definido
+     */
+    private void startMetricsServer() {
+        String port = System.getProperty("ami.metrics.port");
+        if (port == null || port.isBlank()) {
+            return;
+        }
+        try {
+            metricsServer = new MetricsHttpServer(Integer.parseInt(port));
+            metricsServer.start();
+            log("Métricas disponíveis em http://127.0.0.1:" + port + "/metrics");
+        } catch (Exception e) {
+            log("✗ Não foi possível iniciar o endpoint de métricas: " + e.getMessage());
+        }
+    }
+
     /**
      * Limpeza ao fechar
      */
@@ -477,6 +689,12 @@ public class MainWindow {
         if (server.isRunning()) {
             server.stop();
         }
+        loopback.stop();
+        receptionProcessor.shutdown();
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
         log("✓ Aplicação encerrada");
+        eventLog.stop();
     }
 }
\ No newline at end of file
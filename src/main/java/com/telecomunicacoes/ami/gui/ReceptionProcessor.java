@@ -0,0 +1,173 @@
+package com.telecomunicacoes.ami.gui;
+
+import com.telecomunicacoes.ami.codec.AMIPseudoternary;
+import com.telecomunicacoes.ami.codec.BinaryConverter;
+import com.telecomunicacoes.ami.codec.Encryption;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.pipeline.MessagePipeline;
+import javafx.application.Platform;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Processamento da recepção fora da thread do JavaFX
+ *
+ * FUNCIONAMENTO:
+ * 1. Cada mensagem recebida é decodificada em uma thread de trabalho
+ *    pelo MessagePipeline (código de linha → binário → texto → descriptografia),
+ *    gerando um Result
+ * 2. Apenas o Result final é publicado na thread do JavaFX
+ * 3. Se vários resultados chegam antes da interface consumi-los,
+ *    somente o mais recente é exibido (os anteriores são descartados)
+ */
+public class ReceptionProcessor {
+
+    /**
+     * Resultado da decodificação de uma mensagem
+     * Campos nulos indicam etapas não alcançadas (erro no meio do caminho)
+     */
+    public static final class Result {
+        private int[] signal;
+        private String signalText;
+        private String binary;
+        private String binaryText;
+        private String encryptedText;
+        private String originalText;
+        private String error;
+
+        public int[] getSignal() {
+            return signal;
+        }
+
+        public String getSignalText() {
+            return signalText;
+        }
+
+        /**
+         * Bits como saíram do código de linha (antes do desembaralhador), sem formatação
+         * @return String de 0s e 1s (null se a decodificação falhou)
+         */
+        public String getBinary() {
+            return binary;
+        }
+
+        public String getBinaryText() {
+            return binaryText;
+        }
+
+        public String getEncryptedText() {
+            return encryptedText;
+        }
+
+        public String getOriginalText() {
+            return originalText;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final MessagePipeline pipeline;
+    private final Consumer<Result> publisher;
+    private final Consumer<String> logger;
+    private final ExecutorService worker;
+
+    // Último resultado ainda não publicado (null se não há publicação pendente)
+    private final AtomicReference<Result> latest = new AtomicReference<>();
+
+    /**
+     * @param encryption Instância de criptografia usada na recepção
+     * @param publisher Aplica o resultado na interface (executado na thread do JavaFX)
+     * @param logger Log de eventos (chamado na thread de trabalho)
+     */
+    public ReceptionProcessor(Encryption encryption, Consumer<Result> publisher, Consumer<String> logger) {
+        this.pipeline = new MessagePipeline(encryption);
+        this.publisher = publisher;
+        this.logger = logger;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "reception-worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Enfileira uma mensagem para processamento (qualquer thread)
+     * @param message Mensagem recebida
+     */
+    public void submit(Message message) {
+        worker.execute(() -> publish(process(message)));
+    }
+
+    /**
+     * Executa as etapas de decodificação
+     * @param message Mensagem recebida
+     * @return Resultado (possivelmente parcial, em caso de erro)
+     */
+    private Result process(Message message) {
+        Result result = new Result();
+        try {
+            logger.accept("▶ Processando recepção...");
+
+            // 1. Sinal recebido
+            int[] signal = message.getEncodedSignal();
+            result.signal = signal;
+            result.signalText = AMIPseudoternary.signalToString(signal) + "\n\n" +
+                    AMIPseudoternary.getSignalStatistics(signal);
+            logger.accept("  1. Sinal recebido (código " + message.getLineCode()
+                    + (message.getScrambler() != null ? ", embaralhador " + message.getScrambler() : "") + ")");
+
+            // 2-4. Decodificação, conversão e descriptografia
+            MessagePipeline.Reception reception = pipeline.receive(message);
+
+            if (reception.getBinary() != null) {
+                result.binary = reception.getLineBinary();
+                result.binaryText = BinaryConverter.formatBinary(reception.getBinary());
+                logger.accept("  2. Decodificado para binário");
+            }
+            if (reception.getFecStatistics() != null) {
+                logger.accept("     FEC: " + reception.getFecStatistics());
+            }
+            if (reception.getEncryptedText() != null) {
+                result.encryptedText = reception.getEncryptedText();
+                logger.accept("  3. Convertido de binário para texto");
+            } else if (reception.getPayload() != null) {
+                logger.accept("  2-3. Carga em bytes crus (" + reception.getPayload().length + " bytes)");
+            }
+            if (!reception.isSuccess()) {
+                throw new IllegalStateException(reception.getError());
+            }
+
+            result.originalText = reception.getOriginalText();
+            logger.accept("  4. Descriptografia aplicada");
+
+            logger.accept("✓ Mensagem recebida: \"" + result.originalText + "\"");
+
+        } catch (Exception e) {
+            result.error = e.getMessage();
+            logger.accept("✗ Erro na recepção: " + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Publica o resultado, agrupando atualizações que chegam antes da interface
+     * @param result Resultado mais recente
+     */
+    private void publish(Result result) {
+        if (latest.getAndSet(result) == null) {
+            Platform.runLater(() -> publisher.accept(latest.getAndSet(null)));
+        }
+    }
+
+    /**
+     * Encerra a thread de trabalho
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,127 @@
+package com.telecomunicacoes.ami.gui;
+
+import com.telecomunicacoes.ami.analysis.SignalAnalyzer;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Componente para desenhar a densidade espectral de potência
+ * Eixo X: frequência normalizada pela taxa de símbolos (0 a 0,5)
+ * Eixo Y: densidade em dB (faixa de 40 dB abaixo do pico)
+ */
+public class SpectrumChart extends Canvas {
+
+    private static final double PADDING = 40;
+    private static final double RANGE_DB = 40;
+
+    private double[] psd;
+    private String title;
+
+    public SpectrumChart(double width, double height) {
+        super(width, height);
+        this.title = "Densidade Espectral de Potência";
+        drawEmpty();
+    }
+
+    /**
+     * Atualiza o espectro a ser exibido
+     * @param psd Densidade de f = 0 a f = 0,5 (linear)
+     */
+    public void setSpectrum(double[] psd) {
+        this.psd = psd;
+        draw();
+    }
+
+    /**
+     * Desenha o gráfico vazio
+     */
+    private void drawEmpty() {
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.clearRect(0, 0, getWidth(), getHeight());
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, getWidth(), getHeight());
+        gc.setStroke(Color.LIGHTGRAY);
+        gc.strokeRect(0, 0, getWidth(), getHeight());
+        gc.setFill(Color.GRAY);
+        gc.fillText("Sinal curto demais para o espectro", getWidth() / 2 - 100, getHeight() / 2);
+    }
+
+    /**
+     * Desenha o espectro
+     */
+    private void draw() {
+        if (psd == null || psd.length < 2) {
+            drawEmpty();
+            return;
+        }
+
+        GraphicsContext gc = getGraphicsContext2D();
+        double width = getWidth();
+        double height = getHeight();
+        double chartWidth = width - 2 * PADDING;
+        double chartHeight = height - 2 * PADDING;
+
+        gc.clearRect(0, 0, width, height);
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, width, height);
+
+        double[] db = new double[psd.length];
+        double top = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < psd.length; k++) {
+            db[k] = SignalAnalyzer.toDb(psd[k]);
+            top = Math.max(top, db[k]);
+        }
+        top = Math.ceil(top / 10) * 10;
+        double bottom = top - RANGE_DB;
+
+        // Grid e rótulos (10 dB por divisão, 0,1·Rs por divisão)
+        gc.setLineWidth(0.5);
+        for (int i = 0; i <= RANGE_DB / 10; i++) {
+            double y = PADDING + chartHeight * i * 10 / RANGE_DB;
+            gc.setStroke(Color.gray(0.8));
+            gc.strokeLine(PADDING, y, PADDING + chartWidth, y);
+            gc.setFill(Color.BLACK);
+            gc.fillText(String.format("%.0f", top - i * 10), 5, y + 4);
+        }
+        for (int i = 0; i <= 5; i++) {
+            double x = PADDING + chartWidth * i / 5;
+            gc.setStroke(Color.gray(0.8));
+            gc.strokeLine(x, PADDING, x, PADDING + chartHeight);
+            gc.setFill(Color.BLACK);
+            gc.fillText(String.format("%.1f", i * 0.1), x - 8, PADDING + chartHeight + 15);
+        }
+
+        // Curva
+        gc.setStroke(Color.BLUE);
+        gc.setLineWidth(1.5);
+        double stepX = chartWidth / (psd.length - 1);
+        double prevX = PADDING;
+        double prevY = toY(db[0], top, bottom, chartHeight);
+        for (int k = 1; k < psd.length; k++) {
+            double x = PADDING + k * stepX;
+            double y = toY(db[k], top, bottom, chartHeight);
+            gc.strokeLine(prevX, prevY, x, y);
+            prevX = x;
+            prevY = y;
+        }
+
+        gc.setFill(Color.BLACK);
+        gc.fillText(title + " (dB)", 10, 15);
+        gc.fillText("f / taxa de símbolos →", PADDING + chartWidth - 130, height - 5);
+    }
+
+    private static double toY(double db, double top, double bottom, double chartHeight) {
+        double clamped = Math.max(bottom, Math.min(top, db));
+        return PADDING + (top - clamped) / (top - bottom) * chartHeight;
+    }
+
+    /**
+     * Limpa o gráfico
+     */
+    public void clear() {
+        this.psd = null;
+        drawEmpty();
+    }
+}
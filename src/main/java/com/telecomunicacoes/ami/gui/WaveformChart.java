@@ -14,6 +14,8 @@ public class WaveformChart extends Canvas {
     private static final double GRID_COLOR_ALPHA = 0.2;
 
     private int[] signal;
+    private String bits;
+    private int maxLevel = 1;
     private String title;
 
     public WaveformChart(double width, double height) {
@@ -27,7 +29,24 @@ public class WaveformChart extends Canvas {
      * @param signal Array com níveis de tensão (-1, 0, +1)
      */
     public void setSignal(int[] signal) {
+        setSignal(signal, null);
+    }
+
+    /**
+     * Atualiza o sinal e os bits mostrados abaixo de cada símbolo
+     * @param signal Array com níveis de tensão
+     * @param bits Bits de origem, um por símbolo (null = deduzidos pelas
+     *             regras do AMI Pseudoternário)
+     */
+    public void setSignal(int[] signal, String bits) {
         this.signal = signal;
+        this.bits = bits;
+        this.maxLevel = 1;
+        if (signal != null) {
+            for (int level : signal) {
+                maxLevel = Math.max(maxLevel, Math.abs(level));
+            }
+        }
         draw();
     }
 
@@ -105,7 +124,8 @@ public class WaveformChart extends Canvas {
         gc.fillText(title, 10, 15);
 
         // Informações
-        String info = String.format("Elementos: %d | Níveis: +V, 0V, -V", signal.length);
+        String info = String.format("Elementos: %d | Níveis: %s", signal.length,
+                maxLevel > 1 ? "±" + maxLevel + "V, ±V" : "+V, 0V, -V");
         gc.setFill(Color.DARKGRAY);
         gc.fillText(info, 10, height - 10);
     }
@@ -146,9 +166,10 @@ public class WaveformChart extends Canvas {
 
         // Labels
         gc.setFill(Color.BLACK);
-        gc.fillText("+V", x - 25, centerY - h/4);
+        String peak = maxLevel > 1 ? maxLevel + "V" : "V";
+        gc.fillText("+" + peak, x - 30, centerY - h/4);
         gc.fillText("0V", x - 25, centerY + 5);
-        gc.fillText("-V", x - 25, centerY + h/4);
+        gc.fillText("-" + peak, x - 30, centerY + h/4);
 
         gc.fillText("Tempo →", x + w - 60, centerY + h/2 + 30);
     }
@@ -163,7 +184,7 @@ public class WaveformChart extends Canvas {
         gc.setLineWidth(2);
 
         double stepX = w / signal.length;
-        double amplitude = h / 4; // Espaço para cada nível
+        double amplitude = h / 4 / maxLevel; // Espaço para cada nível
 
         // Desenha linha conectando os pontos
         for (int i = 0; i < signal.length; i++) {
@@ -196,7 +217,15 @@ public class WaveformChart extends Canvas {
         if (stepX > 15 && signal.length <= 50) {
             gc.setFill(Color.DARKBLUE);
             for (int i = 0; i < signal.length; i++) {
-                String label = signal[i] == 0 ? "1" : "0";
+                String label;
+                if (bits != null) {
+                    if (bits.length() != signal.length) {
+                        break;
+                    }
+                    label = String.valueOf(bits.charAt(i));
+                } else {
+                    label = signal[i] == 0 ? "1" : "0";
+                }
                 double labelX = x + i * stepX + stepX / 2 - 3;
                 double labelY = centerY + h / 2 + 15;
                 gc.fillText(label, labelX, labelY);
@@ -209,6 +238,7 @@ public class WaveformChart extends Canvas {
      */
     public void clear() {
         this.signal = null;
+        this.bits = null;
         drawEmpty();
     }
 
@@ -0,0 +1,61 @@
+package com.telecomunicacoes.ami.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido pelos pontos de entrada do codec
+ * (criptografia, conversão binária, codificação AMI)
+ *
+ * Uso:
+ *   CodecEvent event = CodecEvent.start("encode");
+ *   ... trabalho ...
+ *   event.finish(inputBytes, symbols);
+ */
+@Name("com.telecomunicacoes.ami.Codec")
+@Label("AMI Codec")
+@Category({"AMI Pseudoternário", "Codec"})
+@Description("Execução de uma etapa do codec")
+public class CodecEvent extends Event {
+
+    @Label("Etapa")
+    private String stage;
+
+    @Label("Tamanho da Entrada")
+    @DataAmount
+    private long inputSize;
+
+    @Label("Símbolos")
+    @Description("Número de símbolos AMI produzidos ou consumidos (0 se não se aplica)")
+    private long symbolCount;
+
+    /**
+     * Cria e inicia o evento
+     * @param stage Nome da etapa
+     * @return Evento iniciado
+     */
+    public static CodecEvent start(String stage) {
+        CodecEvent event = new CodecEvent();
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finaliza o evento e o grava, se a gravação estiver habilitada
+     * @param inputSize Tamanho da entrada em bytes
+     * @param symbolCount Número de símbolos AMI
+     */
+    public void finish(long inputSize, long symbolCount) {
+        end();
+        if (shouldCommit()) {
+            this.inputSize = inputSize;
+            this.symbolCount = symbolCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.telecomunicacoes.ami.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latência com buckets log-lineares (estilo HdrHistogram)
+ *
+ * FUNCIONAMENTO:
+ * - Valores menores que 2^SUB_BUCKET_BITS têm bucket exato
+ * - Acima disso, cada potência de 2 é dividida em 2^(SUB_BUCKET_BITS-1)
+ *   sub-buckets lineares, o que limita o erro relativo a ~1,6%
+ * - Memória fixa (~30 KB), independente do número de amostras
+ * - record() é seguro para várias threads e não usa locks
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalSum = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Registra um valor (tipicamente nanossegundos)
+     * @param value Valor não negativo (negativos são tratados como zero)
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalSum.addAndGet(value);
+
+        long max;
+        while (value > (max = maxValue.get())) {
+            if (maxValue.compareAndSet(max, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Retorna o valor no percentil indicado
+     * @param percentile Percentil entre 0 e 100 (ex.: 99.9)
+     * @return Maior valor equivalente do bucket (0 se vazio)
+     */
+    public long percentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0.0 : (double) totalSum.get() / count;
+    }
+
+    /**
+     * Adiciona as amostras de outro histograma a este
+     * @param other Histograma de origem
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalSum.addAndGet(other.totalSum.get());
+
+        long otherMax = other.maxValue.get();
+        long max;
+        while (otherMax > (max = maxValue.get())) {
+            if (maxValue.compareAndSet(max, otherMax)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Zera o histograma
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalSum.set(0);
+        maxValue.set(0);
+    }
+
+    /**
+     * Resumo em microssegundos, assumindo valores em nanossegundos
+     * @return String com contagem, média e percentis
+     */
+    public String summaryMicros() {
+        return String.format(
+                "n=%d | média=%.1fµs | p50=%.1fµs | p90=%.1fµs | p99=%.1fµs | p99.9=%.1fµs | máx=%.1fµs",
+                getCount(),
+                getMean() / 1000.0,
+                percentile(50) / 1000.0,
+                percentile(90) / 1000.0,
+                percentile(99) / 1000.0,
+                percentile(99.9) / 1000.0,
+                getMax() / 1000.0
+        );
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> exponent);
+        return exponent * SUB_BUCKET_HALF + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - (long) exponent * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+}
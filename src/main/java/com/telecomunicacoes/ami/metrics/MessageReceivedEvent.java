@@ -0,0 +1,42 @@
+package com.telecomunicacoes.ami.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento JFR de recepção de mensagem pelo Server (leitura até o ACK)
+ */
+@Name("com.telecomunicacoes.ami.MessageReceived")
+@Label("Mensagem Recebida")
+@Category({"AMI Pseudoternário", "Rede"})
+@Description("Recepção de uma mensagem, da leitura até a confirmação")
+public class MessageReceivedEvent extends Event {
+
+    @Label("Cliente")
+    public String client;
+
+    @Label("Tamanho da Mensagem")
+    @DataAmount
+    public long messageSize;
+
+    @Label("Símbolos")
+    public long symbolCount;
+
+    @Label("Leitura")
+    @Timespan(Timespan.NANOSECONDS)
+    public long receiveDuration;
+
+    @Label("Desserialização")
+    @Timespan(Timespan.NANOSECONDS)
+    public long deserializeDuration;
+
+    @Label("Processamento")
+    @Description("Tempo no handler de mensagens")
+    @Timespan(Timespan.NANOSECONDS)
+    public long handlerDuration;
+}
@@ -0,0 +1,40 @@
+package com.telecomunicacoes.ami.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento JFR de envio de mensagem pelo Client (conexão até o ACK)
+ */
+@Name("com.telecomunicacoes.ami.MessageSent")
+@Label("Mensagem Enviada")
+@Category({"AMI Pseudoternário", "Rede"})
+@Description("Envio de uma mensagem, da conexão até a confirmação")
+public class MessageSentEvent extends Event {
+
+    @Label("Servidor")
+    public String server;
+
+    @Label("Tamanho da Mensagem")
+    @DataAmount
+    public long messageSize;
+
+    @Label("Símbolos")
+    public long symbolCount;
+
+    @Label("Serialização")
+    @Timespan(Timespan.NANOSECONDS)
+    public long serializeDuration;
+
+    @Label("Escrita")
+    @Timespan(Timespan.NANOSECONDS)
+    public long sendDuration;
+
+    @Label("Confirmada")
+    public boolean acknowledged;
+}
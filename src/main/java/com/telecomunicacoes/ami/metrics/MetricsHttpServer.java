@@ -0,0 +1,61 @@
+package com.telecomunicacoes.ami.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Endpoint HTTP local com as métricas do pipeline
+ *
+ * GET /metrics → formato texto do Prometheus
+ * Escuta apenas no endereço de loopback.
+ */
+public class MetricsHttpServer {
+
+    private final int port;
+    private HttpServer server;
+
+    public MetricsHttpServer(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Inicia o endpoint (thread própria do HttpServer)
+     * @throws IOException Se a porta não puder ser aberta
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", this::handleMetrics);
+        server.start();
+    }
+
+    /**
+     * Para o endpoint
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = PipelineMetrics.toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
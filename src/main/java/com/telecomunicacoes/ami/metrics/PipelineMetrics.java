@@ -0,0 +1,266 @@
+package com.telecomunicacoes.ami.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro global de métricas do pipeline
+ *
+ * - Cada etapa (Stage) tem contador de execuções, tempo total e
+ *   histograma de latência
+ * - Contadores de bytes, conexões ativas e violações AMI
+ * - Todos os contadores usam LongAdder (sem locks, baixa contenção)
+ *
+ * Uso típico:
+ *   long start = System.nanoTime();
+ *   ... trabalho ...
+ *   PipelineMetrics.record(Stage.ENCODE, start);
+ */
+public final class PipelineMetrics {
+
+    /**
+     * Etapas instrumentadas, na ordem do pipeline
+     */
+    public enum Stage {
+        ENCRYPT("encrypt"),
+        TEXT_TO_BINARY("text_to_binary"),
+        SCRAMBLE("scramble"),
+        FEC_ENCODE("fec_encode"),
+        ENCODE("encode"),
+        COMPRESS("compress"),
+        SERIALIZE("serialize"),
+        SEND("send"),
+        RECEIVE("receive"),
+        DESERIALIZE("deserialize"),
+        DECOMPRESS("decompress"),
+        DECODE("decode"),
+        FEC_DECODE("fec_decode"),
+        DESCRAMBLE("descramble"),
+        BINARY_TO_TEXT("binary_to_text"),
+        DECRYPT("decrypt");
+
+        private final String metricName;
+
+        Stage(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    /**
+     * Contador e histograma de tempo de uma etapa
+     */
+    public static final class StageTimer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            histogram.record(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    private static final Map<Stage, StageTimer> TIMERS = new EnumMap<>(Stage.class);
+
+    static {
+        for (Stage stage : Stage.values()) {
+            TIMERS.put(stage, new StageTimer());
+        }
+    }
+
+    private static final LongAdder BYTES_IN = new LongAdder();
+    private static final LongAdder BYTES_OUT = new LongAdder();
+    private static final LongAdder ACTIVE_CONNECTIONS = new LongAdder();
+    private static final LongAdder AMI_VIOLATIONS = new LongAdder();
+    private static final LongAdder FEC_CORRECTED = new LongAdder();
+    private static final LongAdder FEC_UNCORRECTABLE = new LongAdder();
+    private static final LongAdder REJECTED_FRAMES = new LongAdder();
+
+    private PipelineMetrics() {
+    }
+
+    /**
+     * Registra a duração de uma etapa
+     * @param stage Etapa
+     * @param startNanos Valor de System.nanoTime() no início da etapa
+     * @return Duração registrada em nanossegundos
+     */
+    public static long record(Stage stage, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        TIMERS.get(stage).record(elapsed);
+        return elapsed;
+    }
+
+    public static void addBytesIn(long bytes) {
+        BYTES_IN.add(bytes);
+    }
+
+    public static void addBytesOut(long bytes) {
+        BYTES_OUT.add(bytes);
+    }
+
+    public static void connectionOpened() {
+        ACTIVE_CONNECTIONS.increment();
+    }
+
+    public static void connectionClosed() {
+        ACTIVE_CONNECTIONS.decrement();
+    }
+
+    public static void addViolations(long violations) {
+        if (violations > 0) {
+            AMI_VIOLATIONS.add(violations);
+        }
+    }
+
+    /**
+     * Registra o resultado de uma decodificação FEC
+     * @param corrected Palavras corrigidas
+     * @param uncorrectable Palavras com erro detectado e não corrigido
+     */
+    public static void addFecResult(long corrected, long uncorrectable) {
+        if (corrected > 0) {
+            FEC_CORRECTED.add(corrected);
+        }
+        if (uncorrectable > 0) {
+            FEC_UNCORRECTABLE.add(uncorrectable);
+        }
+    }
+
+    /**
+     * Registra um quadro rejeitado pelo servidor (JSON inválido ou CRC errado)
+     */
+    public static void frameRejected() {
+        REJECTED_FRAMES.increment();
+    }
+
+    public static StageTimer getTimer(Stage stage) {
+        return TIMERS.get(stage);
+    }
+
+    public static long getBytesIn() {
+        return BYTES_IN.sum();
+    }
+
+    public static long getBytesOut() {
+        return BYTES_OUT.sum();
+    }
+
+    public static long getActiveConnections() {
+        return ACTIVE_CONNECTIONS.sum();
+    }
+
+    public static long getViolations() {
+        return AMI_VIOLATIONS.sum();
+    }
+
+    public static long getFecCorrected() {
+        return FEC_CORRECTED.sum();
+    }
+
+    public static long getFecUncorrectable() {
+        return FEC_UNCORRECTABLE.sum();
+    }
+
+    public static long getRejectedFrames() {
+        return REJECTED_FRAMES.sum();
+    }
+
+    /**
+     * Relatório legível de todas as métricas (etapas sem execuções são omitidas)
+     * @return String com uma linha por etapa e os contadores globais
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder("Métricas do pipeline:\n");
+        for (Stage stage : Stage.values()) {
+            StageTimer timer = TIMERS.get(stage);
+            if (timer.getCount() == 0) {
+                continue;
+            }
+            sb.append(String.format("  %-15s total=%.1fms | %s%n",
+                    stage.getMetricName(),
+                    timer.getTotalNanos() / 1e6,
+                    timer.getHistogram().summaryMicros()));
+        }
+        sb.append(String.format(
+                "  bytes entrada=%d | bytes saída=%d | conexões ativas=%d | violações AMI=%d" +
+                " | FEC corrigidas=%d | FEC não corrigíveis=%d | quadros rejeitados=%d",
+                getBytesIn(), getBytesOut(), getActiveConnections(), getViolations(),
+                getFecCorrected(), getFecUncorrectable(), getRejectedFrames()));
+        return sb.toString();
+    }
+
+    /**
+     * Exporta as métricas no formato texto do Prometheus (versão 0.0.4)
+     * @return Texto pronto para ser servido em /metrics
+     */
+    public static String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("# HELP ami_stage_duration_seconds Duração das etapas do pipeline\n");
+        sb.append("# TYPE ami_stage_duration_seconds summary\n");
+        for (Stage stage : Stage.values()) {
+            StageTimer timer = TIMERS.get(stage);
+            String label = "stage=\"" + stage.getMetricName() + "\"";
+            for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999}) {
+                sb.append("ami_stage_duration_seconds{").append(label)
+                        .append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(timer.getHistogram().percentile(quantile * 100) / 1e9).append('\n');
+            }
+            sb.append("ami_stage_duration_seconds_sum{").append(label).append("} ")
+                    .append(timer.getTotalNanos() / 1e9).append('\n');
+            sb.append("ami_stage_duration_seconds_count{").append(label).append("} ")
+                    .append(timer.getCount()).append('\n');
+        }
+
+        appendMetric(sb, "ami_bytes_in_total", "counter", "Bytes recebidos pelo servidor", getBytesIn());
+        appendMetric(sb, "ami_bytes_out_total", "counter", "Bytes enviados pelo cliente", getBytesOut());
+        appendMetric(sb, "ami_active_connections", "gauge", "Conexões ativas no servidor", getActiveConnections());
+        appendMetric(sb, "ami_violations_total", "counter", "Violações de alternância AMI detectadas", getViolations());
+        appendMetric(sb, "ami_fec_corrected_total", "counter", "Palavras FEC corrigidas", getFecCorrected());
+        appendMetric(sb, "ami_fec_uncorrectable_total", "counter", "Palavras FEC com erro não corrigível", getFecUncorrectable());
+        appendMetric(sb, "ami_rejected_frames_total", "counter", "Quadros rejeitados com NACK (JSON inválido ou CRC32C errado)", getRejectedFrames());
+        return sb.toString();
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, String type, String help, long value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Zera todas as métricas (exceto conexões ativas, que refletem o estado atual)
+     */
+    public static void reset() {
+        for (StageTimer timer : TIMERS.values()) {
+            timer.count.reset();
+            timer.totalNanos.reset();
+            timer.histogram.reset();
+        }
+        BYTES_IN.reset();
+        BYTES_OUT.reset();
+        AMI_VIOLATIONS.reset();
+        FEC_CORRECTED.reset();
+        FEC_UNCORRECTABLE.reset();
+        REJECTED_FRAMES.reset();
+    }
+}
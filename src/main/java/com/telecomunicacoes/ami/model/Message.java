@@ -12,8 +12,23 @@ public class Message implements Serializable {
 
     private String originalText;           // Texto original
     private String encryptedText;          // Texto criptografado
+    private String encryption;             // Identificador da criptografia (null = xor)
+    private String payload;                // Formato da carga (null = texto em Base64, "bytes" = bytes crus)
+    private transient byte[] payloadBytes; // Carga criptografada no modo de bytes crus (não vai para a rede)
     private String binaryString;           // Representação binária
-    private int[] encodedSignal;           // Sinal codificado AMI (-1, 0, +1)
+    private int[] encodedSignal;           // Sinal codificado (níveis do código de linha)
+    private String compression;            // Compressão do sinal em signalData (null = sinal em encodedSignal)
+    private String signalData;             // Sinal comprimido, em Base64
+    private String acceptCompression;      // Compressões aceitas pelo remetente (negociação)
+    private String lineCode;               // Identificador do código de linha (null = pseudoternary)
+    private String scrambler;              // Identificador do embaralhador (null = sem embaralhador)
+    private String fec;                    // Identificador da correção de erros (null = sem FEC)
+    private Long checksum;                 // CRC32C do quadro (null = sem verificação)
+    private String file;                   // Nome do arquivo (null = mensagem de texto)
+    private Long fileSize;                 // Tamanho total do arquivo em bytes
+    private Long fileOffset;               // Posição deste trecho no arquivo
+    private String fileId;                 // SHA-256 do conteúdo do arquivo (identidade para retomada)
+    private Long sequence;                 // Número de sequência no transporte UDP (null = TCP)
     private long timestamp;                // Timestamp do envio
 
     public Message() {
@@ -25,6 +40,48 @@ public class Message implements Serializable {
         this.originalText = originalText;
     }
 
+    /**
+     * Cópia rasa (os vetores são compartilhados), para montar o quadro
+     * de rede sem alterar a mensagem original
+     * @param other Mensagem copiada
+     */
+    public Message(Message other) {
+        this.originalText = other.originalText;
+        this.encryptedText = other.encryptedText;
+        this.encryption = other.encryption;
+        this.payload = other.payload;
+        this.payloadBytes = other.payloadBytes;
+        this.binaryString = other.binaryString;
+        this.encodedSignal = other.encodedSignal;
+        this.compression = other.compression;
+        this.signalData = other.signalData;
+        this.acceptCompression = other.acceptCompression;
+        this.lineCode = other.lineCode;
+        this.scrambler = other.scrambler;
+        this.fec = other.fec;
+        this.checksum = other.checksum;
+        this.file = other.file;
+        this.fileSize = other.fileSize;
+        this.fileOffset = other.fileOffset;
+        this.fileId = other.fileId;
+        this.sequence = other.sequence;
+        this.timestamp = other.timestamp;
+    }
+
+    /**
+     * Cópia para o quadro de rede, sem os campos de texto (original,
+     * criptografado e binário): o receptor decodifica só pelo sinal, e
+     * com criptografia o texto original não pode ir em claro
+     * @return Cópia rasa sem os campos de texto
+     */
+    public Message toWire() {
+        Message wire = new Message(this);
+        wire.originalText = null;
+        wire.encryptedText = null;
+        wire.binaryString = null;
+        return wire;
+    }
+
     // Getters e Setters
     public String getOriginalText() {
         return originalText;
@@ -42,6 +99,30 @@ public class Message implements Serializable {
         this.encryptedText = encryptedText;
     }
 
+    public String getEncryption() {
+        return encryption;
+    }
+
+    public void setEncryption(String encryption) {
+        this.encryption = encryption;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public byte[] getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    public void setPayloadBytes(byte[] payloadBytes) {
+        this.payloadBytes = payloadBytes;
+    }
+
     public String getBinaryString() {
         return binaryString;
     }
@@ -58,6 +139,102 @@ public class Message implements Serializable {
         this.encodedSignal = encodedSignal;
     }
 
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public String getSignalData() {
+        return signalData;
+    }
+
+    public void setSignalData(String signalData) {
+        this.signalData = signalData;
+    }
+
+    public String getAcceptCompression() {
+        return acceptCompression;
+    }
+
+    public void setAcceptCompression(String acceptCompression) {
+        this.acceptCompression = acceptCompression;
+    }
+
+    public String getLineCode() {
+        return lineCode;
+    }
+
+    public void setLineCode(String lineCode) {
+        this.lineCode = lineCode;
+    }
+
+    public String getScrambler() {
+        return scrambler;
+    }
+
+    public void setScrambler(String scrambler) {
+        this.scrambler = scrambler;
+    }
+
+    public String getFec() {
+        return fec;
+    }
+
+    public void setFec(String fec) {
+        this.fec = fec;
+    }
+
+    public Long getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(Long checksum) {
+        this.checksum = checksum;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Long getFileOffset() {
+        return fileOffset;
+    }
+
+    public void setFileOffset(Long fileOffset) {
+        this.fileOffset = fileOffset;
+    }
+
+    public String getFileId() {
+        return fileId;
+    }
+
+    public void setFileId(String fileId) {
+        this.fileId = fileId;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
     public long getTimestamp() {
         return timestamp;
     }
@@ -71,8 +248,16 @@ public class Message implements Serializable {
         return "Message{" +
                 "originalText='" + originalText + '\'' +
                 ", encryptedText='" + encryptedText + '\'' +
+                ", encryption=" + encryption +
+                ", payload=" + payload +
                 ", binaryLength=" + (binaryString != null ? binaryString.length() : 0) +
                 ", signalLength=" + (encodedSignal != null ? encodedSignal.length : 0) +
+                (compression != null ? ", compression=" + compression : "") +
+                ", lineCode=" + lineCode +
+                ", scrambler=" + scrambler +
+                ", fec=" + fec +
+                (file != null ? ", file=" + file + " [" + fileOffset + "/" + fileSize + "]" : "") +
+                (sequence != null ? ", sequence=" + sequence : "") +
                 ", timestamp=" + timestamp +
                 '}';
     }
@@ -0,0 +1,497 @@
+package com.telecomunicacoes.ami.network;
+
+import com.google.gson.Gson;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.StatusDispatcher.Level;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Envio em lotes para o Server: várias mensagens em uma única escrita
+ *
+ * FUNCIONAMENTO:
+ * 1. send assina (CRC32C) e serializa a mensagem na thread de quem envia
+ *    e a coloca na fila; a confirmação chega por um CompletableFuture
+ * 2. Uma thread de envio monta o lote: tudo o que já está na fila, até
+ *    maxBatchSize mensagens, esperando no máximo linger depois da primeira
+ *    (como o linger.ms do Kafka)
+ * 3. O lote vai em uma única escrita com vários buffers
+ *    (GatheringByteChannel.write(ByteBuffer[])), sem copiar os quadros,
+ *    por uma conexão persistente
+ * 4. O servidor responde uma linha por mensagem, na ordem: cada resposta
+ *    completa o future da sua mensagem
+ *
+ * REGRAS:
+ * - Um lote por vez: o próximo se forma na fila enquanto o servidor
+ *   responde ao anterior
+ * - Com a fila cheia (MAX_PENDING), send bloqueia quem envia
+ * - Erro ou timeout fecha a conexão e falha as mensagens do lote, que não
+ *   são reenviadas; a conexão é reaberta no lote seguinte
+ * - Com setCompression, a primeira mensagem oferece a compressão e vai
+ *   sozinha; as enviadas enquanto a oferta não é respondida esperam na
+ *   fila e são comprimidas pela thread de envio, já com os formatos
+ *   aceitos pelo servidor (como no Client)
+ * - Depois de close, send é recusado; o que ainda estiver na fila quando
+ *   a thread de envio terminar (ou close desistir de esperar) falha com
+ *   IOException, para nenhum future ficar sem resposta
+ */
+public class BatchingSender implements AutoCloseable {
+
+    private static final int RESPONSE_TIMEOUT = 5000; // 5 segundos
+    private static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    private static final long DEFAULT_LINGER_MILLIS = 5;
+    private static final int MAX_PENDING = 4096;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final InetSocketAddress address;
+    private final String name;
+    private final Gson gson = new Gson();
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(MAX_PENDING);
+    private final Thread sender;
+    private volatile boolean running = true;
+    private volatile boolean stopped;
+    private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private volatile long lingerNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_LINGER_MILLIS);
+    private volatile SignalCompression compression;
+    private volatile List<SignalCompression.Method> negotiated;
+    private Consumer<String> statusHandler;
+    private boolean consoleLogging = true;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder sizeFlushes = new LongAdder();
+    private final LongAdder lingerFlushes = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder nacked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    // Acessados só pela thread de envio
+    private final ArrayDeque<Pending> held = new ArrayDeque<>();
+    private SocketChannel channel;
+    private BufferedReader in;
+
+    /**
+     * @param serverAddress Endereço do servidor
+     * @param serverPort Porta do servidor
+     */
+    public BatchingSender(String serverAddress, int serverPort) {
+        this.address = new InetSocketAddress(serverAddress, serverPort);
+        this.name = serverAddress + ":" + serverPort;
+        this.sender = new Thread(this::sendLoop, "batch-" + name);
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    /**
+     * Define o tamanho máximo do lote
+     * @param maxBatchSize Mensagens por escrita (padrão: 64)
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser positivo");
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Define a espera máxima para completar um lote
+     * @param millis Tempo após a primeira mensagem do lote (padrão: 5 ms; 0 = envia o que houver na fila)
+     */
+    public void setLinger(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Tempo de espera não pode ser negativo");
+        }
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Habilita a compressão do sinal (null = sem compressão)
+     * @param compression Compressão adaptativa
+     */
+    public void setCompression(SignalCompression compression) {
+        this.compression = compression;
+        this.negotiated = null;
+    }
+
+    /**
+     * Define o handler para atualizar status
+     * @param handler Função que processa mensagens de status
+     */
+    public void setStatusHandler(Consumer<String> handler) {
+        this.statusHandler = handler;
+    }
+
+    /**
+     * Habilita ou desabilita a impressão do status no console
+     * @param enabled false para silenciar
+     */
+    public void setConsoleLogging(boolean enabled) {
+        this.consoleLogging = enabled;
+    }
+
+    /**
+     * Coloca a mensagem no próximo lote
+     * O CRC32C é gravado na mensagem e a serialização acontece nesta thread
+     * (na thread de envio, se a negociação da compressão estiver pendente)
+     * @param message Mensagem codificada
+     * @return true se o servidor confirmou com ACK, false em NACK;
+     *         completa com IOException se a conexão falhar ou o envio for encerrado
+     * @throws IllegalStateException Se o envio já tiver sido encerrado
+     */
+    public CompletableFuture<Boolean> send(Message message) {
+        if (!running) {
+            throw new IllegalStateException("Envio em lotes encerrado");
+        }
+        FrameChecksum.sign(message);
+        Pending pending = new Pending(message.toWire());
+        if (compression == null || negotiated != null) {
+            serialize(pending);
+        }
+        try {
+            while (!queue.offer(pending, IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        }
+        // close concorrente: a thread de envio pode já ter esvaziado a fila
+        if (stopped) {
+            queue.remove(pending);
+            abandon(pending);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Serializa o quadro, comprimido com os formatos combinados; sem
+     * negociação, esta mensagem leva a oferta de compressão
+     */
+    private void serialize(Pending pending) {
+        long start = System.nanoTime();
+        Message frame = pending.frame;
+        SignalCompression compression = this.compression;
+        if (compression != null) {
+            List<SignalCompression.Method> methods = negotiated;
+            if (methods != null) {
+                frame = compression.compress(frame, methods);
+            } else {
+                frame.setAcceptCompression(compression.getOffer());
+                pending.offer = true;
+            }
+        }
+        pending.bytes = (gson.toJson(frame) + "\n").getBytes(StandardCharsets.UTF_8);
+        pending.frame = null;
+        PipelineMetrics.record(Stage.SERIALIZE, start);
+    }
+
+    /**
+     * Envia e aguarda a confirmação (a mensagem ainda pode ir em lote com
+     * as de outras threads)
+     * @param message Mensagem codificada
+     * @return true se o servidor confirmou com ACK
+     */
+    public boolean sendSync(Message message) {
+        return send(message).join();
+    }
+
+    /**
+     * Contadores do envio
+     * @return Lotes, mensagens por lote, motivo do envio do lote, respostas
+     *         e mensagens descartadas no encerramento
+     */
+    public String getStatistics() {
+        long count = batches.sum();
+        long messages = acked.sum() + nacked.sum() + failed.sum();
+        return String.format("lotes=%d | mensagens/lote=%.1f | por tamanho=%d | por tempo=%d | ACK=%d | NACK=%d | falhas=%d | descartadas=%d",
+                count, count == 0 ? 0.0 : (double) messages / count,
+                sizeFlushes.sum(), lingerFlushes.sum(), acked.sum(), nacked.sum(), failed.sum(), abandoned.sum());
+    }
+
+    /**
+     * Quantidade de lotes enviados
+     * @return Escritas feitas no socket
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Envia o que está na fila e fecha a conexão
+     * Mensagens que não saírem em até 2 timeouts de resposta falham com IOException
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            sender.join(RESPONSE_TIMEOUT * 2L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (sender.isAlive()) {
+            updateStatus(Level.WARN, name + ": envio não terminou a tempo; mensagens na fila descartadas");
+            stopped = true;
+            abandonQueued();
+        }
+    }
+
+    /**
+     * Laço da thread de envio: monta e envia lotes até o encerramento
+     */
+    private void sendLoop() {
+        List<Pending> batch = new ArrayList<>();
+        try {
+            while (running || !held.isEmpty() || !queue.isEmpty()) {
+                Pending first = held.isEmpty() ? queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS) : held.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // A oferta de compressão vai sem esperar: o resto do lote voltaria para held
+                boolean offer = first.bytes == null && negotiated == null;
+                fill(batch, offer ? first.queued : first.queued + lingerNanos);
+                prepare(batch);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Depois de stopped, send não deixa mais nada na fila sem resposta
+            stopped = true;
+            disconnect();
+            batch.addAll(held);
+            held.clear();
+            for (Pending pending : batch) {
+                abandon(pending);
+            }
+            abandonQueued();
+        }
+    }
+
+    /**
+     * Serializa as mensagens que esperavam a negociação da compressão.
+     * A que levar a oferta fecha o lote: as seguintes voltam para held e
+     * só são serializadas depois da resposta do servidor
+     * @param batch Lote montado, na ordem da fila
+     */
+    private void prepare(List<Pending> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            if (pending.bytes == null) {
+                serialize(pending);
+            }
+            if (pending.offer && i + 1 < batch.size()) {
+                List<Pending> rest = batch.subList(i + 1, batch.size());
+                for (int j = rest.size() - 1; j >= 0; j--) {
+                    held.addFirst(rest.get(j));
+                }
+                rest.clear();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Completa o lote até maxBatchSize ou até o fim da espera
+     * (primeiro com as mensagens de held, depois com as da fila)
+     * @param batch Lote com a primeira mensagem
+     * @param deadline Instante limite (System.nanoTime)
+     */
+    private void fill(List<Pending> batch, long deadline) throws InterruptedException {
+        int limit = maxBatchSize;
+        while (batch.size() < limit && !held.isEmpty()) {
+            batch.add(held.poll());
+        }
+        queue.drainTo(batch, limit - batch.size());
+        while (batch.size() < limit) {
+            long wait = deadline - System.nanoTime();
+            if (wait <= 0 || !running) {
+                lingerFlushes.increment();
+                return;
+            }
+            Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                lingerFlushes.increment();
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, limit - batch.size());
+        }
+        sizeFlushes.increment();
+    }
+
+    /**
+     * Envia o lote em uma escrita e distribui as respostas
+     * @param batch Mensagens do lote, na ordem da fila
+     */
+    private void flush(List<Pending> batch) {
+        int next = 0;
+        try {
+            if (channel == null) {
+                connect();
+            }
+            long start = System.nanoTime();
+            ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+            long remaining = 0;
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = ByteBuffer.wrap(batch.get(i).bytes);
+                remaining += buffers[i].remaining();
+            }
+            long size = remaining;
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            PipelineMetrics.record(Stage.SEND, start);
+            PipelineMetrics.addBytesOut(size);
+            batches.increment();
+
+            for (; next < batch.size(); next++) {
+                Pending pending = batch.get(next);
+                String response = in.readLine();
+                if (response == null) {
+                    throw new IOException("Conexão encerrada pelo servidor");
+                }
+                complete(pending, response);
+            }
+        } catch (SocketTimeoutException e) {
+            fail(batch, next, "timeout aguardando ACK");
+        } catch (IOException e) {
+            fail(batch, next, e.getMessage());
+        }
+    }
+
+    /**
+     * Completa o future de uma mensagem com a resposta do servidor
+     */
+    private void complete(Pending pending, String response) {
+        boolean ack = "ACK".equals(response) || response.startsWith("ACK ");
+        if (pending.offer) {
+            negotiate(response);
+        }
+        if (ack) {
+            acked.increment();
+        } else {
+            nacked.increment();
+            if (response.equals("NACK " + Server.NACK_COMPRESSION)) {
+                // Segue sem compressão com este servidor
+                negotiated = List.of();
+            }
+            updateStatus(Level.DEBUG, "Mensagem rejeitada pelo servidor: " + response);
+        }
+        pending.future.complete(ack);
+    }
+
+    /**
+     * Registra os formatos de compressão aceitos pelo servidor
+     * @param response Resposta à mensagem que ofereceu a compressão
+     */
+    private void negotiate(String response) {
+        SignalCompression compression = this.compression;
+        if (compression == null) {
+            return;
+        }
+        String accepted = response.startsWith(SignalCompression.ACK_PREFIX)
+                ? response.substring(SignalCompression.ACK_PREFIX.length()) : null;
+        negotiated = compression.negotiate(accepted);
+        updateStatus(Level.DEBUG, negotiated.isEmpty()
+                ? "Servidor sem suporte a compressão: sinal enviado sem compressão"
+                : "Compressão combinada com o servidor: " + negotiated);
+    }
+
+    /**
+     * Falha as mensagens do lote ainda sem resposta e fecha a conexão
+     * (respostas atrasadas desalinhariam os lotes seguintes)
+     */
+    private void fail(List<Pending> batch, int from, String reason) {
+        disconnect();
+        updateStatus(Level.WARN, name + ": " + reason + " (" + (batch.size() - from) + " mensagem(ns) sem confirmação)");
+        IOException error = new IOException(reason);
+        for (int i = from; i < batch.size(); i++) {
+            failed.increment();
+            batch.get(i).future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Falha as mensagens que ficaram na fila depois do encerramento
+     */
+    private void abandonQueued() {
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            abandon(pending);
+        }
+    }
+
+    private void abandon(Pending pending) {
+        if (pending.future.completeExceptionally(new IOException("Envio em lotes encerrado"))) {
+            abandoned.increment();
+        }
+    }
+
+    private void connect() throws IOException {
+        SocketChannel connection = SocketChannel.open();
+        try {
+            connection.socket().connect(address, RESPONSE_TIMEOUT);
+            connection.socket().setSoTimeout(RESPONSE_TIMEOUT);
+            connection.socket().setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(connection.socket().getInputStream(), StandardCharsets.UTF_8));
+            channel = connection;
+        } catch (IOException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private void disconnect() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Já encerrando
+            }
+            channel = null;
+            in = null;
+        }
+    }
+
+    private void updateStatus(Level level, String status) {
+        StatusDispatcher.shared().publish(level, "Batch", status, consoleLogging, statusHandler);
+    }
+
+    /**
+     * Mensagem serializada aguardando envio e resposta
+     */
+    private static final class Pending {
+        private Message frame; // até a serialização
+        private byte[] bytes;
+        private boolean offer;
+        private final long queued = System.nanoTime();
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        Pending(Message frame) {
+            this.frame = frame;
+        }
+    }
+}
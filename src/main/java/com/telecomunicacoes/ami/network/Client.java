@@ -1,19 +1,32 @@
 package com.telecomunicacoes.ami.network;
 
 import com.google.gson.Gson;
+import com.telecomunicacoes.ami.metrics.MessageSentEvent;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
 import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.StatusDispatcher.Level;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
  * Cliente TCP para enviar mensagens codificadas em AMI
  * Implementa envio assíncrono para não bloquear a interface
+ *
+ * Com setCompression, o primeiro envio oferece os formatos de compressão
+ * ao servidor e os seguintes usam os que ele aceitou (SignalCompression).
+ *
+ * Cada envio abre uma conexão e espera o ACK; para muitas mensagens
+ * pequenas, o BatchingSender envia em lotes por uma conexão persistente.
  */
 public class Client {
 
@@ -23,7 +36,11 @@ public class Client {
     private String serverAddress;
     private int serverPort;
     private Consumer<String> statusHandler;
+    private boolean consoleLogging = true;
     private Gson gson;
+    private SignalCompression compression;
+    // Formatos aceitos pelo servidor (null = ainda não negociado)
+    private volatile List<SignalCompression.Method> negotiated;
 
     public Client() {
         this("localhost", DEFAULT_PORT);
@@ -43,6 +60,24 @@ public class Client {
         this.statusHandler = handler;
     }
 
+    /**
+     * Habilita ou desabilita a impressão do status no console
+     * @param enabled false para silenciar (ex.: geração de carga)
+     */
+    public void setConsoleLogging(boolean enabled) {
+        this.consoleLogging = enabled;
+    }
+
+    /**
+     * Habilita a compressão do sinal (null = sem compressão)
+     * A compressão é negociada de novo no próximo envio
+     * @param compression Compressão adaptativa (pode ser compartilhada entre clientes)
+     */
+    public void setCompression(SignalCompression compression) {
+        this.compression = compression;
+        this.negotiated = null;
+    }
+
     /**
      * Envia mensagem de forma assíncrona
      * @param message Mensagem a ser enviada
@@ -58,7 +93,7 @@ public class Client {
                 }
             } catch (Exception e) {
                 String errorMsg = "Erro ao enviar: " + e.getMessage();
-                updateStatus("✗ " + errorMsg);
+                updateStatus(Level.ERROR, "✗ " + errorMsg);
                 if (onError != null) {
                     onError.accept(errorMsg);
                 }
@@ -67,79 +102,143 @@ public class Client {
     }
 
     /**
-     * Envia mensagem de forma síncrona
+     * Envia mensagem de forma síncrona (bloqueia até a confirmação)
+     * O CRC32C do quadro é calculado e gravado na mensagem antes do envio
      * @param message Mensagem a ser enviada
+     * @return true se o servidor confirmou com ACK (false em NACK ou timeout)
      * @throws IOException Se houver erro na conexão
      */
-    private void sendMessageSync(Message message) throws IOException {
-        updateStatus("Conectando ao servidor " + serverAddress + ":" + serverPort + "...");
+    public boolean sendMessageSync(Message message) throws IOException {
+        updateStatus(Level.DEBUG, "Conectando ao servidor " + serverAddress + ":" + serverPort + "...");
+
+        MessageSentEvent event = new MessageSentEvent();
+        event.begin();
 
         try (Socket socket = new Socket(serverAddress, serverPort)) {
             socket.setSoTimeout(CONNECTION_TIMEOUT);
 
-            updateStatus("✓ Conectado ao servidor!");
+            updateStatus(Level.DEBUG, "✓ Conectado ao servidor!");
 
             // Streams de entrada e saída
-            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
-            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            PrintWriter out = new PrintWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
 
-            // Serializa a mensagem para JSON
-            String json = gson.toJson(message);
+            // Serializa a mensagem para JSON, com o CRC32C do quadro
+            // (calculado sobre o sinal original, antes da compressão),
+            // sem os campos de texto (Message.toWire)
+            long start = System.nanoTime();
+            FrameChecksum.sign(message);
+            SignalCompression compression = this.compression;
+            List<SignalCompression.Method> methods = negotiated;
+            Message frame = message.toWire();
+            if (compression != null) {
+                if (methods == null) {
+                    frame.setAcceptCompression(compression.getOffer());
+                } else {
+                    frame = compression.compress(frame, methods);
+                }
+            }
+            String json = gson.toJson(frame);
+            event.serializeDuration = PipelineMetrics.record(Stage.SERIALIZE, start);
 
-            updateStatus("Enviando mensagem (" + json.length() + " bytes)...");
+            updateStatus(Level.DEBUG, "Enviando mensagem (" + json.length() + " bytes)...");
 
             // Envia a mensagem
+            start = System.nanoTime();
             out.println(json);
             out.flush();
+            event.sendDuration = PipelineMetrics.record(Stage.SEND, start);
+            PipelineMetrics.addBytesOut(json.length() + 1);
+            event.messageSize = json.length() + 1;
 
             // Aguarda confirmação
             try {
                 String response = in.readLine();
-                if ("ACK".equals(response)) {
-                    updateStatus("Mensagem enviada e confirmada!");
+                event.acknowledged = "ACK".equals(response) || (response != null && response.startsWith("ACK "));
+                if (event.acknowledged) {
+                    if (compression != null && methods == null) {
+                        negotiate(compression, response);
+                    }
+                    updateStatus(Level.INFO, "Mensagem enviada e confirmada!");
+                    return true;
+                } else if (response != null && response.startsWith("NACK")) {
+                    String reason = response.substring(4).trim();
+                    if (Server.NACK_COMPRESSION.equals(reason)) {
+                        // Segue sem compressão com este servidor
+                        negotiated = List.of();
+                    }
+                    updateStatus(Level.WARN, "Mensagem rejeitada pelo servidor: " + (Server.NACK_CHECKSUM.equals(reason)
+                            ? "CRC32C não confere (quadro corrompido)" : "quadro inválido (" + reason + ")"));
+                    return false;
                 } else {
-                    updateStatus("Resposta inesperada: " + response);
+                    updateStatus(Level.WARN, "Resposta inesperada: " + response);
+                    return false;
                 }
             } catch (SocketTimeoutException e) {
-                updateStatus("Timeout aguardando confirmação (mas mensagem foi enviada)");
+                updateStatus(Level.WARN, "Timeout aguardando confirmação (mas mensagem foi enviada)");
+                return false;
             }
 
         } catch (IOException e) {
             String detailedError = getDetailedErrorMessage(e);
-            updateStatus("✗ " + detailedError);
+            updateStatus(Level.ERROR, "✗ " + detailedError);
             throw new IOException(detailedError, e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.server = serverAddress + ":" + serverPort;
+                int[] signal = message.getEncodedSignal();
+                event.symbolCount = signal != null ? signal.length : 0;
+                event.commit();
+            }
         }
     }
 
+    /**
+     * Registra os formatos aceitos pelo servidor
+     * @param compression Compressão configurada
+     * @param response ACK do primeiro envio ("ACK compression=<ids>", ou
+     *                 "ACK" de um servidor sem compressão)
+     */
+    private void negotiate(SignalCompression compression, String response) {
+        String accepted = response.startsWith(SignalCompression.ACK_PREFIX)
+                ? response.substring(SignalCompression.ACK_PREFIX.length()) : null;
+        List<SignalCompression.Method> methods = compression.negotiate(accepted);
+        negotiated = methods;
+        updateStatus(Level.DEBUG, methods.isEmpty()
+                ? "Servidor sem suporte a compressão: sinal enviado sem compressão"
+                : "Compressão combinada com o servidor: " + methods);
+    }
+
     /**
      * Testa conexão com o servidor
      * @return true se conseguir conectar
      */
     public boolean testConnection() {
         try {
-            updateStatus("Testando conexão com " + serverAddress + ":" + serverPort + "...");
+            updateStatus(Level.DEBUG, "Testando conexão com " + serverAddress + ":" + serverPort + "...");
 
             try (Socket socket = new Socket(serverAddress, serverPort)) {
                 socket.setSoTimeout(2000);
-                updateStatus("Servidor respondeu!");
+                updateStatus(Level.INFO, "Servidor respondeu!");
                 return true;
             }
 
         } catch (IOException e) {
-            updateStatus("Servidor não está acessível: " + e.getMessage());
+            updateStatus(Level.WARN, "Servidor não está acessível: " + e.getMessage());
             return false;
         }
     }
 
     /**
-     * Atualiza status via handler
+     * Publica status de forma assíncrona (não bloqueia a thread de rede)
+     * @param level Nível da mensagem
      * @param status Mensagem de status
      */
-    private void updateStatus(String status) {
-        System.out.println("[Client] " + status);
-        if (statusHandler != null) {
-            statusHandler.accept(status);
-        }
+    private void updateStatus(Level level, String status) {
+        StatusDispatcher.shared().publish(level, "Client", status, consoleLogging, statusHandler);
     }
 
     /**
@@ -148,6 +247,7 @@ public class Client {
      */
     public void setServerAddress(String address) {
         this.serverAddress = address;
+        this.negotiated = null;
     }
 
     /**
@@ -156,6 +256,7 @@ public class Client {
      */
     public void setServerPort(int port) {
         this.serverPort = port;
+        this.negotiated = null;
     }
 
     /**
@@ -0,0 +1,191 @@
+package com.telecomunicacoes.ami.network;
+
+import com.telecomunicacoes.ami.model.Message;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Formato binário de uma Message em um datagrama UDP
+ *
+ * LAYOUT (big-endian):
+ *   0  'A' 'M'         Identificação do quadro
+ *   2  versão          1 byte
+ *   3  fluxo           4 bytes, aleatório por remetente (reinício = novo fluxo)
+ *   7  sequência       8 bytes, 0, 1, 2, ... dentro do fluxo
+ *  15  CRC32C          4 bytes (FrameChecksum, incluindo a sequência)
+ *  19  identificadores código de linha, embaralhador, FEC, criptografia e
+ *                      formato da carga: 1 byte de tamanho (255 = null) + UTF-8
+ *      símbolos        4 bytes de quantidade, 1 byte de tamanho do alfabeto,
+ *                      os níveis (1 byte com sinal cada) e 2 bits por símbolo
+ *                      (índice no alfabeto, do bit mais alto para o mais baixo)
+ *
+ * Os campos de texto da Message (original, criptografado e binário) não
+ * fazem parte do layout: como no JSON (Message.toWire), nunca vão para a rede.
+ * O alfabeto é o mesmo do formato packed da SignalCompression: até 4 níveis
+ * entre -3 e +3, o que cobre todos os códigos de linha. Um quadro não passa
+ * de MAX_SIZE bytes, para não ser fragmentado pelo IP: cabem cerca de 5 mil
+ * símbolos, contra 2 a 3 caracteres por símbolo no JSON do TCP.
+ */
+final class DatagramFrame {
+
+    /**
+     * Maior quadro: cabe em um quadro Ethernet (MTU 1500) sem fragmentação,
+     * descontados os cabeçalhos IPv6 (40 bytes) e UDP (8 bytes)
+     */
+    static final int MAX_SIZE = 1452;
+
+    private static final byte MAGIC_0 = 'A';
+    private static final byte MAGIC_1 = 'M';
+    private static final byte VERSION = 2;
+    private static final int STREAM_OFFSET = 3;
+    private static final int NULL_FIELD = 0xFF;
+
+    private DatagramFrame() {
+    }
+
+    /**
+     * Grava a mensagem no buffer (a partir da posição atual)
+     * @param message Mensagem com sequência e CRC32C já definidos
+     * @param stream Identificador do fluxo do remetente
+     * @param buffer Destino (com array acessível)
+     * @throws IllegalArgumentException Se a mensagem não couber em um datagrama
+     */
+    static void write(Message message, int stream, ByteBuffer buffer) {
+        int[] signal = message.getEncodedSignal();
+        byte[] alphabet = SignalCompression.alphabet(signal);
+        if (alphabet == null) {
+            throw new IllegalArgumentException("Sinal com níveis fora do alfabeto de 2 bits (use TCP)");
+        }
+        String[] fields = fields(message);
+        int packed = (signal.length + 3) / 4;
+        int size = 19 + 4 + 1 + alphabet.length + packed;
+        for (String field : fields) {
+            size += 1 + (field != null ? field.getBytes(StandardCharsets.UTF_8).length : 0);
+        }
+        if (size > Math.min(MAX_SIZE, buffer.remaining())) {
+            throw new IllegalArgumentException("Sinal de " + signal.length
+                    + " símbolos não cabe em um datagrama (use TCP para mensagens longas)");
+        }
+
+        buffer.put(MAGIC_0).put(MAGIC_1).put(VERSION);
+        buffer.putInt(stream);
+        buffer.putLong(message.getSequence());
+        buffer.putInt((int) (long) message.getChecksum());
+        for (String field : fields) {
+            putField(buffer, field);
+        }
+        buffer.putInt(signal.length);
+        buffer.put((byte) alphabet.length).put(alphabet);
+
+        byte[] index = SignalCompression.indexTable(alphabet);
+        byte[] array = buffer.array();
+        int base = buffer.arrayOffset() + buffer.position();
+        Arrays.fill(array, base, base + packed, (byte) 0);
+        for (int i = 0; i < signal.length; i++) {
+            array[base + (i >> 2)] |= (byte) (index[signal[i] - SignalCompression.MIN_LEVEL] << (6 - 2 * (i & 3)));
+        }
+        buffer.position(buffer.position() + packed);
+    }
+
+    /**
+     * Identificador do fluxo, sem consumir o buffer
+     * @param buffer Datagrama recebido (posição no início do quadro)
+     * @return Fluxo do remetente
+     * @throws IllegalArgumentException Se não for um quadro AMI
+     */
+    static int stream(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < 19 || buffer.get(start) != MAGIC_0 || buffer.get(start + 1) != MAGIC_1) {
+            throw new IllegalArgumentException("Datagrama não é um quadro AMI");
+        }
+        if (buffer.get(start + 2) != VERSION) {
+            throw new IllegalArgumentException("Versão de quadro não suportada: " + buffer.get(start + 2));
+        }
+        return buffer.getInt(start + STREAM_OFFSET);
+    }
+
+    /**
+     * Lê a mensagem de um datagrama
+     * @param buffer Datagrama recebido (posição no início do quadro)
+     * @return Mensagem com sequência, CRC32C, identificadores e sinal
+     * @throws IllegalArgumentException Se o quadro estiver truncado ou malformado
+     */
+    static Message read(ByteBuffer buffer) {
+        stream(buffer);
+        try {
+            buffer.position(buffer.position() + STREAM_OFFSET + 4);
+            Message message = new Message();
+            message.setSequence(buffer.getLong());
+            message.setChecksum(buffer.getInt() & 0xFFFFFFFFL);
+            message.setLineCode(getField(buffer));
+            message.setScrambler(getField(buffer));
+            message.setFec(getField(buffer));
+            message.setEncryption(getField(buffer));
+            message.setPayload(getField(buffer));
+
+            int count = buffer.getInt();
+            int size = buffer.get() & 0xFF;
+            if (size > SignalCompression.MAX_ALPHABET || (size == 0 && count > 0)) {
+                throw new IllegalArgumentException("Alfabeto inválido: " + size + " níveis");
+            }
+            int[] levels = new int[size];
+            for (int i = 0; i < size; i++) {
+                levels[i] = buffer.get();
+            }
+            int packed = (int) ((count + 3L) / 4);
+            if (count < 0 || packed > buffer.remaining()) {
+                throw new IllegalArgumentException("Quadro truncado: " + count + " símbolos anunciados");
+            }
+            int[] signal = new int[count];
+            byte[] array = buffer.array();
+            int base = buffer.arrayOffset() + buffer.position();
+            for (int i = 0; i < count; i++) {
+                int code = (array[base + (i >> 2)] >> (6 - 2 * (i & 3))) & 3;
+                if (code >= size) {
+                    throw new IllegalArgumentException("Símbolo fora do alfabeto");
+                }
+                signal[i] = levels[code];
+            }
+            buffer.position(buffer.position() + packed);
+            message.setEncodedSignal(signal);
+            return message;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Quadro truncado");
+        }
+    }
+
+    private static String[] fields(Message message) {
+        return new String[] {
+                message.getLineCode(), message.getScrambler(), message.getFec(),
+                message.getEncryption(), message.getPayload()
+        };
+    }
+
+    private static void putField(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.put((byte) NULL_FIELD);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_FIELD) {
+            throw new IllegalArgumentException("Identificador longo demais: " + value);
+        }
+        buffer.put((byte) bytes.length).put(bytes);
+    }
+
+    private static String getField(ByteBuffer buffer) {
+        int length = buffer.get() & 0xFF;
+        if (length == NULL_FIELD) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Quadro truncado");
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,96 @@
+package com.telecomunicacoes.ami.network;
+
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+import com.telecomunicacoes.ami.model.Message;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Envio de mensagens por UDP (DatagramChannel), sem conexão nem ACK
+ *
+ * FUNCIONAMENTO:
+ * - Cada mensagem recebe o próximo número de sequência do fluxo, é
+ *   assinada (CRC32C) e vai em um único datagrama no formato binário
+ *   de DatagramFrame, montado em um buffer reaproveitado
+ * - Não há retransmissão: perdas e inversões de ordem são detectadas e
+ *   contadas pelo DatagramServer, que as expõe ao decodificador
+ * - O identificador de fluxo é aleatório: se o remetente reiniciar, o
+ *   receptor recomeça a contagem em vez de ver uma sequência "atrasada"
+ *
+ * Para entrega confiável (ACK, retransmissão, mensagens longas), use o Client (TCP).
+ */
+public class DatagramSender implements AutoCloseable {
+
+    private static final int SEND_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private final DatagramChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(DatagramFrame.MAX_SIZE);
+    private final int stream = ThreadLocalRandom.current().nextInt();
+    private long nextSequence;
+
+    /**
+     * @param serverAddress Endereço do servidor
+     * @param serverPort Porta UDP do servidor
+     * @throws IOException Se o socket não puder ser aberto
+     */
+    public DatagramSender(String serverAddress, int serverPort) throws IOException {
+        channel = DatagramChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER_SIZE);
+            channel.connect(new InetSocketAddress(serverAddress, serverPort));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Envia uma mensagem em um datagrama
+     * A sequência e o CRC32C do quadro são gravados na mensagem
+     * @param message Mensagem codificada (sem trecho de arquivo)
+     * @return Número de sequência usado
+     * @throws IllegalArgumentException Se a mensagem não couber em um datagrama
+     * @throws IOException Se houver erro no envio (ex.: porta inalcançável)
+     */
+    public synchronized long send(Message message) throws IOException {
+        if (message.getFile() != null) {
+            throw new IllegalArgumentException("Trechos de arquivo exigem TCP (FileSender)");
+        }
+        long start = System.nanoTime();
+        long sequence = nextSequence;
+        message.setSequence(sequence);
+        FrameChecksum.sign(message);
+        buffer.clear();
+        DatagramFrame.write(message, stream, buffer);
+        buffer.flip();
+        PipelineMetrics.record(Stage.SERIALIZE, start);
+
+        start = System.nanoTime();
+        int size = buffer.remaining();
+        channel.write(buffer);
+        PipelineMetrics.record(Stage.SEND, start);
+        PipelineMetrics.addBytesOut(size);
+
+        nextSequence++;
+        return sequence;
+    }
+
+    /**
+     * Quantidade de mensagens enviadas neste fluxo
+     * @return Próximo número de sequência
+     */
+    public synchronized long getSentCount() {
+        return nextSequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,424 @@
+package com.telecomunicacoes.ami.network;
+
+import com.telecomunicacoes.ami.channel.ChannelStage;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.StatusDispatcher.Level;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Servidor UDP: recebe quadros do DatagramSender, detecta perdas,
+ * inversões de ordem e duplicatas pelos números de sequência
+ *
+ * FUNCIONAMENTO:
+ * 1. Cada datagrama é lido (DatagramFrame) e o CRC32C é conferido; um
+ *    quadro inválido é descartado e contado (não há NACK em UDP)
+ * 2. A sequência é comparada com a maior já vista naquele fluxo
+ *    (remetente + identificador de fluxo):
+ *    - maior + 1: em ordem
+ *    - maior + k (k > 1): lacuna de k - 1 mensagens, avisada ao GapHandler
+ *      antes da entrega, para o decodificador saber o que faltou
+ *    - menor, ainda não vista: chegou fora de ordem; é entregue (com a
+ *      sequência na mensagem) e deixa de contar como perdida no seu fluxo
+ *    - menor, já vista: duplicata, descartada
+ * 3. A mensagem passa pelo canal simulado e vai ao handler
+ *
+ * REGRAS:
+ * - As sequências já vistas ficam em uma janela de SEQUENCE_WINDOW bits
+ *   abaixo da maior. Uma mais antiga que isso pode já ter sido entregue:
+ *   é descartada e contada como duplicata (se era uma lacuna, segue perdida)
+ * - As perdas são contadas por fluxo; o total do servidor é a soma delas
+ * - Um fluxo sem datagramas há IDLE_TIMEOUT_NANOS é esquecido, para que
+ *   remetentes reiniciados ou de portas efêmeras não acumulem memória
+ *
+ * Uma única thread recebe e decodifica: nada é compartilhado entre datagramas.
+ */
+public class DatagramServer {
+
+    private static final int DEFAULT_PORT = 5555;
+    private static final int RECEIVE_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final int SEQUENCE_WINDOW = 64;
+    private static final long IDLE_TIMEOUT_NANOS = 60_000_000_000L;
+
+    /**
+     * Aviso de mensagens que não chegaram
+     */
+    @FunctionalInterface
+    public interface GapHandler {
+        /**
+         * @param source Remetente
+         * @param firstMissing Primeira sequência ausente
+         * @param count Quantidade de sequências ausentes
+         */
+        void onGap(SocketAddress source, long firstMissing, long count);
+    }
+
+    private final int port;
+    private DatagramChannel socket;
+    private Thread receiverThread;
+    private volatile boolean running;
+    private Consumer<Message> messageHandler;
+    private GapHandler gapHandler;
+    private ChannelStage channel;
+    private Consumer<String> statusHandler;
+    private boolean consoleLogging = true;
+
+    // Acessados só pela thread de recepção
+    private final Map<SocketAddress, SequenceTracker> trackers = new HashMap<>();
+    private long lastEviction;
+
+    // Escritos só pela thread de recepção
+    private volatile long received;
+    private volatile long lost;
+    private volatile long reordered;
+    private volatile long duplicates;
+    private volatile long rejected;
+
+    public DatagramServer() {
+        this(DEFAULT_PORT);
+    }
+
+    public DatagramServer(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Define o handler para processar mensagens recebidas
+     * @param handler Função que processa a mensagem (chamada pela thread de recepção)
+     */
+    public void setMessageHandler(Consumer<Message> handler) {
+        this.messageHandler = handler;
+    }
+
+    /**
+     * Define o handler avisado das lacunas de sequência
+     * @param handler Função chamada antes da mensagem que revelou a lacuna
+     */
+    public void setGapHandler(GapHandler handler) {
+        this.gapHandler = handler;
+    }
+
+    /**
+     * Define um canal simulado aplicado a cada sinal recebido,
+     * antes do handler (null = canal perfeito)
+     * @param channel Estágio de canal
+     */
+    public void setChannel(ChannelStage channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Define o handler para atualizar status do servidor
+     * @param handler Função que processa mensagens de status
+     */
+    public void setStatusHandler(Consumer<String> handler) {
+        this.statusHandler = handler;
+    }
+
+    /**
+     * Habilita ou desabilita a impressão do status no console
+     * @param enabled false para silenciar
+     */
+    public void setConsoleLogging(boolean enabled) {
+        this.consoleLogging = enabled;
+    }
+
+    /**
+     * Abre a porta UDP e inicia a thread de recepção
+     * @throws IOException Se a porta não puder ser aberta
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            updateStatus(Level.WARN, "Servidor já está rodando!");
+            return;
+        }
+        DatagramChannel opened = DatagramChannel.open();
+        try {
+            opened.setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER_SIZE);
+            opened.bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+        socket = opened;
+        trackers.clear();
+        lastEviction = System.nanoTime();
+        running = true;
+
+        receiverThread = new Thread(this::receiveLoop, "udp-" + getPort());
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+        updateStatus(Level.INFO, "Servidor UDP iniciado na porta " + getPort());
+    }
+
+    /**
+     * Para o servidor
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        updateStatus(Level.INFO, "Parando servidor...");
+        try {
+            // Fechar o canal interrompe o receive bloqueado
+            socket.close();
+        } catch (IOException e) {
+            updateStatus(Level.DEBUG, "Erro ao fechar socket: " + e.getMessage());
+        }
+        try {
+            receiverThread.join(2000); // Aguarda até 2 segundos
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        updateStatus(Level.INFO, "Servidor parado");
+    }
+
+    private void receiveLoop() {
+        ByteBuffer buffer = ByteBuffer.allocate(DatagramFrame.MAX_SIZE);
+        while (running) {
+            SocketAddress source;
+            try {
+                buffer.clear();
+                source = socket.receive(buffer);
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                if (running) {
+                    updateStatus(Level.ERROR, "Erro no servidor UDP: " + e.getMessage());
+                }
+                continue;
+            }
+            buffer.flip();
+            handleDatagram(source, buffer);
+            evictIdleTrackers();
+        }
+    }
+
+    /**
+     * Esquece os fluxos sem datagramas há IDLE_TIMEOUT_NANOS (no máximo
+     * uma varredura a cada meio intervalo); as perdas já somadas continuam no total
+     */
+    private void evictIdleTrackers() {
+        long now = System.nanoTime();
+        if (now - lastEviction < IDLE_TIMEOUT_NANOS / 2) {
+            return;
+        }
+        lastEviction = now;
+        int before = trackers.size();
+        trackers.values().removeIf(tracker -> now - tracker.lastSeen >= IDLE_TIMEOUT_NANOS);
+        if (trackers.size() < before) {
+            updateStatus(Level.DEBUG, (before - trackers.size()) + " fluxo(s) inativo(s) esquecido(s)");
+        }
+    }
+
+    /**
+     * Processa um datagrama recebido
+     * @param source Remetente
+     * @param buffer Conteúdo do datagrama
+     */
+    private void handleDatagram(SocketAddress source, ByteBuffer buffer) {
+        PipelineMetrics.addBytesIn(buffer.remaining());
+
+        long start = System.nanoTime();
+        int stream;
+        Message message;
+        try {
+            stream = DatagramFrame.stream(buffer);
+            message = DatagramFrame.read(buffer);
+        } catch (IllegalArgumentException e) {
+            reject(source, e.getMessage());
+            return;
+        }
+        PipelineMetrics.record(Stage.DESERIALIZE, start);
+        if (!FrameChecksum.verify(message)) {
+            reject(source, Server.NACK_CHECKSUM);
+            return;
+        }
+
+        SequenceTracker tracker = trackers.get(source);
+        if (tracker == null || tracker.stream != stream) {
+            if (tracker != null) {
+                updateStatus(Level.INFO, "Novo fluxo de " + source + " (remetente reiniciado)");
+            }
+            tracker = new SequenceTracker(stream);
+            trackers.put(source, tracker);
+        }
+        tracker.lastSeen = System.nanoTime();
+
+        long sequence = message.getSequence();
+        long expected = tracker.highest + 1;
+        switch (tracker.accept(sequence)) {
+            case DUPLICATE:
+                duplicates++;
+                updateStatus(Level.DEBUG, "Duplicata descartada: sequência " + sequence);
+                return;
+            case LATE:
+                reordered++;
+                updateStatus(Level.DEBUG, "Sequência " + sequence + " fora de ordem");
+                break;
+            case RECOVERED:
+                reordered++;
+                tracker.lost--;
+                lost--;
+                updateStatus(Level.DEBUG, "Sequência " + sequence + " fora de ordem");
+                break;
+            case AFTER_GAP:
+                long missing = sequence - expected;
+                tracker.lost += missing;
+                lost += missing;
+                updateStatus(Level.WARN, "Lacuna de " + source + ": " + missing
+                        + " mensagem(ns) perdida(s) a partir da sequência " + expected);
+                if (gapHandler != null) {
+                    gapHandler.onGap(source, expected, missing);
+                }
+                break;
+            default:
+                break;
+        }
+        received++;
+
+        if (channel != null) {
+            applyChannel(message);
+        }
+        if (messageHandler != null) {
+            messageHandler.accept(message);
+        }
+    }
+
+    private void reject(SocketAddress source, String reason) {
+        rejected++;
+        PipelineMetrics.frameRejected();
+        updateStatus(Level.WARN, "Datagrama de " + source + " rejeitado (" + reason + ")");
+    }
+
+    /**
+     * Aplica o canal simulado: atraso de propagação e imperfeições no sinal
+     * @param message Mensagem recebida (o sinal é substituído)
+     */
+    private void applyChannel(Message message) {
+        long delay = channel.nextDelayNanos();
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        message.setEncodedSignal(channel.transmit(message.getEncodedSignal()));
+    }
+
+    /**
+     * Contadores de recepção
+     * @return Datagramas entregues, perdidos, fora de ordem, duplicados e rejeitados
+     */
+    public String getStatistics() {
+        return String.format("datagramas=%d | perdidos=%d | fora de ordem=%d | duplicados=%d | rejeitados=%d",
+                received, lost, reordered, duplicates, rejected);
+    }
+
+    /**
+     * Mensagens que não chegaram (lacunas ainda não preenchidas por chegadas fora de ordem)
+     * @return Soma das perdas de todos os fluxos, inclusive os já esquecidos
+     */
+    public long getLost() {
+        return lost;
+    }
+
+    /**
+     * Verifica se o servidor está rodando
+     * @return true se estiver rodando
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Retorna a porta do servidor
+     * @return Porta efetiva (a escolhida pelo sistema, se configurada como 0)
+     */
+    public int getPort() {
+        DatagramChannel current = socket;
+        if (current != null && current.isOpen()) {
+            try {
+                return ((InetSocketAddress) current.getLocalAddress()).getPort();
+            } catch (IOException ignored) {
+                // Usa a porta configurada
+            }
+        }
+        return port;
+    }
+
+    /**
+     * Publica status de forma assíncrona (não bloqueia a thread de recepção)
+     * @param level Nível da mensagem
+     * @param status Mensagem de status
+     */
+    private void updateStatus(Level level, String status) {
+        StatusDispatcher.shared().publish(level, "DatagramServer", status, consoleLogging, statusHandler);
+    }
+
+    /**
+     * Resultado da chegada de uma sequência
+     * LATE: fora de ordem, anterior ao primeiro datagrama do fluxo (nunca contada
+     * como perdida); RECOVERED: fora de ordem, preenche uma lacuna já contada
+     */
+    private enum Arrival {
+        IN_ORDER, AFTER_GAP, LATE, RECOVERED, DUPLICATE
+    }
+
+    /**
+     * Sequências de um fluxo: a maior vista, uma janela de bits abaixo dela
+     * e as perdas ainda não recuperadas
+     */
+    private static final class SequenceTracker {
+        private final int stream;
+        private long first = -1;
+        private long highest = -1;
+        private long seen; // bit i: sequência highest - i recebida
+        private long lost;
+        private long lastSeen;
+
+        SequenceTracker(int stream) {
+            this.stream = stream;
+        }
+
+        Arrival accept(long sequence) {
+            if (highest < 0) {
+                // Primeiro datagrama do fluxo: o que veio antes não é cobrado
+                first = sequence;
+                highest = sequence;
+                seen = 1;
+                return Arrival.IN_ORDER;
+            }
+            if (sequence > highest) {
+                long shift = sequence - highest;
+                seen = shift >= SEQUENCE_WINDOW ? 1 : (seen << shift) | 1;
+                highest = sequence;
+                return shift == 1 ? Arrival.IN_ORDER : Arrival.AFTER_GAP;
+            }
+            long offset = highest - sequence;
+            if (offset >= SEQUENCE_WINDOW) {
+                // Fora da janela: não há como saber se já foi entregue
+                return Arrival.DUPLICATE;
+            }
+            long bit = 1L << offset;
+            if ((seen & bit) != 0) {
+                return Arrival.DUPLICATE;
+            }
+            seen |= bit;
+            return sequence > first && lost > 0 ? Arrival.RECOVERED : Arrival.LATE;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.telecomunicacoes.ami.network;
+
+import com.google.gson.Gson;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.StatusDispatcher.Level;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Envio de uma mesma mensagem a vários servidores (fan-out)
+ *
+ * FUNCIONAMENTO:
+ * 1. A mensagem é assinada (CRC32C) e serializada uma única vez, em um
+ *    quadro de bytes imutável (JSON + quebra de linha)
+ * 2. Cada destino tem sua própria thread, conexão persistente e fila:
+ *    o mesmo vetor de bytes é escrito em todos os sockets, sem cópias
+ * 3. Cada destino confirma com ACK; o resultado de cada um (Delivery)
+ *    é reunido em um CompletableFuture
+ *
+ * ISOLAMENTO DE RECEPTORES LENTOS:
+ * - Cada destino aceita no máximo maxPending quadros pendentes; acima
+ *   disso o quadro é descartado só para aquele destino (DROPPED), sem
+ *   atrasar os demais nem bloquear quem envia
+ * - Timeout ou erro fecha apenas a conexão daquele destino, que é
+ *   reaberta no próximo quadro
+ */
+public class FanOutSender implements AutoCloseable {
+
+    private static final int RESPONSE_TIMEOUT = 5000; // 5 segundos
+    private static final int DEFAULT_MAX_PENDING = 64;
+
+    /**
+     * Situação da entrega a um destino
+     */
+    public enum Status {
+        ACK, NACK, TIMEOUT, ERROR, DROPPED
+    }
+
+    /**
+     * Resultado da entrega de um quadro a um destino
+     */
+    public static class Delivery {
+        private final String destination;
+        private final Status status;
+        private final long latencyNanos;
+        private final String detail;
+
+        private Delivery(String destination, Status status, long latencyNanos, String detail) {
+            this.destination = destination;
+            this.status = status;
+            this.latencyNanos = latencyNanos;
+            this.detail = detail;
+        }
+
+        public String getDestination() {
+            return destination;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Tempo entre a escrita do quadro e a resposta
+         * @return Nanossegundos (0 se o quadro não foi escrito)
+         */
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        /**
+         * Motivo do NACK ou mensagem de erro
+         * @return Detalhe (null em ACK)
+         */
+        public String getDetail() {
+            return detail;
+        }
+
+        public boolean isAcknowledged() {
+            return status == Status.ACK;
+        }
+
+        @Override
+        public String toString() {
+            return destination + ": " + status + (detail != null ? " (" + detail + ")" : "");
+        }
+    }
+
+    private final List<Destination> destinations = new ArrayList<>();
+    private final Gson gson = new Gson();
+    private int maxPending = DEFAULT_MAX_PENDING;
+    private Consumer<String> statusHandler;
+    private boolean consoleLogging = true;
+
+    /**
+     * @param addresses Servidores de destino
+     */
+    public FanOutSender(List<InetSocketAddress> addresses) {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum destino para o envio");
+        }
+        for (InetSocketAddress address : addresses) {
+            destinations.add(new Destination(address));
+        }
+    }
+
+    /**
+     * Envia a mesma mensagem a todos os destinos
+     * O CRC32C é gravado na mensagem e a serialização acontece uma única vez
+     * @param message Mensagem codificada
+     * @return Resultados, um por destino, na ordem dos destinos
+     */
+    public CompletableFuture<List<Delivery>> send(Message message) {
+        long start = System.nanoTime();
+        FrameChecksum.sign(message);
+        byte[] frame = (gson.toJson(message.toWire()) + "\n").getBytes(StandardCharsets.UTF_8);
+        PipelineMetrics.record(Stage.SERIALIZE, start);
+
+        List<CompletableFuture<Delivery>> futures = new ArrayList<>(destinations.size());
+        for (Destination destination : destinations) {
+            futures.add(destination.submit(frame));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<Delivery> deliveries = new ArrayList<>(futures.size());
+                    for (CompletableFuture<Delivery> future : futures) {
+                        deliveries.add(future.join());
+                    }
+                    return Collections.unmodifiableList(deliveries);
+                });
+    }
+
+    /**
+     * Envia e aguarda todos os destinos
+     * @param message Mensagem codificada
+     * @return Resultados, um por destino
+     */
+    public List<Delivery> sendSync(Message message) {
+        return send(message).join();
+    }
+
+    /**
+     * Contadores por destino
+     * @return Uma linha por destino
+     */
+    public String getStatistics() {
+        StringBuilder sb = new StringBuilder();
+        for (Destination destination : destinations) {
+            sb.append(String.format("%s: ACK=%d | NACK=%d | timeout=%d | erros=%d | descartados=%d%n",
+                    destination.name, destination.acked.sum(), destination.nacked.sum(),
+                    destination.timeouts.sum(), destination.errors.sum(), destination.dropped.sum()));
+        }
+        return sb.toString().stripTrailing();
+    }
+
+    /**
+     * Define o limite de quadros pendentes por destino
+     * @param maxPending Quadros aguardando envio ou ACK (padrão: 64)
+     */
+    public void setMaxPending(int maxPending) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("Limite de pendentes deve ser positivo");
+        }
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Define o handler para atualizar status
+     * @param handler Função que processa mensagens de status
+     */
+    public void setStatusHandler(Consumer<String> handler) {
+        this.statusHandler = handler;
+    }
+
+    /**
+     * Habilita ou desabilita a impressão do status no console
+     * @param enabled false para silenciar
+     */
+    public void setConsoleLogging(boolean enabled) {
+        this.consoleLogging = enabled;
+    }
+
+    /**
+     * Aguarda os quadros pendentes e fecha as conexões
+     */
+    @Override
+    public void close() {
+        for (Destination destination : destinations) {
+            destination.executor.shutdown();
+        }
+        for (Destination destination : destinations) {
+            try {
+                destination.executor.awaitTermination(RESPONSE_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            destination.disconnect();
+        }
+    }
+
+    private void updateStatus(Level level, String status) {
+        StatusDispatcher.shared().publish(level, "FanOut", status, consoleLogging, statusHandler);
+    }
+
+    /**
+     * Um destino: conexão, thread e contadores próprios
+     */
+    private class Destination {
+        private final InetSocketAddress address;
+        private final String name;
+        private final ExecutorService executor;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final LongAdder acked = new LongAdder();
+        private final LongAdder nacked = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        // Acessados só pela thread do destino
+        private Socket socket;
+        private OutputStream out;
+        private BufferedReader in;
+
+        Destination(InetSocketAddress address) {
+            this.address = address;
+            this.name = address.getHostString() + ":" + address.getPort();
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fanout-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        CompletableFuture<Delivery> submit(byte[] frame) {
+            if (pending.incrementAndGet() > maxPending) {
+                pending.decrementAndGet();
+                dropped.increment();
+                return CompletableFuture.completedFuture(
+                        new Delivery(name, Status.DROPPED, 0, "mais de " + maxPending + " pendentes"));
+            }
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return deliver(frame);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }, executor);
+        }
+
+        private Delivery deliver(byte[] frame) {
+            long start = System.nanoTime();
+            try {
+                if (socket == null) {
+                    connect();
+                }
+                out.write(frame);
+                out.flush();
+                PipelineMetrics.addBytesOut(frame.length);
+
+                String response = in.readLine();
+                long latency = System.nanoTime() - start;
+                if ("ACK".equals(response)) {
+                    acked.increment();
+                    return new Delivery(name, Status.ACK, latency, null);
+                }
+                if (response != null && response.startsWith("NACK")) {
+                    nacked.increment();
+                    return new Delivery(name, Status.NACK, latency, response.substring(4).trim());
+                }
+                disconnect();
+                errors.increment();
+                return new Delivery(name, Status.ERROR, latency,
+                        response == null ? "conexão encerrada" : "resposta inesperada: " + response);
+            } catch (SocketTimeoutException e) {
+                // A resposta pode chegar depois e desalinhar a conexão: recomeça
+                disconnect();
+                timeouts.increment();
+                updateStatus(Level.WARN, name + ": timeout aguardando ACK");
+                return new Delivery(name, Status.TIMEOUT, System.nanoTime() - start, null);
+            } catch (IOException e) {
+                disconnect();
+                errors.increment();
+                updateStatus(Level.WARN, name + ": " + e.getMessage());
+                return new Delivery(name, Status.ERROR, 0, e.getMessage());
+            }
+        }
+
+        private void connect() throws IOException {
+            Socket connection = new Socket();
+            try {
+                connection.connect(address, RESPONSE_TIMEOUT);
+                connection.setSoTimeout(RESPONSE_TIMEOUT);
+                connection.setTcpNoDelay(true);
+                out = connection.getOutputStream();
+                in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+                socket = connection;
+            } catch (IOException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        private void disconnect() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // Já encerrando
+                }
+                socket = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.telecomunicacoes.ami.network;
+
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.pipeline.MessagePipeline;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Recepção de arquivos enviados em trechos pelo FileSender
+ *
+ * FUNCIONAMENTO:
+ * 1. Cada trecho chega como uma Message com nome, tamanho e posição no
+ *    arquivo, e é decodificado pelo pipeline (modo de bytes crus)
+ * 2. Os bytes são gravados na sua posição de "<nome>.part" com escrita
+ *    posicional (FileChannel.write(buffer, posição)): nada além do
+ *    trecho atual fica em memória
+ * 3. A resposta é o número de bytes contíguos já gravados; o remetente
+ *    continua a partir dela. Um trecho vazio na posição 0 serve de
+ *    consulta: depois de uma queda, a transferência é retomada de onde parou
+ * 4. Completo o arquivo, "<nome>.part" é renomeado para o nome final
+ *
+ * REGRAS:
+ * - Só o nome do arquivo é aceito (sem diretórios), dentro do diretório de destino
+ * - Trechos além da parte contígua são ignorados (o remetente volta à posição informada)
+ * - Cada trecho traz a identidade do conteúdo (SHA-256 do arquivo inteiro):
+ *   um arquivo final já existente só é considerado completo se o seu
+ *   SHA-256 for o mesmo, e um "<nome>.part" só é retomado se a identidade
+ *   gravada ao lado dele ("<nome>.part.id") for a mesma; caso contrário,
+ *   a transferência recomeça do zero
+ */
+public class FileReceiver {
+
+    private static final Pattern CONTENT_ID = Pattern.compile("[0-9a-f]{64}");
+    private static final int DIGEST_BUFFER_SIZE = 1024 * 1024;
+
+    private final Path directory;
+    private final MessagePipeline pipeline;
+
+    /**
+     * @param directory Diretório de destino (criado se não existir)
+     * @param pipeline Pipeline de recepção (a chave deve ser a do remetente)
+     */
+    public FileReceiver(Path directory, MessagePipeline pipeline) {
+        this.directory = directory;
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Processa um trecho de arquivo
+     * Chamado pelas threads de conexão do servidor (um trecho por vez)
+     * @param message Trecho recebido (getFile() != null)
+     * @return Bytes contíguos gravados desde o início do arquivo
+     * @throws IllegalArgumentException Se o trecho for inválido ou não puder ser decodificado
+     * @throws IOException Se houver erro de gravação
+     */
+    public synchronized long receive(Message message) throws IOException {
+        String name = validateName(message.getFile());
+        Long size = message.getFileSize();
+        Long offset = message.getFileOffset();
+        if (size == null || offset == null || size < 0 || offset < 0) {
+            throw new IllegalArgumentException("Trecho de arquivo sem tamanho ou posição válidos");
+        }
+
+        String id = message.getFileId();
+        if (id == null || !CONTENT_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Trecho de arquivo sem identidade do conteúdo (SHA-256)");
+        }
+
+        Path target = directory.resolve(name);
+        Path part = directory.resolve(name + ".part");
+        Path partId = directory.resolve(name + ".part.id");
+        if (Files.notExists(part) && Files.exists(target) && Files.size(target) == size
+                && id.equals(contentId(target))) {
+            return size;
+        }
+        // Parte de outro conteúdo (ou sem identidade): recomeça do zero
+        if (Files.exists(part) && !(Files.exists(partId) && id.equals(Files.readString(partId, StandardCharsets.US_ASCII)))) {
+            Files.delete(part);
+        }
+
+        MessagePipeline.Reception reception = pipeline.receive(message);
+        if (!reception.isSuccess()) {
+            throw new IllegalArgumentException(reception.getError());
+        }
+        byte[] data = reception.getPlainBytes();
+        if (data == null) {
+            throw new IllegalArgumentException("Trecho de arquivo sem carga em bytes crus");
+        }
+        if (offset + data.length > size) {
+            throw new IllegalArgumentException("Trecho ultrapassa o tamanho do arquivo");
+        }
+
+        Files.createDirectories(directory);
+        if (Files.notExists(part)) {
+            Files.writeString(partId, id, StandardCharsets.US_ASCII);
+        }
+        long contiguous;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            contiguous = channel.size();
+            if (contiguous > size) {
+                channel.truncate(size);
+                contiguous = size;
+            }
+            if (offset <= contiguous && data.length > 0) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                long position = offset;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                contiguous = Math.max(contiguous, position);
+            }
+            if (contiguous == size) {
+                channel.force(false);
+            }
+        }
+
+        if (contiguous == size) {
+            try {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.deleteIfExists(partId);
+        }
+        return contiguous;
+    }
+
+    /**
+     * Identidade do conteúdo de um arquivo
+     * @param file Arquivo
+     * @return SHA-256 em hexadecimal (minúsculas)
+     * @throws IOException Se houver erro de leitura
+     */
+    static String contentId(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DIGEST_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Aceita apenas um nome de arquivo simples (sem diretórios)
+     */
+    private static String validateName(String name) {
+        if (name == null || name.isEmpty() || name.equals(".") || name.equals("..")
+                || name.indexOf('/') >= 0 || name.indexOf('\\') >= 0 || name.indexOf('\0') >= 0) {
+            throw new IllegalArgumentException("Nome de arquivo inválido: " + name);
+        }
+        return name;
+    }
+
+    /**
+     * Diretório de destino
+     * @return Caminho do diretório
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+}
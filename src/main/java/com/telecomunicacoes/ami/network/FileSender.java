@@ -0,0 +1,327 @@
+package com.telecomunicacoes.ami.network;
+
+import com.google.gson.Gson;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.StatusDispatcher.Level;
+import com.telecomunicacoes.ami.pipeline.MessagePipeline;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Envio de arquivos em trechos pelo pipeline AMI
+ *
+ * FUNCIONAMENTO:
+ * 1. O arquivo é lido por janelas mapeadas em memória (FileChannel.map),
+ *    de MAP_WINDOW bytes; cada trecho de chunkSize bytes é copiado da
+ *    janela para um buffer reaproveitado
+ * 2. Cada trecho passa pelo pipeline (criptografia, embaralhador, FEC e
+ *    código de linha, modo de bytes crus) e segue como uma Message com
+ *    nome, tamanho e posição, em uma única conexão TCP
+ * 3. O servidor responde "ACK <n>" com os bytes contíguos já gravados.
+ *    Um trecho vazio inicial consulta n e retoma uma transferência
+ *    interrompida, se o conteúdo for o mesmo: cada trecho leva o SHA-256
+ *    do arquivo (calculado antes do envio)
+ * 4. Até window trechos seguem sem esperar confirmação; as respostas
+ *    chegam na ordem dos envios. Um "NACK" (CRC, decodificação ou
+ *    autenticação) ou um ACK aquém do fim do trecho faz o remetente ler
+ *    as respostas pendentes e voltar à posição confirmada, até MAX_RETRIES
+ *    vezes seguidas
+ *
+ * COMPRESSÃO:
+ * Com setCompression, o trecho de consulta oferece os formatos e o servidor
+ * responde "ACK <n> compression=<ids>"; os trechos seguintes levam o sinal
+ * comprimido (SignalCompression). Servidores sem compressão respondem
+ * "ACK <n>" e os trechos seguem sem compressão.
+ *
+ * A memória usada é limitada ao trecho atual e ao seu sinal, qualquer que
+ * seja o tamanho do arquivo: os trechos da janela já estão no socket.
+ */
+public class FileSender {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    public static final int DEFAULT_WINDOW = 4;
+
+    private static final long MAP_WINDOW = 64L * 1024 * 1024;
+    private static final int MAX_RETRIES = 5;
+    private static final int RESPONSE_TIMEOUT = 30000; // 30 segundos
+
+    /**
+     * Progresso de uma transferência
+     */
+    @FunctionalInterface
+    public interface Progress {
+        /**
+         * @param received Bytes confirmados pelo servidor
+         * @param total Tamanho do arquivo
+         */
+        void update(long received, long total);
+    }
+
+    private final String serverAddress;
+    private final int serverPort;
+    private final MessagePipeline pipeline;
+    private final Gson gson = new Gson();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int window = DEFAULT_WINDOW;
+    private SignalCompression compression;
+    private Consumer<String> statusHandler;
+    private boolean consoleLogging = true;
+
+    // Formatos combinados na transferência atual (vazio = sem compressão)
+    private List<SignalCompression.Method> negotiated = List.of();
+
+    /**
+     * @param serverAddress Endereço do servidor
+     * @param serverPort Porta do servidor
+     * @param pipeline Pipeline de transmissão (código, embaralhador, FEC e criptografia)
+     */
+    public FileSender(String serverAddress, int serverPort, MessagePipeline pipeline) {
+        this.serverAddress = serverAddress;
+        this.serverPort = serverPort;
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Envia um arquivo, retomando de onde o servidor parou
+     * @param file Arquivo a enviar
+     * @param progress Progresso (pode ser null)
+     * @return Tamanho do arquivo
+     * @throws IOException Se houver erro de leitura, de conexão ou trechos rejeitados repetidamente
+     */
+    public long send(Path file, Progress progress) throws IOException {
+        String name = file.getFileName().toString();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Socket socket = new Socket(serverAddress, serverPort)) {
+            socket.setSoTimeout(RESPONSE_TIMEOUT);
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter out = new BufferedWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+            long size = channel.size();
+            String id = FileReceiver.contentId(file);
+            negotiated = List.of();
+            Message query = chunk(name, size, id, 0, new byte[0]);
+            if (compression != null) {
+                query.setAcceptCompression(compression.getOffer());
+            }
+            write(out, query);
+            out.flush();
+            String response = readResponse(in);
+            long position = parseAck(response);
+            if (position < 0) {
+                throw new IOException("Servidor recusou o arquivo " + name);
+            }
+            negotiate(response);
+            if (position > 0) {
+                updateStatus(Level.INFO, "Retomando " + name + " a partir do byte " + position);
+            }
+            if (progress != null) {
+                progress.update(position, size);
+            }
+
+            byte[] buffer = new byte[chunkSize];
+            MappedByteBuffer mapped = null;
+            long mappedStart = 0;
+            ArrayDeque<Long> pending = new ArrayDeque<>(); // fim de cada trecho sem resposta
+            long next = position;
+            int failures = 0;
+
+            while (position < size) {
+                // Completa a janela de trechos sem confirmação
+                while (pending.size() < window && next < size) {
+                    int length = (int) Math.min(chunkSize, size - next);
+                    if (mapped == null || next < mappedStart || next + length > mappedStart + mapped.capacity()) {
+                        mappedStart = next;
+                        mapped = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(MAP_WINDOW, size - next));
+                    }
+                    byte[] data = length == buffer.length ? buffer : new byte[length];
+                    mapped.get((int) (next - mappedStart), data, 0, length);
+                    write(out, chunk(name, size, id, next, data));
+                    next += length;
+                    pending.add(next);
+                }
+                out.flush();
+
+                long end = pending.poll();
+                long acked = parseAck(readResponse(in));
+                if (acked >= end) {
+                    failures = 0;
+                    position = Math.max(position, acked);
+                    next = Math.max(next, position);
+                    if (progress != null) {
+                        progress.update(position, size);
+                    }
+                    continue;
+                }
+
+                // Trecho rejeitado ou não gravado: os seguintes também se perdem
+                position = Math.max(position, acked);
+                while (!pending.isEmpty()) {
+                    pending.poll();
+                    position = Math.max(position, parseAck(readResponse(in)));
+                }
+                if (++failures > MAX_RETRIES) {
+                    throw new IOException("Trecho na posição " + position + " rejeitado " + failures + " vezes");
+                }
+                updateStatus(Level.DEBUG, "Reenviando a partir da posição " + position);
+                next = position;
+                if (progress != null) {
+                    progress.update(position, size);
+                }
+            }
+
+            updateStatus(Level.INFO, "Arquivo " + name + " enviado (" + size + " bytes)");
+            return size;
+        }
+    }
+
+    /**
+     * Monta a mensagem de um trecho
+     */
+    private Message chunk(String name, long size, String id, long offset, byte[] data) {
+        Message message = pipeline.transmit(data);
+        message.setFile(name);
+        message.setFileId(id);
+        message.setFileSize(size);
+        message.setFileOffset(offset);
+        return message;
+    }
+
+    /**
+     * Assina, comprime (se combinado) e grava um trecho, sem descarregar
+     */
+    private void write(BufferedWriter out, Message message) throws IOException {
+        long start = System.nanoTime();
+        FrameChecksum.sign(message);
+        Message frame = message.toWire();
+        if (!negotiated.isEmpty()) {
+            frame = compression.compress(frame, negotiated);
+        }
+        String json = gson.toJson(frame);
+        PipelineMetrics.record(Stage.SERIALIZE, start);
+
+        start = System.nanoTime();
+        out.write(json);
+        out.newLine();
+        PipelineMetrics.record(Stage.SEND, start);
+        PipelineMetrics.addBytesOut(json.length() + 1);
+    }
+
+    private static String readResponse(BufferedReader in) throws IOException {
+        String response = in.readLine();
+        if (response == null) {
+            throw new IOException("Conexão encerrada pelo servidor");
+        }
+        return response;
+    }
+
+    /**
+     * Interpreta a resposta a um trecho
+     * @param response "ACK <n>", "ACK <n> compression=<ids>" ou "NACK <motivo>"
+     * @return Bytes contíguos confirmados, ou -1 em NACK
+     */
+    private long parseAck(String response) throws IOException {
+        if (response.startsWith("ACK ")) {
+            String value = response.substring(4).trim();
+            int space = value.indexOf(' ');
+            try {
+                return Long.parseLong(space < 0 ? value : value.substring(0, space));
+            } catch (NumberFormatException e) {
+                throw new IOException("Resposta inesperada: " + response);
+            }
+        }
+        if (response.startsWith("NACK")) {
+            String reason = response.substring(4).trim();
+            if (Server.NACK_COMPRESSION.equals(reason) && !negotiated.isEmpty()) {
+                // Segue sem compressão com este servidor
+                negotiated = List.of();
+            }
+            updateStatus(Level.WARN, "Trecho rejeitado pelo servidor (" + reason + ")");
+            return -1;
+        }
+        throw new IOException("Resposta inesperada: " + response);
+    }
+
+    /**
+     * Registra os formatos aceitos na resposta ao trecho de consulta
+     */
+    private void negotiate(String response) {
+        if (compression == null) {
+            return;
+        }
+        String marker = " " + SignalCompression.ACK_FIELD;
+        int field = response.indexOf(marker);
+        negotiated = compression.negotiate(field < 0 ? null : response.substring(field + marker.length()));
+        updateStatus(Level.DEBUG, negotiated.isEmpty()
+                ? "Servidor sem suporte a compressão: trechos enviados sem compressão"
+                : "Compressão combinada com o servidor: " + negotiated);
+    }
+
+    /**
+     * Habilita a compressão do sinal dos trechos (null = sem compressão)
+     * @param compression Compressão adaptativa
+     */
+    public void setCompression(SignalCompression compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Define quantos trechos podem seguir sem confirmação
+     * @param window Trechos em trânsito (padrão: 4; 1 = espera cada ACK)
+     */
+    public void setWindow(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Janela deve ser positiva");
+        }
+        this.window = window;
+    }
+
+    /**
+     * Define o tamanho de cada trecho
+     * @param chunkSize Bytes por trecho (padrão: 64 KiB)
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do trecho deve ser positivo");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Define o handler para atualizar status
+     * @param handler Função que processa mensagens de status
+     */
+    public void setStatusHandler(Consumer<String> handler) {
+        this.statusHandler = handler;
+    }
+
+    /**
+     * Habilita ou desabilita a impressão do status no console
+     * @param enabled false para silenciar
+     */
+    public void setConsoleLogging(boolean enabled) {
+        this.consoleLogging = enabled;
+    }
+
+    private void updateStatus(Level level, String status) {
+        StatusDispatcher.shared().publish(level, "FileSender", status, consoleLogging, statusHandler);
+    }
+}
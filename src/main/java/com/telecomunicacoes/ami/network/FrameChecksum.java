@@ -0,0 +1,100 @@
+package com.telecomunicacoes.ami.network;
+
+import com.telecomunicacoes.ami.model.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * CRC32C de um quadro (Message) transmitido entre Client e Server
+ *
+ * FUNCIONAMENTO:
+ * - Cobre o sinal, empacotado com um byte por nível, e os identificadores
+ *   que definem como decodificá-lo (código de linha, embaralhador, FEC,
+ *   criptografia e formato da carga), além do nome, tamanho, posição e
+ *   identidade do conteúdo dos trechos de arquivo e do número de sequência dos datagramas UDP
+ * - O sinal é empacotado em blocos de BLOCK_SIZE símbolos em um buffer
+ *   por thread: nenhuma alocação por quadro
+ * - java.util.zip.CRC32C é um intrínseco da JVM (instruções CRC32 do
+ *   SSE4.2 em x86, CRC32C do ARMv8): vários GB/s por núcleo
+ *
+ * O cliente calcula antes de serializar; o servidor confere logo após
+ * desserializar, antes de qualquer decodificação, e responde NACK se não bater.
+ */
+public final class FrameChecksum {
+
+    private static final int BLOCK_SIZE = 8192;
+
+    private static final ThreadLocal<byte[]> BLOCK = ThreadLocal.withInitial(() -> new byte[BLOCK_SIZE]);
+
+    private FrameChecksum() {
+    }
+
+    /**
+     * Calcula o CRC32C do quadro
+     * @param message Mensagem
+     * @return CRC32C (32 bits sem sinal)
+     */
+    public static long compute(Message message) {
+        CRC32C crc = new CRC32C();
+        int[] signal = message.getEncodedSignal();
+        if (signal != null) {
+            byte[] block = BLOCK.get();
+            for (int offset = 0; offset < signal.length; offset += BLOCK_SIZE) {
+                int length = Math.min(BLOCK_SIZE, signal.length - offset);
+                for (int i = 0; i < length; i++) {
+                    block[i] = (byte) signal[offset + i];
+                }
+                crc.update(block, 0, length);
+            }
+        }
+        updateField(crc, message.getLineCode());
+        updateField(crc, message.getScrambler());
+        updateField(crc, message.getFec());
+        updateField(crc, message.getEncryption());
+        updateField(crc, message.getPayload());
+        if (message.getFile() != null) {
+            updateField(crc, message.getFile());
+            updateLong(crc, message.getFileSize());
+            updateLong(crc, message.getFileOffset());
+            updateField(crc, message.getFileId());
+        }
+        if (message.getSequence() != null) {
+            updateLong(crc, message.getSequence());
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Calcula e grava o CRC32C na mensagem
+     * @param message Mensagem a enviar
+     */
+    public static void sign(Message message) {
+        message.setChecksum(compute(message));
+    }
+
+    /**
+     * Confere o CRC32C gravado na mensagem
+     * @param message Mensagem recebida
+     * @return true se o CRC confere ou se a mensagem não tem CRC (clientes antigos)
+     */
+    public static boolean verify(Message message) {
+        Long expected = message.getChecksum();
+        return expected == null || expected == compute(message);
+    }
+
+    private static void updateLong(CRC32C crc, Long value) {
+        long v = value != null ? value : -1;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (v >>> shift));
+        }
+    }
+
+    private static void updateField(CRC32C crc, String value) {
+        // Separador antes de cada campo: (null, "x") e ("x", null) geram CRCs diferentes
+        crc.update(0);
+        if (value != null) {
+            crc.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
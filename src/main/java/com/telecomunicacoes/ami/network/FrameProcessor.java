@@ -0,0 +1,189 @@
+package com.telecomunicacoes.ami.network;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.telecomunicacoes.ami.channel.ChannelStage;
+import com.telecomunicacoes.ami.metrics.MessageReceivedEvent;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.StatusDispatcher.Level;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Processamento de um quadro recebido (JSON de uma Message) e sua resposta
+ *
+ * FUNCIONAMENTO:
+ * 1. Desserializa a mensagem e, se o sinal vier comprimido, o restaura
+ *    (SignalCompression): "NACK json" / "NACK compression" se falhar
+ * 2. Confere o CRC32C (FrameChecksum) do sinal restaurado, antes de
+ *    qualquer decodificação: "NACK crc32c" se falhar
+ * 3. Aplica o canal simulado, se houver
+ * 4. Entrega a mensagem ao handler ("ACK") ou, se for um trecho de
+ *    arquivo, ao FileReceiver ("ACK <bytes contíguos>" ou "NACK file")
+ *
+ * Se o remetente oferecer compressão (acceptCompression), o ACK leva os
+ * formatos aceitos: "ACK compression=<ids>" ou, para um trecho de arquivo,
+ * "ACK <bytes contíguos> compression=<ids>".
+ *
+ * Usado pelo Server (uma instância para todas as conexões) e pelo
+ * ShardedServer (uma instância por shard, sem estado compartilhado).
+ */
+final class FrameProcessor {
+
+    private final Gson gson = new Gson();
+    private final BiConsumer<Level, String> status;
+    private Consumer<Message> messageHandler;
+    private ChannelStage channel;
+    private FileReceiver fileReceiver;
+
+    /**
+     * @param status Publicação de status do servidor dono
+     */
+    FrameProcessor(BiConsumer<Level, String> status) {
+        this.status = status;
+    }
+
+    void setMessageHandler(Consumer<Message> handler) {
+        this.messageHandler = handler;
+    }
+
+    void setChannel(ChannelStage channel) {
+        this.channel = channel;
+    }
+
+    void setFileReceiver(FileReceiver receiver) {
+        this.fileReceiver = receiver;
+    }
+
+    /**
+     * Processa uma mensagem JSON recebida
+     * @param json Mensagem
+     * @param start Instante do primeiro dado da mensagem
+     * @param client Endereço do cliente (para o evento JFR)
+     * @return Resposta a enviar, sem quebra de linha
+     */
+    String process(String json, long start, InetAddress client) {
+        MessageReceivedEvent event = new MessageReceivedEvent();
+        event.begin();
+        event.receiveDuration = PipelineMetrics.record(Stage.RECEIVE, start);
+        event.messageSize = json.length() + 1;
+        PipelineMetrics.addBytesIn(event.messageSize);
+
+        // Desserializa a mensagem
+        start = System.nanoTime();
+        Message message;
+        try {
+            message = gson.fromJson(json, Message.class);
+        } catch (JsonParseException e) {
+            message = null;
+        }
+        event.deserializeDuration = PipelineMetrics.record(Stage.DESERIALIZE, start);
+
+        String rejection = message != null ? decompress(message) : Server.NACK_JSON;
+
+        // Integridade do quadro, antes de qualquer decodificação
+        if (rejection == null) {
+            rejection = message.getEncodedSignal() == null
+                    ? Server.NACK_JSON
+                    : (FrameChecksum.verify(message) ? null : Server.NACK_CHECKSUM);
+        }
+        if (rejection != null) {
+            PipelineMetrics.frameRejected();
+            status.accept(Level.WARN, "Mensagem rejeitada (" + rejection + ")");
+            return "NACK " + rejection;
+        }
+
+        if (channel != null) {
+            applyChannel(message);
+        }
+
+        status.accept(Level.DEBUG, "Mensagem recebida (" + message.getEncodedSignal().length + " elementos)");
+
+        // Processa a mensagem via handler (ou grava o trecho de arquivo)
+        start = System.nanoTime();
+        String reply = "ACK";
+        if (message.getFile() != null) {
+            reply = receiveFile(message);
+        } else if (messageHandler != null) {
+            messageHandler.accept(message);
+        }
+        if (message.getAcceptCompression() != null && reply.startsWith("ACK")) {
+            reply += " " + SignalCompression.ACK_FIELD + SignalCompression.accept(message.getAcceptCompression());
+        }
+        event.handlerDuration = System.nanoTime() - start;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.client = client.getHostAddress();
+            event.symbolCount = message.getEncodedSignal().length;
+            event.commit();
+        }
+        return reply;
+    }
+
+    /**
+     * Restaura o sinal de um quadro comprimido
+     * @param message Mensagem recebida (o sinal vai para encodedSignal)
+     * @return Motivo da rejeição, ou null se o quadro for válido
+     */
+    private String decompress(Message message) {
+        if (message.getCompression() == null) {
+            return null;
+        }
+        try {
+            SignalCompression.decompress(message);
+            return null;
+        } catch (IllegalArgumentException e) {
+            status.accept(Level.DEBUG, "Sinal comprimido inválido: " + e.getMessage());
+            return Server.NACK_COMPRESSION;
+        }
+    }
+
+    /**
+     * Grava um trecho de arquivo
+     * @param message Trecho recebido
+     * @return Resposta: "ACK <bytes contíguos>" ou "NACK file"
+     */
+    private String receiveFile(Message message) {
+        if (fileReceiver == null) {
+            status.accept(Level.WARN, "Arquivo " + message.getFile() + " recusado: recepção de arquivos desabilitada");
+            return "NACK " + Server.NACK_FILE;
+        }
+        try {
+            long received = fileReceiver.receive(message);
+            if (received == message.getFileSize() && message.getEncodedSignal().length > 0) {
+                status.accept(Level.INFO, "Arquivo recebido: " + message.getFile() + " (" + received + " bytes)");
+            } else {
+                status.accept(Level.DEBUG, "Arquivo " + message.getFile() + ": " + received + "/" + message.getFileSize() + " bytes");
+            }
+            return "ACK " + received;
+        } catch (IllegalArgumentException e) {
+            status.accept(Level.WARN, "Trecho de " + message.getFile() + " rejeitado: " + e.getMessage());
+            return "NACK " + Server.NACK_FILE;
+        } catch (IOException e) {
+            status.accept(Level.ERROR, "Erro ao gravar " + message.getFile() + ": " + e.getMessage());
+            return "NACK " + Server.NACK_FILE;
+        }
+    }
+
+    /**
+     * Aplica o canal simulado: atraso de propagação e imperfeições no sinal
+     * @param message Mensagem recebida (o sinal é substituído)
+     */
+    private void applyChannel(Message message) {
+        long delay = channel.nextDelayNanos();
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        message.setEncodedSignal(channel.transmit(message.getEncodedSignal()));
+    }
+}
@@ -0,0 +1,279 @@
+package com.telecomunicacoes.ami.network;
+
+import com.telecomunicacoes.ami.channel.ChannelStage;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.StatusDispatcher.Level;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Transporte dentro do processo (Host A → Host B na mesma JVM)
+ *
+ * FUNCIONAMENTO:
+ * - O transmissor entrega a própria Message, com o vetor do sinal,
+ *   a um buffer circular de um produtor e um consumidor (SPSC), sem
+ *   locks: nada é serializado, copiado ou enviado por socket
+ * - Cada lado escreve apenas o próprio índice (tail no produtor, head no
+ *   consumidor) e guarda uma cópia do índice do outro, relida só quando
+ *   o buffer parece cheio ou vazio
+ * - Uma thread consumidora aplica o canal simulado e chama o handler,
+ *   como a thread de conexão do Server
+ * - Sem mensagens, o consumidor estaciona (LockSupport.park) e é
+ *   acordado pelo produtor
+ *
+ * REGRAS:
+ * - Um único produtor: send/offer devem ser chamados sempre pela mesma
+ *   thread (ou com sincronização externa)
+ * - A Message passa a pertencer ao receptor: o transmissor não deve
+ *   alterá-la depois do envio
+ * - Sem CRC nem JSON: o custo medido é só o do pipeline de codificação
+ */
+public class LoopbackTransport {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long PARK_NANOS = 10_000_000L; // 10 ms
+
+    private final int capacity;
+    private final int mask;
+    private final Message[] buffer;
+
+    // Índice do produtor e cópia local do índice do consumidor
+    private volatile long tail;
+    private long cachedHead;
+
+    // Índice do consumidor e cópia local do índice do produtor
+    private volatile long head;
+    private long cachedTail;
+
+    private volatile boolean consumerParked;
+    private volatile boolean running;
+    private Thread consumer;
+    private Consumer<Message> messageHandler;
+    private ChannelStage channel;
+    private Consumer<String> statusHandler;
+    private boolean consoleLogging = true;
+
+    // Escritos só pela thread produtora
+    private volatile long fullWaits;
+
+    public LoopbackTransport() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Mensagens em trânsito (arredondada para cima, para potência de 2)
+     */
+    public LoopbackTransport(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacidade deve estar entre 1 e " + MAX_CAPACITY);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.buffer = new Message[size];
+    }
+
+    /**
+     * Define o handler para processar mensagens recebidas
+     * @param handler Função que processa a mensagem (chamada pela thread consumidora)
+     */
+    public void setMessageHandler(Consumer<Message> handler) {
+        this.messageHandler = handler;
+    }
+
+    /**
+     * Define um canal simulado aplicado a cada sinal recebido,
+     * antes do handler (null = canal perfeito)
+     * @param channel Estágio de canal
+     */
+    public void setChannel(ChannelStage channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Define o handler para atualizar status
+     * @param handler Função que processa mensagens de status
+     */
+    public void setStatusHandler(Consumer<String> handler) {
+        this.statusHandler = handler;
+    }
+
+    /**
+     * Habilita ou desabilita a impressão do status no console
+     * @param enabled false para silenciar
+     */
+    public void setConsoleLogging(boolean enabled) {
+        this.consoleLogging = enabled;
+    }
+
+    /**
+     * Inicia a thread consumidora
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        consumer = new Thread(this::consume, "loopback");
+        consumer.setDaemon(true);
+        consumer.start();
+        updateStatus(Level.INFO, "Transporte em processo iniciado (" + capacity + " mensagens)");
+    }
+
+    /**
+     * Para a thread consumidora depois de entregar o que já foi enviado
+     * (espera sem limite: com atraso no canal, pode levar o atraso de cada
+     * mensagem em trânsito)
+     * @return Mensagens não entregues: enviadas depois do fim do consumidor
+     *         ou em trânsito se a espera for interrompida (0 = todas entregues)
+     */
+    public synchronized long stop() {
+        if (!running) {
+            return tail - head;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long undelivered = tail - head;
+        if (undelivered > 0) {
+            updateStatus(Level.WARN, undelivered + " mensagem(ns) não entregue(s)");
+        }
+        updateStatus(Level.INFO, "Transporte em processo parado");
+        return undelivered;
+    }
+
+    /**
+     * Verifica se o transporte está ativo
+     * @return true se a thread consumidora estiver rodando
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Tenta enviar sem esperar
+     * @param message Mensagem codificada
+     * @return false se o buffer estiver cheio
+     */
+    public boolean offer(Message message) {
+        long position = tail;
+        if (position - cachedHead >= capacity) {
+            cachedHead = head;
+            if (position - cachedHead >= capacity) {
+                return false;
+            }
+        }
+        buffer[(int) (position & mask)] = message;
+        // Escrita volátil: publica a mensagem para o consumidor
+        tail = position + 1;
+
+        if (consumerParked) {
+            consumerParked = false;
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * Envia, esperando vaga se o buffer estiver cheio
+     * @param message Mensagem codificada
+     * @throws IllegalStateException Se o transporte não estiver rodando ou
+     *         parar antes de haver vaga (a mensagem não é entregue)
+     */
+    public void send(Message message) {
+        if (!running) {
+            throw new IllegalStateException("Transporte em processo não iniciado");
+        }
+        long start = System.nanoTime();
+        if (!offer(message)) {
+            fullWaits++;
+            do {
+                if (!running) {
+                    throw new IllegalStateException("Transporte em processo parado antes da entrega");
+                }
+                Thread.onSpinWait();
+                Thread.yield();
+            } while (!offer(message));
+        }
+        PipelineMetrics.record(Stage.SEND, start);
+    }
+
+    /**
+     * Contadores do transporte
+     * @return Mensagens entregues, em trânsito e esperas por buffer cheio
+     */
+    public String getStatistics() {
+        long delivered = head;
+        return String.format("entregues=%d | em trânsito=%d | esperas por buffer cheio=%d",
+                delivered, tail - delivered, fullWaits);
+    }
+
+    /**
+     * Laço da thread consumidora
+     */
+    private void consume() {
+        while (true) {
+            Message message = poll();
+            if (message == null) {
+                if (!running) {
+                    break;
+                }
+                consumerParked = true;
+                // Confere de novo para não perder um envio concorrente
+                message = poll();
+                if (message == null) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                    consumerParked = false;
+                    continue;
+                }
+                consumerParked = false;
+            }
+            deliver(message);
+        }
+    }
+
+    private Message poll() {
+        long position = head;
+        if (position >= cachedTail) {
+            cachedTail = tail;
+            if (position >= cachedTail) {
+                return null;
+            }
+        }
+        int index = (int) (position & mask);
+        Message message = buffer[index];
+        buffer[index] = null;
+        // Escrita volátil: libera a posição para o produtor
+        head = position + 1;
+        return message;
+    }
+
+    private void deliver(Message message) {
+        try {
+            if (channel != null) {
+                long delay = channel.nextDelayNanos();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                message.setEncodedSignal(channel.transmit(message.getEncodedSignal()));
+            }
+            if (messageHandler != null) {
+                messageHandler.accept(message);
+            }
+        } catch (RuntimeException e) {
+            updateStatus(Level.ERROR, "Erro ao processar mensagem: " + e.getMessage());
+        }
+    }
+
+    private void updateStatus(Level level, String status) {
+        StatusDispatcher.shared().publish(level, "Loopback", status, consoleLogging, statusHandler);
+    }
+}
@@ -1,33 +1,55 @@
 package com.telecomunicacoes.ami.network;
 
-import com.google.gson.Gson;
+import com.telecomunicacoes.ami.channel.ChannelStage;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
 import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.StatusDispatcher.Level;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Consumer;
 
 /**
  * Servidor TCP para receber mensagens codificadas em AMI
  * Implementa thread separada para não bloquear a interface gráfica
+ *
+ * Resposta a cada mensagem: "ACK" se aceita, ou "NACK json" / "NACK crc32c"
+ * se o JSON é inválido ou o CRC32C do quadro (FrameChecksum) não confere;
+ * quadros rejeitados não chegam ao canal simulado nem ao handler.
+ *
+ * Uma conexão pode levar várias mensagens, uma por linha, cada uma com
+ * sua resposta. Trechos de arquivo (Message.getFile() != null) vão ao
+ * FileReceiver em vez do handler, e a resposta é "ACK <bytes contíguos>"
+ * ou "NACK file".
+ *
+ * Sinais comprimidos (SignalCompression) são restaurados antes do CRC32C;
+ * um quadro comprimido inválido recebe "NACK compression".
  */
 public class Server {
 
     private static final int DEFAULT_PORT = 5555;
     private static final int SOCKET_TIMEOUT = 1000; // 1 segundo
 
+    // Motivos de rejeição enviados após "NACK " (ASCII, independem do charset)
+    static final String NACK_JSON = "json";
+    static final String NACK_CHECKSUM = "crc32c";
+    static final String NACK_FILE = "file";
+    static final String NACK_COMPRESSION = "compression";
+
     private ServerSocket serverSocket;
     private Thread serverThread;
-    private boolean running;
+    private volatile boolean running;
     private int port;
-    private Consumer<Message> messageHandler;
     private Consumer<String> statusHandler;
-    private final Gson gson;
+    private boolean consoleLogging = true;
+    private final FrameProcessor processor;
 
     public Server() {
         this(DEFAULT_PORT);
@@ -36,7 +58,7 @@ public class Server {
     public Server(int port) {
         this.port = port;
         this.running = false;
-        this.gson = new Gson();
+        this.processor = new FrameProcessor(this::updateStatus);
     }
 
     /**
@@ -44,7 +66,7 @@ public class Server {
      * @param handler Função que processa a mensagem
      */
     public void setMessageHandler(Consumer<Message> handler) {
-        this.messageHandler = handler;
+        processor.setMessageHandler(handler);
     }
 
     /**
@@ -55,12 +77,37 @@ public class Server {
         this.statusHandler = handler;
     }
 
+    /**
+     * Define um canal simulado aplicado a cada sinal recebido,
+     * antes do handler (null = canal perfeito)
+     * @param channel Estágio de canal
+     */
+    public void setChannel(ChannelStage channel) {
+        processor.setChannel(channel);
+    }
+
+    /**
+     * Habilita a recepção de arquivos (null = trechos de arquivo recusados)
+     * @param receiver Receptor que grava os trechos
+     */
+    public void setFileReceiver(FileReceiver receiver) {
+        processor.setFileReceiver(receiver);
+    }
+
+    /**
+     * Habilita ou desabilita a impressão do status no console
+     * @param enabled false para silenciar (ex.: geração de carga)
+     */
+    public void setConsoleLogging(boolean enabled) {
+        this.consoleLogging = enabled;
+    }
+
     /**
      * Inicia o servidor em uma thread separada
      */
     public void start() {
         if (running) {
-            updateStatus("Servidor já está rodando!");
+            updateStatus(Level.WARN, "Servidor já está rodando!");
             return;
         }
 
@@ -70,13 +117,13 @@ public class Server {
                 serverSocket.setSoTimeout(SOCKET_TIMEOUT);
                 running = true;
 
-                updateStatus("Servidor iniciado na porta " + port);
-                updateStatus("Aguardando conexoes...");
+                updateStatus(Level.INFO, "Servidor iniciado na porta " + port);
+                updateStatus(Level.INFO, "Aguardando conexoes...");
 
                 while (running) {
                     try {
                         Socket clientSocket = serverSocket.accept();
-                        updateStatus("Cliente conectado: " + clientSocket.getInetAddress().getHostAddress());
+                        updateStatus(Level.DEBUG, "Cliente conectado: " + clientSocket.getInetAddress().getHostAddress());
 
                         // Processa a mensagem em uma thread separada
                         handleClient(clientSocket);
@@ -89,7 +136,7 @@ public class Server {
 
             } catch (IOException e) {
                 if (running) {
-                    updateStatus("Erro no servidor: " + e.getMessage());
+                    updateStatus(Level.ERROR, "Erro no servidor: " + e.getMessage());
                     e.printStackTrace();
                 }
             } finally {
@@ -107,46 +154,52 @@ public class Server {
      */
     private void handleClient(Socket clientSocket) {
         new Thread(() -> {
+            PipelineMetrics.connectionOpened();
             try (
                     BufferedReader in = new BufferedReader(
-                            new InputStreamReader(clientSocket.getInputStream())
+                            new InputStreamReader(clientSocket.getInputStream(), StandardCharsets.UTF_8)
                     );
-                    PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)
+                    PrintWriter out = new PrintWriter(
+                            new OutputStreamWriter(clientSocket.getOutputStream(), StandardCharsets.UTF_8))
             ) {
-                // Lê a mensagem JSON
-                StringBuilder jsonBuilder = new StringBuilder();
-                String line;
+                int received = 0;
+                while (true) {
+                    // Lê a próxima mensagem JSON (tempo medido a partir do primeiro dado)
+                    StringBuilder jsonBuilder = new StringBuilder();
+                    String line;
+                    long start = 0;
+
+                    while ((line = in.readLine()) != null) {
+                        if (start == 0) {
+                            start = System.nanoTime();
+                        }
+                        jsonBuilder.append(line);
+                        if (line.trim().endsWith("}")) {
+                            break;
+                        }
+                    }
 
-                while ((line = in.readLine()) != null) {
-                    jsonBuilder.append(line);
-                    if (line.trim().endsWith("}")) {
+                    String json = jsonBuilder.toString();
+                    if (json.isEmpty()) {
+                        if (received == 0) {
+                            updateStatus(Level.WARN, "Mensagem vazia recebida");
+                        }
                         break;
                     }
-                }
-
-                String json = jsonBuilder.toString();
-
-                if (!json.isEmpty()) {
-                    // Desserializa a mensagem
-                    Message message = gson.fromJson(json, Message.class);
-
-                    updateStatus("Mensagem recebida (" + message.getEncodedSignal().length + " elementos)");
-
-                    // Processa a mensagem via handler
-                    if (messageHandler != null) {
-                        messageHandler.accept(message);
+                    received++;
+                    out.println(processor.process(json, start, clientSocket.getInetAddress()));
+                    // Mensagens já recebidas (lote do BatchingSender): as respostas
+                    // seguem juntas, em uma escrita, quando a entrada se esgota
+                    if (!in.ready()) {
+                        out.flush();
                     }
-
-                    // Envia confirmação
-                    out.println("ACK");
-                } else {
-                    updateStatus("Mensagem vazia recebida");
                 }
 
             } catch (IOException e) {
-                updateStatus("Erro ao processar cliente: " + e.getMessage());
+                updateStatus(Level.ERROR, "Erro ao processar cliente: " + e.getMessage());
                 e.printStackTrace();
             } finally {
+                PipelineMetrics.connectionClosed();
                 try {
                     clientSocket.close();
                 } catch (IOException e) {
@@ -165,7 +218,7 @@ public class Server {
         }
 
         running = false;
-        updateStatus("Parando servidor...");
+        updateStatus(Level.INFO, "Parando servidor...");
 
         cleanup();
 
@@ -177,7 +230,7 @@ public class Server {
             }
         }
 
-        updateStatus("Servidor parado");
+        updateStatus(Level.INFO, "Servidor parado");
     }
 
     /**
@@ -194,14 +247,12 @@ public class Server {
     }
 
     /**
-     * Atualiza status via handler
+     * Publica status de forma assíncrona (não bloqueia a thread de rede)
+     * @param level Nível da mensagem
      * @param status Mensagem de status
      */
-    private void updateStatus(String status) {
-        System.out.println("[Server] " + status);
-        if (statusHandler != null) {
-            statusHandler.accept(status);
-        }
+    private void updateStatus(Level level, String status) {
+        StatusDispatcher.shared().publish(level, "Server", status, consoleLogging, statusHandler);
     }
 
     /**
@@ -0,0 +1,538 @@
+package com.telecomunicacoes.ami.network;
+
+import com.telecomunicacoes.ami.channel.ChannelStage;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.model.Message;
+import com.telecomunicacoes.ami.network.StatusDispatcher.Level;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Servidor dividido em shards: N threads, cada uma com seu próprio
+ * socket de escuta, Selector e conexões (NIO, sem bloqueio)
+ *
+ * FUNCIONAMENTO:
+ * 1. Com SO_REUSEPORT (Linux), todos os shards escutam na mesma porta e
+ *    o kernel distribui as conexões entre eles. Sem suporte (ou com
+ *    setReusePort(false)), cada shard escuta em uma porta do grupo
+ *    porta, porta+1, ..., porta+N-1, e os clientes se distribuem entre elas
+ * 2. O shard aceita, lê e responde às suas conexões na própria thread:
+ *    mensagens uma por linha, como no Server, com as mesmas respostas
+ *    (ACK, NACK json, NACK crc32c, NACK compression, ACK <n> / NACK file)
+ * 3. A decodificação acontece na thread do shard, com FrameProcessor,
+ *    handler e canal próprios (setMessageHandlerFactory): nenhuma trava
+ *    entre shards no caminho de uma mensagem
+ *
+ * REGRAS:
+ * - Uma conexão nunca muda de shard
+ * - Enquanto as respostas de uma conexão não são enviadas, ela não é lida
+ *   (o cliente lento segura apenas a si mesmo)
+ * - O atraso do canal simulado (--latency) bloqueia o shard inteiro
+ * - Uma linha maior que maxFrameLength encerra a conexão: limita a memória
+ *   de cada conexão e o tempo que um quadro ocupa a thread do shard.
+ *   Depois de um quadro grande, o buffer da linha volta ao tamanho inicial
+ * - O FileReceiver é único e sincronizado: trechos de arquivo não escalam por shard
+ */
+public class ShardedServer {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int SELECT_TIMEOUT = 1000; // 1 segundo
+    private static final int DEFAULT_MAX_FRAME_LENGTH = 32 * 1024 * 1024;
+    private static final int INITIAL_LINE_SIZE = 1024;
+    // Buffers acima deste tamanho são liberados depois de usados
+    private static final int RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private final int port;
+    private final int shardCount;
+    private final List<Shard> shards = new ArrayList<>();
+    private volatile boolean running;
+    private boolean reusePort = true;
+    private boolean portGroup;
+    private int maxFrameLength = DEFAULT_MAX_FRAME_LENGTH;
+    private IntFunction<Consumer<Message>> handlerFactory;
+    private IntFunction<ChannelStage> channelFactory;
+    private FileReceiver fileReceiver;
+    private Consumer<String> statusHandler;
+    private boolean consoleLogging = true;
+
+    /**
+     * @param port Porta (a primeira do grupo, sem SO_REUSEPORT)
+     * @param shardCount Número de shards (0 = um por núcleo)
+     */
+    public ShardedServer(int port, int shardCount) {
+        if (shardCount < 0) {
+            throw new IllegalArgumentException("Número de shards não pode ser negativo");
+        }
+        this.port = port;
+        this.shardCount = shardCount == 0 ? Runtime.getRuntime().availableProcessors() : shardCount;
+    }
+
+    /**
+     * Define um handler compartilhado por todos os shards (deve ser thread-safe)
+     * @param handler Função que processa a mensagem
+     */
+    public void setMessageHandler(Consumer<Message> handler) {
+        this.handlerFactory = shard -> handler;
+    }
+
+    /**
+     * Define um handler por shard, chamado só pela thread daquele shard
+     * @param factory Cria o handler a partir do índice do shard
+     */
+    public void setMessageHandlerFactory(IntFunction<Consumer<Message>> factory) {
+        this.handlerFactory = factory;
+    }
+
+    /**
+     * Define um canal simulado por shard (null = canal perfeito)
+     * @param factory Cria o canal a partir do índice do shard
+     */
+    public void setChannelFactory(IntFunction<ChannelStage> factory) {
+        this.channelFactory = factory;
+    }
+
+    /**
+     * Habilita a recepção de arquivos (null = trechos de arquivo recusados)
+     * @param receiver Receptor que grava os trechos
+     */
+    public void setFileReceiver(FileReceiver receiver) {
+        this.fileReceiver = receiver;
+    }
+
+    /**
+     * Define o maior quadro (linha JSON) aceito; acima dele a conexão é encerrada
+     * @param bytes Tamanho máximo em bytes (padrão: 32 MiB, suficiente
+     *              para trechos de arquivo de 64 KiB com FEC)
+     */
+    public void setMaxFrameLength(int bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Tamanho máximo do quadro deve ser positivo");
+        }
+        this.maxFrameLength = bytes;
+    }
+
+    /**
+     * Permite ou não o uso de SO_REUSEPORT
+     * @param enabled false para sempre usar o grupo de portas
+     */
+    public void setReusePort(boolean enabled) {
+        this.reusePort = enabled;
+    }
+
+    /**
+     * Define o handler para atualizar status do servidor
+     * @param handler Função que processa mensagens de status
+     */
+    public void setStatusHandler(Consumer<String> handler) {
+        this.statusHandler = handler;
+    }
+
+    /**
+     * Habilita ou desabilita a impressão do status no console
+     * @param enabled false para silenciar
+     */
+    public void setConsoleLogging(boolean enabled) {
+        this.consoleLogging = enabled;
+    }
+
+    /**
+     * Abre os sockets de escuta e inicia uma thread por shard
+     * @throws IOException Se alguma porta não puder ser aberta
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            updateStatus(Level.WARN, "Servidor já está rodando!");
+            return;
+        }
+
+        shards.clear();
+        portGroup = shardCount > 1 && !(reusePort && supportsReusePort());
+        int bindPort = port;
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                ServerSocketChannel listener = ServerSocketChannel.open();
+                Selector selector = null;
+                try {
+                    if (!portGroup && shardCount > 1) {
+                        listener.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                    }
+                    listener.bind(new InetSocketAddress(portGroup && port != 0 ? port + i : bindPort));
+                    listener.configureBlocking(false);
+                    selector = Selector.open();
+                    listener.register(selector, SelectionKey.OP_ACCEPT);
+                } catch (IOException e) {
+                    listener.close();
+                    if (selector != null) {
+                        selector.close();
+                    }
+                    throw e;
+                }
+                if (!portGroup && bindPort == 0) {
+                    // Porta efêmera: os demais shards compartilham a escolhida
+                    bindPort = ((InetSocketAddress) listener.getLocalAddress()).getPort();
+                }
+                shards.add(new Shard(i, listener, selector));
+            }
+        } catch (IOException e) {
+            for (Shard shard : shards) {
+                shard.close();
+            }
+            shards.clear();
+            throw e;
+        }
+
+        running = true;
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+        updateStatus(Level.INFO, "Servidor iniciado com " + shardCount + " shard(s) "
+                + (portGroup ? "nas portas " : "na porta ") + describePorts());
+    }
+
+    /**
+     * Para todos os shards e fecha as conexões
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        updateStatus(Level.INFO, "Parando servidor...");
+
+        for (Shard shard : shards) {
+            shard.selector.wakeup();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(2000); // Aguarda até 2 segundos
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        updateStatus(Level.INFO, "Servidor parado");
+    }
+
+    /**
+     * Verifica se o servidor está rodando
+     * @return true se estiver rodando
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Verifica se os shards escutam em portas diferentes (sem SO_REUSEPORT)
+     * @return true se for um grupo de portas
+     */
+    public boolean isPortGroup() {
+        return portGroup;
+    }
+
+    /**
+     * Portas de escuta, uma por shard
+     * @return Portas (repetidas com SO_REUSEPORT)
+     */
+    public int[] getPorts() {
+        int[] ports = new int[shards.size()];
+        for (int i = 0; i < ports.length; i++) {
+            ports[i] = shards.get(i).port;
+        }
+        return ports;
+    }
+
+    /**
+     * Conexões e mensagens de cada shard
+     * @return Uma linha por shard
+     */
+    public String getStatistics() {
+        StringBuilder sb = new StringBuilder();
+        for (Shard shard : shards) {
+            sb.append(String.format("shard %d (porta %d): conexões=%d | mensagens=%d%n",
+                    shard.index, shard.port, shard.connections, shard.messages));
+        }
+        return sb.toString().stripTrailing();
+    }
+
+    private String describePorts() {
+        int[] ports = getPorts();
+        return portGroup ? ports[0] + "-" + ports[ports.length - 1] : String.valueOf(ports[0]);
+    }
+
+    private static boolean supportsReusePort() {
+        try (ServerSocketChannel probe = ServerSocketChannel.open()) {
+            return probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Publica status de forma assíncrona (não bloqueia a thread do shard)
+     * @param level Nível da mensagem
+     * @param status Mensagem de status
+     */
+    private void updateStatus(Level level, String status) {
+        StatusDispatcher.shared().publish(level, "ShardedServer", status, consoleLogging, statusHandler);
+    }
+
+    /**
+     * Um shard: socket de escuta, Selector, conexões e processador próprios
+     */
+    private class Shard implements Runnable {
+        private final int index;
+        private final int port;
+        private final ServerSocketChannel listener;
+        private final Selector selector;
+        private final FrameProcessor processor;
+        private final Thread thread;
+        // Buffer de leitura do shard, reaproveitado por todas as suas conexões
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+        // Escritos só pela thread do shard
+        private volatile long connections;
+        private volatile long messages;
+
+        Shard(int index, ServerSocketChannel listener, Selector selector) throws IOException {
+            this.index = index;
+            this.port = ((InetSocketAddress) listener.getLocalAddress()).getPort();
+            this.listener = listener;
+            this.selector = selector;
+            this.processor = new FrameProcessor(ShardedServer.this::updateStatus);
+            processor.setMessageHandler(handlerFactory != null ? handlerFactory.apply(index) : null);
+            processor.setChannel(channelFactory != null ? channelFactory.apply(index) : null);
+            processor.setFileReceiver(fileReceiver);
+            this.thread = new Thread(this, "shard-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(SELECT_TIMEOUT);
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        try {
+                            if (!key.isValid()) {
+                                continue;
+                            }
+                            if (key.isAcceptable()) {
+                                accept();
+                            } else if (key.isReadable()) {
+                                read(key);
+                            } else if (key.isWritable()) {
+                                write(key);
+                            }
+                        } catch (IOException e) {
+                            updateStatus(Level.DEBUG, "Conexão encerrada: " + e.getMessage());
+                            closeConnection(key);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    updateStatus(Level.ERROR, "Erro no shard " + index + ": " + e.getMessage());
+                }
+            } finally {
+                close();
+            }
+        }
+
+        private void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = listener.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                InetAddress address = ((InetSocketAddress) channel.getRemoteAddress()).getAddress();
+                channel.register(selector, SelectionKey.OP_READ, new Connection(address));
+                connections++;
+                PipelineMetrics.connectionOpened();
+                updateStatus(Level.DEBUG, "Cliente conectado ao shard " + index + ": " + address.getHostAddress());
+            }
+        }
+
+        /**
+         * Lê o que chegou, processa cada linha completa e envia as respostas
+         */
+        private void read(SelectionKey key) throws IOException {
+            SocketChannel channel = (SocketChannel) key.channel();
+            Connection connection = (Connection) key.attachment();
+
+            readBuffer.clear();
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                // Última linha sem quebra, como o readLine do Server
+                if (connection.length > 0) {
+                    connection.reply(processLine(connection));
+                    connection.flush(channel);
+                }
+                closeConnection(key);
+                return;
+            }
+
+            byte[] data = readBuffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (data[i] == '\n') {
+                    if (!connection.append(data, lineStart, i - lineStart, maxFrameLength)) {
+                        rejectOversized(key, connection);
+                        return;
+                    }
+                    if (connection.length > 0) {
+                        connection.reply(processLine(connection));
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            if (!connection.append(data, lineStart, read - lineStart, maxFrameLength)) {
+                rejectOversized(key, connection);
+                return;
+            }
+
+            if (!connection.flush(channel)) {
+                // Cliente não está lendo as respostas: para de ler até esvaziar
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+        }
+
+        private void write(SelectionKey key) throws IOException {
+            Connection connection = (Connection) key.attachment();
+            if (connection.flush((SocketChannel) key.channel())) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        private String processLine(Connection connection) {
+            int length = connection.length;
+            if (connection.line[length - 1] == '\r') {
+                length--;
+            }
+            String json = new String(connection.line, 0, length, StandardCharsets.UTF_8);
+            long start = connection.start;
+            connection.release();
+            messages++;
+            return processor.process(json, start, connection.address);
+        }
+
+        private void rejectOversized(SelectionKey key, Connection connection) {
+            PipelineMetrics.frameRejected();
+            updateStatus(Level.WARN, "Quadro de " + connection.address.getHostAddress() + " maior que "
+                    + maxFrameLength + " bytes: conexão encerrada");
+            closeConnection(key);
+        }
+
+        private void closeConnection(SelectionKey key) {
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException ignored) {
+                // Já encerrando
+            }
+            PipelineMetrics.connectionClosed();
+        }
+
+        private void close() {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    closeConnection(key);
+                }
+            }
+            try {
+                selector.close();
+                listener.close();
+            } catch (IOException e) {
+                updateStatus(Level.DEBUG, "Erro ao fechar shard " + index + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Estado de uma conexão: linha parcial e respostas ainda não enviadas
+     */
+    private static final class Connection {
+        private final InetAddress address;
+        private byte[] line = new byte[INITIAL_LINE_SIZE];
+        private int length;
+        private long start;
+        private ByteBuffer replies = ByteBuffer.allocate(256);
+
+        Connection(InetAddress address) {
+            this.address = address;
+        }
+
+        /**
+         * Acrescenta dados à linha parcial
+         * @return false se a linha passaria de maxLength bytes
+         */
+        boolean append(byte[] data, int offset, int count, int maxLength) {
+            if (count == 0) {
+                return true;
+            }
+            if ((long) length + count > maxLength) {
+                return false;
+            }
+            if (length == 0) {
+                // Tempo de recepção medido a partir do primeiro dado da mensagem
+                start = System.nanoTime();
+            }
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            System.arraycopy(data, offset, line, length, count);
+            length += count;
+            return true;
+        }
+
+        /**
+         * Descarta a linha processada, liberando o buffer se ele cresceu
+         */
+        void release() {
+            length = 0;
+            if (line.length > RETAINED_BUFFER_SIZE) {
+                line = new byte[INITIAL_LINE_SIZE];
+            }
+        }
+
+        void reply(String reply) {
+            byte[] bytes = (reply + "\n").getBytes(StandardCharsets.UTF_8);
+            if (replies.remaining() < bytes.length) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(replies.capacity() * 2, replies.position() + bytes.length));
+                replies.flip();
+                larger.put(replies);
+                replies = larger;
+            }
+            replies.put(bytes);
+        }
+
+        /**
+         * Envia as respostas pendentes
+         * @return true se não sobrou nada a enviar
+         */
+        boolean flush(SocketChannel channel) throws IOException {
+            replies.flip();
+            channel.write(replies);
+            replies.compact();
+            if (replies.position() == 0 && replies.capacity() > RETAINED_BUFFER_SIZE) {
+                replies = ByteBuffer.allocate(256);
+            }
+            return replies.position() == 0;
+        }
+    }
+}
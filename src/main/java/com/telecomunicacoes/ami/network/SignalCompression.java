@@ -0,0 +1,540 @@
+package com.telecomunicacoes.ami.network;
+
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+import com.telecomunicacoes.ami.model.Message;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressão adaptativa do sinal no quadro de rede (Client → Server)
+ *
+ * FORMATOS (todos partem do alfabeto do quadro: os até 4 níveis
+ * distintos do sinal, cada símbolo vira um índice de 2 bits):
+ * - packed:  4 símbolos por byte
+ * - rle:     um byte por sequência de níveis iguais (índice + até 64 repetições)
+ * - deflate: Deflater (nível configurável) sobre o formato packed
+ *
+ * O resultado vai em Message.signalData, em Base64, no lugar do vetor
+ * encodedSignal (2 a 3 caracteres por símbolo no JSON). Como em todo
+ * quadro (Message.toWire), os campos de texto não vão para a rede.
+ *
+ * ESCOLHA POR QUADRO:
+ * - Para cada formato são medidos, em média móvel, os bytes por símbolo
+ *   e o tempo de CPU por símbolo
+ * - O custo estimado de um formato é CPU + bytes / banda do enlace; vence
+ *   o menor. Um enlace lento favorece o deflate, um rápido favorece o packed
+ * - Cada formato é usado WARMUP vezes antes da primeira comparação; a
+ *   primeira medida de cada um é descartada (inclui a compilação pelo JIT)
+ * - A cada EXPLORE_INTERVAL quadros um formato é escolhido em rodízio
+ *   para manter as medidas atualizadas
+ *
+ * NEGOCIAÇÃO:
+ * O Client envia o primeiro quadro sem compressão e com acceptCompression
+ * (formatos que sabe gerar). O servidor responde "ACK compression=<ids>"
+ * com os que sabe ler; servidores antigos ignoram o campo e respondem
+ * "ACK", e o cliente segue sem compressão.
+ *
+ * Sinais com mais de 4 níveis distintos (ou fora de -3..3) ou com mais de
+ * MAX_SYMBOLS símbolos seguem sem compressão; um quadro recebido que anuncie
+ * mais que isso é rejeitado antes de qualquer alocação.
+ */
+public class SignalCompression {
+
+    /**
+     * Formato do sinal comprimido
+     */
+    public enum Method {
+        PACKED("packed"),
+        RLE("rle"),
+        DEFLATE("deflate");
+
+        private final String id;
+
+        Method(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Busca um formato pelo identificador
+         * @param id Identificador
+         * @return Formato, ou null se desconhecido
+         */
+        public static Method find(String id) {
+            for (Method method : values()) {
+                if (method.id.equals(id)) {
+                    return method;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+
+    /** Campo do ACK que responde a uma oferta, seguido dos formatos aceitos */
+    static final String ACK_FIELD = "compression=";
+
+    /** Início do ACK de uma mensagem que ofereceu compressão */
+    static final String ACK_PREFIX = "ACK " + ACK_FIELD;
+
+    /** Banda padrão do enlace: 100 Mbit/s, em bytes/s */
+    public static final long DEFAULT_BANDWIDTH = 12_500_000L;
+
+    private static final int WARMUP = 4;
+    private static final int EXPLORE_INTERVAL = 32;
+    private static final double SMOOTHING = 0.2;
+    private static final int MAX_LEVEL = 3;
+    // Também usados pelo DatagramFrame, que empacota os símbolos no mesmo alfabeto
+    static final int MIN_LEVEL = -3;
+    static final int MAX_ALPHABET = 4;
+    private static final int MAX_RUN = 64;
+    // Maior sinal de um quadro comprimido (64 MiB de int[]): o mesmo que cabe,
+    // sem compressão, no quadro de 32 MiB do ShardedServer
+    private static final int MAX_SYMBOLS = 1 << 24;
+    // Razão máxima do formato deflate (limite do algoritmo): protege a descompressão
+    private static final long MAX_DEFLATE_RATIO = 1032;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private final List<Method> methods;
+    private int deflateLevel = Deflater.DEFAULT_COMPRESSION;
+    private long bandwidth = DEFAULT_BANDWIDTH;
+
+    // Medidas por formato (acesso sincronizado)
+    private final double[] bytesPerSymbol = new double[Method.values().length];
+    private final double[] nanosPerSymbol = new double[Method.values().length];
+    private final long[] samples = new long[Method.values().length];
+    private final long[] uses = new long[Method.values().length];
+    private long frames;
+    private long symbolsIn;
+    private long bytesOut;
+
+    /**
+     * @param methods Formatos permitidos, em ordem de preferência (nenhum = todos)
+     */
+    public SignalCompression(Method... methods) {
+        this.methods = List.of(methods.length == 0 ? Method.values() : methods);
+    }
+
+    /**
+     * Define o nível do deflate
+     * @param level 1 (rápido) a 9 (menor)
+     */
+    public void setDeflateLevel(int level) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Nível de compressão deve estar entre 1 e 9");
+        }
+        this.deflateLevel = level;
+    }
+
+    /**
+     * Define a banda do enlace usada na escolha do formato
+     * @param bytesPerSecond Bytes por segundo (padrão: 100 Mbit/s)
+     */
+    public void setBandwidth(long bytesPerSecond) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Banda deve ser positiva");
+        }
+        this.bandwidth = bytesPerSecond;
+    }
+
+    /**
+     * Formatos oferecidos na negociação
+     * @return Identificadores separados por vírgula
+     */
+    public String getOffer() {
+        return join(methods);
+    }
+
+    /**
+     * Resposta do servidor a uma oferta: os formatos que ele sabe ler
+     * @param offer Identificadores oferecidos pelo cliente
+     * @return Identificadores aceitos, na ordem da oferta
+     */
+    public static String accept(String offer) {
+        return join(parse(offer));
+    }
+
+    /**
+     * Formatos combinados com o servidor
+     * @param accepted Identificadores aceitos pelo servidor
+     * @return Formatos permitidos e aceitos, na ordem de preferência
+     */
+    public List<Method> negotiate(String accepted) {
+        List<Method> result = new ArrayList<>(parse(accepted));
+        result.retainAll(methods);
+        return List.copyOf(result);
+    }
+
+    /**
+     * Monta o quadro de rede com o sinal comprimido
+     * A mensagem original não é alterada
+     * @param message Mensagem codificada (com CRC32C já gravado)
+     * @param allowed Formatos combinados com o servidor
+     * @return Cópia com o sinal em signalData, ou a própria mensagem se
+     *         não houver formato combinado ou o sinal não for comprimível
+     *         (níveis fora do alfabeto ou mais de MAX_SYMBOLS símbolos)
+     */
+    public Message compress(Message message, List<Method> allowed) {
+        int[] signal = message.getEncodedSignal();
+        if (signal == null || allowed.isEmpty() || signal.length > MAX_SYMBOLS) {
+            return message;
+        }
+        long start = System.nanoTime();
+        byte[] alphabet = alphabet(signal);
+        if (alphabet == null) {
+            return message;
+        }
+
+        Method method = choose(allowed);
+        byte[] data;
+        switch (method) {
+            case RLE:
+                data = encodeRuns(signal, alphabet);
+                break;
+            case DEFLATE:
+                data = deflate(encodePacked(signal, alphabet), alphabet);
+                break;
+            default:
+                data = encodePacked(signal, alphabet);
+                break;
+        }
+        String encoded = Base64.getEncoder().encodeToString(data);
+        record(method, signal.length, encoded.length(), System.nanoTime() - start);
+
+        Message wire = message.toWire();
+        wire.setEncodedSignal(null);
+        wire.setCompression(method.getId());
+        wire.setSignalData(encoded);
+        PipelineMetrics.record(Stage.COMPRESS, start);
+        return wire;
+    }
+
+    /**
+     * Restaura o sinal de um quadro comprimido (em encodedSignal)
+     * @param message Mensagem recebida com compression e signalData
+     * @throws IllegalArgumentException Se o formato for desconhecido ou os dados inválidos
+     */
+    public static void decompress(Message message) {
+        long start = System.nanoTime();
+        Method method = Method.find(message.getCompression());
+        if (method == null) {
+            throw new IllegalArgumentException("Compressão desconhecida: " + message.getCompression());
+        }
+        if (message.getSignalData() == null) {
+            throw new IllegalArgumentException("Quadro comprimido sem dados");
+        }
+        byte[] data = Base64.getDecoder().decode(message.getSignalData());
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            int count = buffer.getInt();
+            int size = buffer.get() & 0xFF;
+            if (count < 0 || size > MAX_ALPHABET || (size == 0 && count > 0)) {
+                throw new IllegalArgumentException("Cabeçalho de compressão inválido");
+            }
+            // Antes de qualquer alocação: a razão do deflate sozinha não limita a quantidade
+            if (count > MAX_SYMBOLS) {
+                throw new IllegalArgumentException("Quadro comprimido com " + count
+                        + " símbolos (máximo " + MAX_SYMBOLS + ")");
+            }
+            int[] levels = new int[size];
+            for (int i = 0; i < size; i++) {
+                levels[i] = buffer.get();
+            }
+            int body = buffer.remaining();
+
+            int[] signal;
+            switch (method) {
+                case RLE:
+                    if (count > (long) body * MAX_RUN) {
+                        throw new IllegalArgumentException("Quadro comprimido truncado");
+                    }
+                    signal = decodeRuns(data, buffer.position(), body, count, levels);
+                    break;
+                case DEFLATE:
+                    if (count > (long) body * MAX_DEFLATE_RATIO * 4) {
+                        throw new IllegalArgumentException("Razão de compressão impossível");
+                    }
+                    byte[] packed = inflate(data, buffer.position(), body, (count + 3) / 4);
+                    signal = decodePacked(packed, 0, packed.length, count, levels);
+                    break;
+                default:
+                    signal = decodePacked(data, buffer.position(), body, count, levels);
+                    break;
+            }
+            message.setEncodedSignal(signal);
+            message.setCompression(null);
+            message.setSignalData(null);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Quadro comprimido truncado");
+        }
+        PipelineMetrics.record(Stage.DECOMPRESS, start);
+    }
+
+    /**
+     * Medidas por formato
+     * @return Quadros, bytes e tempo por símbolo de cada formato
+     */
+    public synchronized String getStatistics() {
+        StringBuilder sb = new StringBuilder(String.format("quadros=%d | bytes/símbolo=%.3f%n",
+                frames, symbolsIn == 0 ? 0.0 : (double) bytesOut / symbolsIn));
+        for (Method method : methods) {
+            int i = method.ordinal();
+            sb.append(String.format("  %-8s quadros=%d | bytes/símbolo=%.3f | ns/símbolo=%.2f%n",
+                    method.getId(), uses[i], bytesPerSymbol[i], nanosPerSymbol[i]));
+        }
+        return sb.toString().stripTrailing();
+    }
+
+    /**
+     * Escolhe o formato do próximo quadro
+     */
+    private synchronized Method choose(List<Method> allowed) {
+        frames++;
+        Method least = allowed.get(0);
+        for (Method method : allowed) {
+            if (uses[method.ordinal()] < uses[least.ordinal()]) {
+                least = method;
+            }
+        }
+        if (uses[least.ordinal()] < WARMUP) {
+            return least;
+        }
+        if (frames % EXPLORE_INTERVAL == 0 && allowed.size() > 1) {
+            return allowed.get((int) (frames / EXPLORE_INTERVAL % allowed.size()));
+        }
+        Method best = allowed.get(0);
+        double bestCost = Double.MAX_VALUE;
+        for (Method method : allowed) {
+            int i = method.ordinal();
+            double cost = nanosPerSymbol[i] + bytesPerSymbol[i] * 1e9 / bandwidth;
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = method;
+            }
+        }
+        return best;
+    }
+
+    private synchronized void record(Method method, int symbols, int bytes, long nanos) {
+        int i = method.ordinal();
+        uses[i]++;
+        symbolsIn += symbols;
+        bytesOut += bytes;
+        if (symbols == 0 || uses[i] == 1) {
+            return;
+        }
+        // Média simples nas primeiras medidas, depois média móvel
+        samples[i]++;
+        double weight = Math.max(SMOOTHING, 1.0 / samples[i]);
+        bytesPerSymbol[i] += weight * ((double) bytes / symbols - bytesPerSymbol[i]);
+        nanosPerSymbol[i] += weight * ((double) nanos / symbols - nanosPerSymbol[i]);
+    }
+
+    /**
+     * Níveis distintos do sinal, em ordem crescente
+     * @return Alfabeto, ou null se o sinal não for comprimível
+     */
+    static byte[] alphabet(int[] signal) {
+        boolean[] present = new boolean[MAX_LEVEL - MIN_LEVEL + 1];
+        for (int level : signal) {
+            if (level < MIN_LEVEL || level > MAX_LEVEL) {
+                return null;
+            }
+            present[level - MIN_LEVEL] = true;
+        }
+        byte[] alphabet = new byte[MAX_ALPHABET];
+        int size = 0;
+        for (int i = 0; i < present.length; i++) {
+            if (present[i]) {
+                if (size == MAX_ALPHABET) {
+                    return null;
+                }
+                alphabet[size++] = (byte) (i + MIN_LEVEL);
+            }
+        }
+        return Arrays.copyOf(alphabet, size);
+    }
+
+    /**
+     * Índice de cada nível no alfabeto (tabela indexada por nível - MIN_LEVEL)
+     */
+    static byte[] indexTable(byte[] alphabet) {
+        byte[] index = new byte[MAX_LEVEL - MIN_LEVEL + 1];
+        for (int i = 0; i < alphabet.length; i++) {
+            index[alphabet[i] - MIN_LEVEL] = (byte) i;
+        }
+        return index;
+    }
+
+    private static int headerSize(byte[] alphabet) {
+        return 5 + alphabet.length;
+    }
+
+    private static void writeHeader(byte[] out, int count, byte[] alphabet) {
+        out[0] = (byte) (count >>> 24);
+        out[1] = (byte) (count >>> 16);
+        out[2] = (byte) (count >>> 8);
+        out[3] = (byte) count;
+        out[4] = (byte) alphabet.length;
+        System.arraycopy(alphabet, 0, out, 5, alphabet.length);
+    }
+
+    private static byte[] encodePacked(int[] signal, byte[] alphabet) {
+        byte[] index = indexTable(alphabet);
+        int offset = headerSize(alphabet);
+        byte[] out = new byte[offset + (signal.length + 3) / 4];
+        writeHeader(out, signal.length, alphabet);
+        for (int i = 0; i < signal.length; i++) {
+            out[offset + (i >> 2)] |= (byte) (index[signal[i] - MIN_LEVEL] << (6 - 2 * (i & 3)));
+        }
+        return out;
+    }
+
+    private static byte[] encodeRuns(int[] signal, byte[] alphabet) {
+        byte[] index = indexTable(alphabet);
+        int offset = headerSize(alphabet);
+        byte[] out = new byte[offset + signal.length];
+        writeHeader(out, signal.length, alphabet);
+        int position = offset;
+        int i = 0;
+        while (i < signal.length) {
+            int level = signal[i];
+            int run = 1;
+            while (run < MAX_RUN && i + run < signal.length && signal[i + run] == level) {
+                run++;
+            }
+            out[position++] = (byte) ((index[level - MIN_LEVEL] << 6) | (run - 1));
+            i += run;
+        }
+        return Arrays.copyOf(out, position);
+    }
+
+    /**
+     * Comprime o corpo do formato packed, mantendo o cabeçalho
+     */
+    private byte[] deflate(byte[] packed, byte[] alphabet) {
+        int offset = headerSize(alphabet);
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setLevel(deflateLevel);
+        deflater.setInput(packed, offset, packed.length - offset);
+        deflater.finish();
+
+        byte[] out = new byte[offset + Math.max(64, (packed.length - offset) / 4)];
+        System.arraycopy(packed, 0, out, 0, offset);
+        int position = offset;
+        while (!deflater.finished()) {
+            if (position == out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            position += deflater.deflate(out, position, out.length - position);
+        }
+        return Arrays.copyOf(out, position);
+    }
+
+    private static byte[] inflate(byte[] data, int offset, int length, int expected) {
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(data, offset, length);
+        byte[] out = new byte[expected];
+        try {
+            int read = 0;
+            byte[] excess = new byte[1];
+            while (!inflater.finished()) {
+                // Depois do tamanho esperado, só o fim do bloco deflate pode vir
+                int n = read < expected
+                        ? inflater.inflate(out, read, expected - read)
+                        : inflater.inflate(excess);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+                if (read > expected) {
+                    break;
+                }
+            }
+            if (read != expected || !inflater.finished()) {
+                throw new IllegalArgumentException("Dados deflate com tamanho inesperado");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Dados deflate inválidos: " + e.getMessage());
+        }
+        return out;
+    }
+
+    private static int[] decodePacked(byte[] data, int offset, int length, int count, int[] levels) {
+        if (length != (count + 3) / 4) {
+            throw new IllegalArgumentException("Quadro comprimido com tamanho inválido");
+        }
+        int[] signal = new int[count];
+        for (int i = 0; i < count; i++) {
+            int code = (data[offset + (i >> 2)] >> (6 - 2 * (i & 3))) & 3;
+            if (code >= levels.length) {
+                throw new IllegalArgumentException("Símbolo fora do alfabeto");
+            }
+            signal[i] = levels[code];
+        }
+        return signal;
+    }
+
+    private static int[] decodeRuns(byte[] data, int offset, int length, int count, int[] levels) {
+        int[] signal = new int[count];
+        int position = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int code = (data[i] >> 6) & 3;
+            int run = (data[i] & 0x3F) + 1;
+            if (code >= levels.length || position + run > count) {
+                throw new IllegalArgumentException("Sequência inválida no quadro comprimido");
+            }
+            Arrays.fill(signal, position, position + run, levels[code]);
+            position += run;
+        }
+        if (position != count) {
+            throw new IllegalArgumentException("Quadro comprimido truncado");
+        }
+        return signal;
+    }
+
+    private static List<Method> parse(String ids) {
+        List<Method> result = new ArrayList<>();
+        if (ids != null) {
+            for (String id : ids.split(",")) {
+                Method method = Method.find(id.trim());
+                if (method != null && !result.contains(method)) {
+                    result.add(method);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String join(List<Method> methods) {
+        StringBuilder sb = new StringBuilder();
+        for (Method method : methods) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(method.getId());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,251 @@
+package com.telecomunicacoes.ami.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Despacho assíncrono das mensagens de status de Client e Server
+ *
+ * FUNCIONAMENTO:
+ * - As threads de rede publicam em um buffer circular limitado
+ *   (vários produtores, um consumidor) sem locks e sem bloquear
+ * - Uma única thread consumidora imprime no console e chama o handler
+ * - Mensagens abaixo do nível mínimo são descartadas na origem
+ * - Com o buffer cheio (ou acima do limite, conforme a política),
+ *   a mensagem é descartada e contabilizada em vez de bloquear
+ */
+public class StatusDispatcher {
+
+    /**
+     * Nível de severidade das mensagens de status
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    /**
+     * Política de descarte quando o buffer está sob pressão
+     */
+    public enum DropPolicy {
+        /** Descarta a mensagem nova apenas com o buffer cheio */
+        DROP_NEWEST,
+        /** Acima de 3/4 da capacidade aceita apenas WARN e ERROR */
+        SHED_LOW_PRIORITY
+    }
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private static volatile StatusDispatcher shared;
+
+    /**
+     * Entrada do buffer: destino e conteúdo de uma mensagem
+     */
+    private static final class Entry {
+        final Level level;
+        final String source;
+        final String text;
+        final boolean console;
+        final Consumer<String> handler;
+
+        Entry(Level level, String source, String text, boolean console, Consumer<String> handler) {
+            this.level = level;
+            this.source = source;
+            this.text = text;
+            this.console = console;
+            this.handler = handler;
+        }
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Entry> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+    private volatile Level minLevel = Level.DEBUG;
+    private volatile DropPolicy dropPolicy = DropPolicy.DROP_NEWEST;
+
+    private final Thread consumer;
+    private volatile boolean consumerParked;
+
+    /**
+     * @param capacity Capacidade do buffer (arredondada para potência de 2)
+     */
+    public StatusDispatcher(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+
+        consumer = new Thread(this::consume, "status-dispatcher");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Instância compartilhada por todos os Clients e Servers
+     * @return Dispatcher global
+     */
+    public static StatusDispatcher shared() {
+        StatusDispatcher instance = shared;
+        if (instance == null) {
+            synchronized (StatusDispatcher.class) {
+                instance = shared;
+                if (instance == null) {
+                    instance = new StatusDispatcher(DEFAULT_CAPACITY);
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Publica uma mensagem de status (nunca bloqueia)
+     * @param level Nível da mensagem
+     * @param source Prefixo de origem (ex.: "Server")
+     * @param text Texto da mensagem
+     * @param console true para imprimir no console
+     * @param handler Handler de status (pode ser null)
+     * @return false se a mensagem foi filtrada ou descartada
+     */
+    public boolean publish(Level level, String source, String text, boolean console, Consumer<String> handler) {
+        if (level.ordinal() < minLevel.ordinal() || (!console && handler == null)) {
+            return false;
+        }
+
+        long pos;
+        while (true) {
+            pos = tail.get();
+
+            if (dropPolicy == DropPolicy.SHED_LOW_PRIORITY
+                    && level.ordinal() < Level.WARN.ordinal()
+                    && pos - head > (capacity * 3L) / 4) {
+                dropped.increment();
+                return false;
+            }
+
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer.set(index, new Entry(level, source, text, console, handler));
+                    sequences.set(index, pos + 1);
+                    break;
+                }
+            } else if (diff < 0) {
+                // Buffer cheio
+                dropped.increment();
+                return false;
+            }
+        }
+
+        if (consumerParked) {
+            consumerParked = false;
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * Laço da thread consumidora
+     */
+    private void consume() {
+        while (true) {
+            Entry entry = poll();
+            if (entry == null) {
+                consumerParked = true;
+                // Confere de novo para não perder uma publicação concorrente
+                entry = poll();
+                if (entry == null) {
+                    LockSupport.parkNanos(this, 10_000_000L);
+                    consumerParked = false;
+                    continue;
+                }
+                consumerParked = false;
+            }
+            deliver(entry);
+        }
+    }
+
+    private Entry poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        Entry entry = buffer.get(index);
+        buffer.set(index, null);
+        sequences.set(index, head + capacity);
+        head++;
+        return entry;
+    }
+
+    private void deliver(Entry entry) {
+        try {
+            if (entry.console) {
+                System.out.println("[" + entry.source + "] " + entry.text);
+            }
+            if (entry.handler != null) {
+                entry.handler.accept(entry.text);
+            }
+        } catch (RuntimeException e) {
+            // Um handler com erro não pode derrubar a thread consumidora
+            System.err.println("Erro no handler de status: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aguarda a entrega das mensagens pendentes (ex.: antes de encerrar o processo)
+     * @param timeoutMillis Tempo máximo de espera
+     * @return true se o buffer foi esvaziado
+     */
+    public boolean awaitDrained(long timeoutMillis) {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        while (head < tail.get()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(1_000_000L);
+        }
+        return true;
+    }
+
+    /**
+     * Define o nível mínimo publicado (mensagens abaixo são descartadas na origem)
+     * @param level Nível mínimo
+     */
+    public void setMinLevel(Level level) {
+        this.minLevel = level;
+    }
+
+    public Level getMinLevel() {
+        return minLevel;
+    }
+
+    /**
+     * Define a política de descarte
+     * @param policy Política
+     */
+    public void setDropPolicy(DropPolicy policy) {
+        this.dropPolicy = policy;
+    }
+
+    /**
+     * Retorna o número de mensagens descartadas por falta de espaço
+     * @return Total de descartes
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
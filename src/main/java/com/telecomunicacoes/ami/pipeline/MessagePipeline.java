@@ -0,0 +1,410 @@
+package com.telecomunicacoes.ami.pipeline;
+
+import com.telecomunicacoes.ami.codec.BinaryConverter;
+import com.telecomunicacoes.ami.codec.Encryption;
+import com.telecomunicacoes.ami.codec.HammingCode;
+import com.telecomunicacoes.ami.codec.Scrambler;
+import com.telecomunicacoes.ami.codec.line.LineCode;
+import com.telecomunicacoes.ami.codec.line.LineCodes;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics;
+import com.telecomunicacoes.ami.metrics.PipelineMetrics.Stage;
+import com.telecomunicacoes.ami.model.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pipeline completo de transmissão e recepção, independente da interface
+ *
+ * Transmissão: texto → criptografia → binário → [embaralhador] → [FEC] → código de linha
+ * Recepção:    código de linha → [FEC] → [desembaralhador] → binário → texto → descriptografia
+ *
+ * O código de linha padrão é o AMI Pseudoternário, sem embaralhador e sem
+ * FEC. A FEC fica mais perto da linha que o embaralhador: corrige os erros
+ * antes que o desembaralhador os multiplique. Na recepção de uma Message,
+ * valem o código, a FEC, o embaralhador e o algoritmo de criptografia
+ * indicados na própria mensagem (a chave é a do pipeline).
+ *
+ * MODO DE BYTES CRUS (setRawPayload):
+ * Transmissão: texto → UTF-8 → criptografia → [embaralhador] → [FEC] → código de linha
+ * Os bytes criptografados vão direto ao código de linha, empacotados
+ * (8 bits por byte): sem Base64 (33% a menos de símbolos) e sem as
+ * strings binárias intermediárias. A Message leva o formato "bytes" e a
+ * carga em getPayloadBytes(); encryptedText e binaryString ficam nulos.
+ *
+ * Observação: cada thread deve usar sua própria instância do pipeline.
+ */
+public class MessagePipeline {
+
+    /** Identificador do formato de bytes crus em Message.getPayload() */
+    public static final String RAW_PAYLOAD = "bytes";
+
+    private final Encryption encryption;
+    private LineCode lineCode;
+    private Scrambler scrambler;
+    private boolean fecEnabled;
+    private boolean encryptionEnabled;
+    private boolean rawPayload;
+
+    public MessagePipeline() {
+        this(new Encryption());
+    }
+
+    public MessagePipeline(Encryption encryption) {
+        this.encryption = encryption;
+        this.lineCode = LineCodes.getDefault();
+        this.encryptionEnabled = true;
+    }
+
+    /**
+     * Resultado da recepção
+     * Campos nulos indicam etapas não alcançadas (erro no meio do caminho)
+     */
+    public static class Reception {
+        private String lineBinary;
+        private String binary;
+        private HammingCode.Statistics fecStatistics;
+        private String encryptedText;
+        private byte[] payload;
+        private byte[] plainBytes;
+        private String originalText;
+        private String error;
+        private Encryption.Algorithm algorithm;
+
+        /**
+         * Bits como saíram do código de linha (antes do desembaralhador)
+         * @return String binária (igual a getBinary() sem embaralhador)
+         */
+        public String getLineBinary() {
+            return lineBinary;
+        }
+
+        public String getBinary() {
+            return binary;
+        }
+
+        /**
+         * Resultado da correção de erros
+         * @return Contadores da FEC (null se a mensagem não usa FEC)
+         */
+        public HammingCode.Statistics getFecStatistics() {
+            return fecStatistics;
+        }
+
+        public String getEncryptedText() {
+            return encryptedText;
+        }
+
+        /**
+         * Carga criptografada recebida no modo de bytes crus
+         * @return Bytes (null no modo de texto)
+         */
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        public String getOriginalText() {
+            if (originalText == null && plainBytes != null) {
+                originalText = new String(plainBytes, StandardCharsets.UTF_8);
+            }
+            return originalText;
+        }
+
+        /**
+         * Bytes originais recebidos no modo de bytes crus (ex.: trecho de arquivo)
+         * @return Bytes (null no modo de texto ou em caso de erro)
+         */
+        public byte[] getPlainBytes() {
+            return plainBytes;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Executa a transmissão completa de um texto
+     * @param text Texto original
+     * @return Mensagem com todas as etapas preenchidas
+     */
+    public Message transmit(String text) {
+        Message message = new Message(text);
+
+        if (rawPayload) {
+            transmitRaw(text.getBytes(StandardCharsets.UTF_8), message);
+        } else {
+            // 1. Criptografia
+            String encrypted = encryptionEnabled ? encryption.encrypt(text) : text;
+            message.setEncryptedText(encrypted);
+
+            // 2. Conversão para binário
+            String binary = BinaryConverter.textToBinary(encrypted);
+            message.setBinaryString(binary);
+
+            // 3. Embaralhamento e FEC (opcionais) e codificação de linha
+            String line = scrambler != null ? scrambler.scramble(binary) : binary;
+            if (fecEnabled) {
+                line = HammingCode.encode(line);
+            }
+            message.setEncodedSignal(lineCode.encode(line));
+        }
+        describe(message);
+        return message;
+    }
+
+    /**
+     * Executa a transmissão de bytes arbitrários (ex.: trecho de arquivo),
+     * sempre no modo de bytes crus
+     * @param data Bytes originais (não são copiados: não alterar até o envio)
+     * @return Mensagem com o sinal e a carga preenchidos
+     */
+    public Message transmit(byte[] data) {
+        Message message = new Message();
+        transmitRaw(data, message);
+        describe(message);
+        return message;
+    }
+
+    /**
+     * Grava na mensagem os identificadores de que o receptor precisa
+     */
+    private void describe(Message message) {
+        message.setLineCode(lineCode.getId());
+        message.setScrambler(scrambler != null ? scrambler.getId() : null);
+        message.setFec(fecEnabled ? HammingCode.ID : null);
+        message.setEncryption(encryptionEnabled && encryption.getAlgorithm() != Encryption.Algorithm.XOR
+                ? encryption.getAlgorithm().getId() : null);
+    }
+
+    /**
+     * Transmissão no modo de bytes crus: os bytes criptografados seguem
+     * empacotados até o código de linha, sem Base64 nem strings
+     */
+    private void transmitRaw(byte[] plain, Message message) {
+        byte[] payload = encryptionEnabled ? encryption.encrypt(plain) : plain;
+        message.setPayload(RAW_PAYLOAD);
+        message.setPayloadBytes(payload);
+
+        byte[] bits = payload;
+        int bitCount = payload.length * 8;
+        if (scrambler != null) {
+            long start = System.nanoTime();
+            bits = payload.clone();
+            scrambler.scramble(bits, bitCount);
+            PipelineMetrics.record(Stage.SCRAMBLE, start);
+        }
+        if (fecEnabled) {
+            long start = System.nanoTime();
+            byte[] coded = new byte[bits.length * 2];
+            bitCount = HammingCode.encode(bits, bitCount, coded);
+            bits = coded;
+            PipelineMetrics.record(Stage.FEC_ENCODE, start);
+        }
+
+        long start = System.nanoTime();
+        byte[] symbols = new byte[lineCode.getSymbolCount(bitCount)];
+        int count = lineCode.encode(bits, bitCount, symbols);
+        message.setEncodedSignal(LineCodes.toSignal(symbols, count));
+        PipelineMetrics.record(Stage.ENCODE, start);
+    }
+
+    /**
+     * Executa a recepção completa de uma mensagem
+     * @param message Mensagem recebida
+     * @return Resultado (nunca lança exceção; ver Reception.getError())
+     */
+    public Reception receive(Message message) {
+        Reception reception = new Reception();
+        LineCode code;
+        Scrambler descrambler;
+        try {
+            code = LineCodes.get(message.getLineCode());
+            descrambler = Scrambler.get(message.getScrambler());
+            reception.algorithm = Encryption.Algorithm.get(message.getEncryption());
+        } catch (IllegalArgumentException e) {
+            reception.error = e.getMessage();
+            return reception;
+        }
+        String fec = message.getFec();
+        if (fec != null && !fec.equals(HammingCode.ID)) {
+            reception.error = "FEC desconhecida: " + fec;
+            return reception;
+        }
+        String payload = message.getPayload();
+        if (payload != null && !payload.equals(RAW_PAYLOAD)) {
+            reception.error = "Formato de carga desconhecido: " + payload;
+            return reception;
+        }
+        return receive(message.getEncodedSignal(), code, fec != null, descrambler, payload != null, reception);
+    }
+
+    /**
+     * Executa a recepção completa de um sinal com o código de linha, a FEC e o embaralhador do pipeline
+     * @param signal Níveis de tensão
+     * @return Resultado (nunca lança exceção; ver Reception.getError())
+     */
+    public Reception receive(int[] signal) {
+        Reception reception = new Reception();
+        reception.algorithm = encryption.getAlgorithm();
+        return receive(signal, lineCode, fecEnabled, scrambler, rawPayload, reception);
+    }
+
+    private Reception receive(int[] signal, LineCode code, boolean fec, Scrambler descrambler, boolean raw,
+                              Reception reception) {
+        try {
+            // Violações das regras do código indicam erros no canal; com FEC,
+            // também apontam os bits suspeitos (dicas de apagamento)
+            byte[] suspect = null;
+            if (fec && signal != null) {
+                suspect = new byte[(code.getBitCount(signal.length) + 7) / 8];
+                PipelineMetrics.addViolations(code.markSuspectBits(
+                        LineCodes.toSymbols(signal, code), signal.length, suspect));
+            } else {
+                PipelineMetrics.addViolations(code.countViolations(signal));
+            }
+
+            if (raw) {
+                receiveRaw(signal != null ? signal : new int[0], code, fec, suspect, descrambler, reception);
+                return reception;
+            }
+
+            // 1. Decodificação de linha, correção de erros e desembaralhamento
+            reception.lineBinary = code.decode(signal);
+            String bits = reception.lineBinary;
+            if (fec) {
+                reception.fecStatistics = new HammingCode.Statistics();
+                bits = HammingCode.decode(bits, suspect, reception.fecStatistics);
+                PipelineMetrics.addFecResult(
+                        reception.fecStatistics.getCorrected() + reception.fecStatistics.getErasureCorrected(),
+                        reception.fecStatistics.getUncorrectable());
+            }
+            reception.binary = descrambler != null ? descrambler.descramble(bits) : bits;
+
+            // 2. Conversão binário para texto
+            reception.encryptedText = BinaryConverter.binaryToText(reception.binary);
+
+            // 3. Descriptografia
+            reception.originalText = encryptionEnabled
+                    ? encryption.decrypt(reception.encryptedText, reception.algorithm)
+                    : reception.encryptedText;
+
+        } catch (Exception e) {
+            reception.error = e.getMessage();
+        }
+        return reception;
+    }
+
+    /**
+     * Recepção no modo de bytes crus (caminho inverso de transmitRaw)
+     */
+    private void receiveRaw(int[] signal, LineCode code, boolean fec, byte[] suspect, Scrambler descrambler,
+                            Reception reception) {
+        long start = System.nanoTime();
+        byte[] symbols = LineCodes.toSymbols(signal, code);
+        byte[] bits = new byte[(code.getBitCount(symbols.length) + 7) / 8];
+        int bitCount = code.decode(symbols, symbols.length, bits);
+        PipelineMetrics.record(Stage.DECODE, start);
+
+        if (fec) {
+            start = System.nanoTime();
+            reception.fecStatistics = new HammingCode.Statistics();
+            byte[] data = new byte[(bitCount / 8 + 1) / 2];
+            bitCount = HammingCode.decode(bits, bitCount, suspect, data, reception.fecStatistics);
+            bits = data;
+            PipelineMetrics.addFecResult(
+                    reception.fecStatistics.getCorrected() + reception.fecStatistics.getErasureCorrected(),
+                    reception.fecStatistics.getUncorrectable());
+            PipelineMetrics.record(Stage.FEC_DECODE, start);
+        }
+        if ((bitCount & 7) != 0) {
+            throw new IllegalArgumentException("Carga com número de bits que não é múltiplo de 8: " + bitCount);
+        }
+        if (descrambler != null) {
+            start = System.nanoTime();
+            descrambler.descramble(bits, bitCount);
+            PipelineMetrics.record(Stage.DESCRAMBLE, start);
+        }
+
+        reception.payload = bits.length == bitCount / 8 ? bits : Arrays.copyOf(bits, bitCount / 8);
+        reception.plainBytes = encryptionEnabled
+                ? encryption.decrypt(reception.payload, reception.algorithm)
+                : reception.payload;
+    }
+
+    /**
+     * Habilita ou desabilita a etapa de criptografia
+     * @param enabled true para criptografar/descriptografar
+     */
+    public void setEncryptionEnabled(boolean enabled) {
+        this.encryptionEnabled = enabled;
+    }
+
+    public boolean isEncryptionEnabled() {
+        return encryptionEnabled;
+    }
+
+    /**
+     * Define o algoritmo de criptografia usado na transmissão (e na recepção de sinais avulsos)
+     * @param algorithm Algoritmo (xor ou AES-GCM)
+     */
+    public void setEncryptionAlgorithm(Encryption.Algorithm algorithm) {
+        encryption.setAlgorithm(algorithm);
+    }
+
+    public Encryption.Algorithm getEncryptionAlgorithm() {
+        return encryption.getAlgorithm();
+    }
+
+    /**
+     * Habilita o modo de bytes crus na transmissão (e na recepção de sinais avulsos)
+     * @param raw true para enviar os bytes criptografados direto ao código de linha
+     */
+    public void setRawPayload(boolean raw) {
+        this.rawPayload = raw;
+    }
+
+    public boolean isRawPayload() {
+        return rawPayload;
+    }
+
+    /**
+     * Define o código de linha usado na transmissão (e na recepção de sinais avulsos)
+     * @param lineCode Código de linha
+     */
+    public void setLineCode(LineCode lineCode) {
+        this.lineCode = lineCode;
+    }
+
+    public LineCode getLineCode() {
+        return lineCode;
+    }
+
+    /**
+     * Define o embaralhador aplicado antes do código de linha
+     * @param scrambler Embaralhador (null = sem embaralhador)
+     */
+    public void setScrambler(Scrambler scrambler) {
+        this.scrambler = scrambler;
+    }
+
+    public Scrambler getScrambler() {
+        return scrambler;
+    }
+
+    /**
+     * Habilita ou desabilita a correção de erros Hamming(8,4)
+     * @param enabled true para codificar/decodificar com FEC (dobra o número de bits)
+     */
+    public void setFecEnabled(boolean enabled) {
+        this.fecEnabled = enabled;
+    }
+
+    public boolean isFecEnabled() {
+        return fecEnabled;
+    }
+}